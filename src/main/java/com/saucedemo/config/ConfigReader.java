@@ -28,6 +28,10 @@ public class ConfigReader {
         return value;
     }
 
+    public static String getProperty(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
     public static String getAppUrl() {
         return getProperty("app.url");
     }
@@ -56,6 +60,14 @@ public class ConfigReader {
         return getProperty("locked.password");
     }
 
+    public static String getGlitchUsername() {
+        return getProperty("glitch.username");
+    }
+
+    public static String getGlitchPassword() {
+        return getProperty("glitch.password");
+    }
+
     public static String getInvalidUsername() {
         return getProperty("invalid.username");
     }
@@ -83,4 +95,35 @@ public class ConfigReader {
     public static boolean isScreenshotEnabled() {
         return Boolean.parseBoolean(getProperty("screenshot.enabled"));
     }
+
+    /**
+     * Fixed browser viewport as {width, height}, or null for a maximized window
+     */
+    public static int[] getWindowSize() {
+        String size = getProperty("browser.window.size", "maximized").trim().toLowerCase();
+        if (size.isEmpty() || size.equals("maximized")) {
+            return null;
+        }
+        String[] parts = size.split("x");
+        return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+    }
+
+    public static int getScreenshotMaxWidth() {
+        return Integer.parseInt(getProperty("screenshot.max.width", "0"));
+    }
+
+    public static int getScreenshotMaxHeight() {
+        return Integer.parseInt(getProperty("screenshot.max.height", "0"));
+    }
+
+    public static int getMaxSessions(String browser) {
+        return Integer.parseInt(getProperty("browser." + browser.toLowerCase() + ".max.sessions", "2"));
+    }
+
+    /**
+     * Journeys per user in the latency scenario suite
+     */
+    public static int getLatencyIterations() {
+        return Integer.parseInt(getProperty("latency.iterations", "10"));
+    }
 }
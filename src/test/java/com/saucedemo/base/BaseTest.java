@@ -1,6 +1,7 @@
 package com.saucedemo.base;
 
 import com.saucedemo.config.ConfigReader;
+import com.saucedemo.utils.ConsoleSink;
 import com.saucedemo.utils.DriverFactory;
 import com.saucedemo.utils.ScreenshotUtil;
 import org.openqa.selenium.WebDriver;
@@ -21,15 +22,20 @@ public class BaseTest {
         driver.get(ConfigReader.getAppUrl());
     }
 
-    @AfterMethod
+    // alwaysRun: still quit the browser when a @BeforeMethod (e.g. a login step) failed
+    @AfterMethod(alwaysRun = true)
     public void tearDown(ITestResult result) {
         if (result.getStatus() == ITestResult.FAILURE) {
             String testName = result.getMethod().getMethodName();
-            ScreenshotUtil.captureScreenshot(driver, testName, browser);
-            System.out.println("Test failed: " + testName);
-            System.out.println("Failure reason: " + result.getThrowable().getMessage());
+            // Reuses the listener's capture for this failure if it already took one
+            if (ConfigReader.isScreenshotEnabled()) {
+                ScreenshotUtil.save(ScreenshotUtil.captureFailure(driver, testName, browser));
+            }
+            ConsoleSink.out("Test failed: " + testName);
+            ConsoleSink.out("Failure reason: " + result.getThrowable().getMessage());
         }
 
+        ScreenshotUtil.clearFailureCapture();
         DriverFactory.quitDriver();
     }
 
@@ -0,0 +1,186 @@
+package com.saucedemo.bench;
+
+import com.saucedemo.utils.OtlpExporter;
+import com.saucedemo.utils.Telemetry;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-process OTLP/HTTP collector to check what Telemetry exports
+ *
+ * Simulates a suite (tests, steps, sessions, command latencies) without a
+ * browser, sends it to a local HTTP endpoint and to a file directory, then
+ * checks both: every span's parent exists in the trace, tests carry their
+ * class / Jira key / browser, and every metric series is a histogram.
+ *
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="com.saucedemo.bench.OtlpCollectorStandIn" \
+ *       -Dexec.classpathScope=test -Dexec.args="200"
+ *   (tests)
+ */
+public class OtlpCollectorStandIn {
+
+    private static final Json JSON = new Json();
+
+    public static void main(String[] args) throws IOException {
+        int tests = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        System.out.println("╔═══════════════════════════════════════════════════════════╗");
+        System.out.println("║          OTLP Export Check (collector stand-in)           ║");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+
+        Map<String, List<String>> received = Collections.synchronizedMap(new HashMap<>());
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/", exchange -> {
+            String signal = exchange.getRequestURI().getPath().substring("/v1/".length());
+            try (InputStream body = exchange.getRequestBody()) {
+                received.computeIfAbsent(signal, s -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        Path dir = Paths.get("test-output", "bench", "otlp");
+        Files.deleteIfExists(dir.resolve("traces.jsonl"));
+        Files.deleteIfExists(dir.resolve("metrics.jsonl"));
+        Telemetry.addExporter(OtlpExporter.file(dir));
+        Telemetry.addExporter(OtlpExporter.http("http://127.0.0.1:" + server.getAddress().getPort()));
+
+        long start = System.currentTimeMillis();
+        simulate(tests);
+        Telemetry.shutdown();
+        server.stop(0);
+        System.out.println("⏱️  Simulated and exported " + tests + " tests in "
+            + (System.currentTimeMillis() - start) + "ms");
+
+        boolean ok = check("file", Files.readAllLines(dir.resolve("traces.jsonl")),
+            Files.readAllLines(dir.resolve("metrics.jsonl")), tests);
+        ok &= check("http", received.getOrDefault("traces", List.of()),
+            received.getOrDefault("metrics", List.of()), tests);
+        System.out.println(ok ? "✅ OTLP export OK" : "❌ OTLP export check failed");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static void simulate(int tests) {
+        Telemetry.startSuite("Stand-in Suite");
+        for (int t = 0; t < tests; t++) {
+            String browser = t % 2 == 0 ? "chrome" : "firefox";
+            Telemetry.Span session = Telemetry.startSpan("session " + browser, Telemetry.getSuiteSpan(),
+                "browser", browser, "session.reused", String.valueOf(t >= 2));
+            Telemetry.recordDuration("selenium.session.wait.duration", 0.2, "browser", browser, "wait.reason", "slot");
+            Telemetry.recordDuration("selenium.session.start.duration", 900 + t, "browser", browser);
+
+            String name = "test" + t;
+            Telemetry.Span test = Telemetry.startSpan(name, Telemetry.getSuiteSpan(), "test.name", name,
+                "test.class", "com.saucedemo.tests.StandInTest", "jira.key", "SD-" + t, "browser", browser);
+            session.setAttribute("test.name", name);
+            for (int s = 1; s <= 3; s++) {
+                Telemetry.Span step = Telemetry.startSpan("Step " + s, test, "test.name", name);
+                for (int c = 0; c < 5; c++) {
+                    Telemetry.recordDuration("selenium.command.duration", 10 + c, "command", "findElement");
+                }
+                step.end();
+            }
+            if (t % 10 == 9) {
+                test.setError("AssertionError: expected [true] but found [false]");
+            }
+            test.setAttribute("test.status", t % 10 == 9 ? "failed" : "passed").end();
+            Telemetry.recordDuration("test.duration", 1500, "test.class", "StandInTest");
+            session.end();
+        }
+        Telemetry.getSuiteSpan().end();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean check(String source, List<String> traceRequests, List<String> metricRequests, int tests) {
+        Map<String, Map<String, Object>> spans = new HashMap<>();
+        Set<String> traceIds = new HashSet<>();
+        for (String request : traceRequests) {
+            Map<String, Object> root = JSON.toType(request, Json.MAP_TYPE);
+            for (Map<String, Object> resource : (List<Map<String, Object>>) root.get("resourceSpans")) {
+                for (Map<String, Object> scope : (List<Map<String, Object>>) resource.get("scopeSpans")) {
+                    for (Map<String, Object> span : (List<Map<String, Object>>) scope.get("spans")) {
+                        spans.put((String) span.get("spanId"), span);
+                        traceIds.add((String) span.get("traceId"));
+                    }
+                }
+            }
+        }
+
+        int orphans = 0;
+        int testsWithKey = 0;
+        int errors = 0;
+        for (Map<String, Object> span : spans.values()) {
+            String parent = (String) span.get("parentSpanId");
+            if (parent != null && !parent.isEmpty() && !spans.containsKey(parent)) {
+                orphans++;
+            }
+            Map<String, String> attributes = attributes(span);
+            if (attributes.containsKey("jira.key") && attributes.containsKey("test.class")
+                && attributes.containsKey("browser")) {
+                testsWithKey++;
+            }
+            Map<String, Object> status = (Map<String, Object>) span.get("status");
+            if (status != null && ((Number) status.get("code")).intValue() == 2) {
+                errors++;
+            }
+        }
+
+        Set<String> metrics = new HashSet<>();
+        boolean histograms = true;
+        if (!metricRequests.isEmpty()) {
+            // Cumulative: the last request holds every series
+            Map<String, Object> root = JSON.toType(metricRequests.get(metricRequests.size() - 1), Json.MAP_TYPE);
+            for (Map<String, Object> resource : (List<Map<String, Object>>) root.get("resourceMetrics")) {
+                for (Map<String, Object> scope : (List<Map<String, Object>>) resource.get("scopeMetrics")) {
+                    for (Map<String, Object> metric : (List<Map<String, Object>>) scope.get("metrics")) {
+                        metrics.add((String) metric.get("name"));
+                        histograms &= metric.get("histogram") != null;
+                    }
+                }
+            }
+        }
+
+        int expectedSpans = 1 + tests * 5;
+        boolean ok = spans.size() == expectedSpans && orphans == 0 && traceIds.size() == 1
+            && testsWithKey == tests && errors == tests / 10 && histograms
+            && metrics.containsAll(List.of("selenium.session.start.duration", "selenium.session.wait.duration",
+                "selenium.command.duration", "test.duration"));
+        System.out.println(String.format("%s %-4s: %d requests, %d/%d spans, %d orphans, %d traces, "
+                + "%d tagged tests, %d errors, metrics %s", ok ? "✅" : "❌", source, traceRequests.size(),
+            spans.size(), expectedSpans, orphans, traceIds.size(), testsWithKey, errors, metrics));
+        return ok;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> attributes(Map<String, Object> span) {
+        Map<String, String> attributes = new HashMap<>();
+        List<Map<String, Object>> list = (List<Map<String, Object>>) span.get("attributes");
+        if (list != null) {
+            for (Map<String, Object> attribute : list) {
+                Map<String, Object> value = (Map<String, Object>) attribute.get("value");
+                attributes.put((String) attribute.get("key"), String.valueOf(value.get("stringValue")));
+            }
+        }
+        return attributes;
+    }
+}
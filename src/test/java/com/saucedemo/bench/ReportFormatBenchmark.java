@@ -0,0 +1,112 @@
+package com.saucedemo.bench;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.ExtentColor;
+import com.saucedemo.utils.ExtentReportManager;
+import com.saucedemo.utils.PagedReportWriter;
+import com.saucedemo.utils.ReportJournal;
+import com.saucedemo.utils.ReportHandle;
+import com.saucedemo.utils.ReportQueue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Spark vs paged report on a synthetic run
+ *
+ * Builds N tests (default 10000) shaped like the real ones - class, Jira
+ * key and browser categories, labels, variables, a table, two step nodes,
+ * ~5% failures with a stack trace - through the ReportQueue with the
+ * journal on, then times Spark's flush against PagedReportWriter and
+ * compares output sizes. "Initial load" is what a browser must parse
+ * before showing anything: the whole file for Spark, shell + index for
+ * the paged report.
+ *
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="com.saucedemo.bench.ReportFormatBenchmark" \
+ *       -Dexec.classpathScope=test -Dexec.args="10000"
+ */
+public class ReportFormatBenchmark {
+
+    private static final String[] CLASSES = {"LoginTest", "CartTest", "CheckoutTest", "InventoryTest"};
+    private static final String[] BROWSERS = {"chrome", "firefox", "edge"};
+
+    public static void main(String[] args) throws IOException {
+        int testCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        Path dir = Paths.get("test-output", "bench", "report-format");
+        Files.createDirectories(dir);
+        Path spark = dir.resolve("spark.html");
+        Path paged = dir.resolve("paged.html");
+        Path journal = dir.resolve("bench.journal.jsonl");
+        Files.deleteIfExists(journal);
+
+        System.out.println("╔═══════════════════════════════════════════════════════════╗");
+        System.out.println("║          Report Format Benchmark (Spark vs Paged)         ║");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+        System.out.println("🧪 Generating " + testCount + " synthetic tests...");
+
+        long start = System.currentTimeMillis();
+        ExtentReports extent = ExtentReportManager.createExtentReports(spark.toString());
+        ReportJournal.open(journal);
+        generate(extent, testCount);
+        ReportQueue.drain();
+        ReportJournal.close();
+        long generateMillis = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        extent.flush();
+        long sparkMillis = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        PagedReportWriter.write(journal, paged);
+        long pagedMillis = System.currentTimeMillis() - start;
+
+        Path pagedData = dir.resolve("paged");
+        long sparkBytes = Files.size(spark);
+        long pagedBytes = PagedReportWriter.getSize(paged);
+        long pagedInitial = Files.size(paged) + Files.size(pagedData.resolve("index.js"));
+
+        System.out.println("\n📊 " + testCount + " tests (generated + journaled in " + generateMillis + "ms, journal "
+            + Files.size(journal) / 1024 + " KB)");
+        System.out.println(String.format("%-8s %12s %14s %16s", "Format", "Write (ms)", "Total (KB)", "Initial load (KB)"));
+        System.out.println(String.format("%-8s %12d %14d %16d", "spark", sparkMillis, sparkBytes / 1024,
+            sparkBytes / 1024));
+        System.out.println(String.format("%-8s %12d %14d %16d", "paged", pagedMillis, pagedBytes / 1024,
+            pagedInitial / 1024));
+        System.out.println("📁 " + dir.toAbsolutePath());
+    }
+
+    private static void generate(ExtentReports extent, int testCount) {
+        Random random = new Random(42);
+        for (int i = 0; i < testCount; i++) {
+            String className = CLASSES[i % CLASSES.length];
+            ReportHandle test = ReportQueue.createTest(extent, "test" + className + "_" + i,
+                "Synthetic test " + i);
+            ReportQueue.category(test, className);
+            ReportQueue.category(test, "Jira: SD-" + (1000 + i % 500));
+            ReportQueue.category(test, "Browser: " + BROWSERS[i % BROWSERS.length]);
+            ReportQueue.log(test, Status.INFO, "🚀 Test Started: test" + className + "_" + i);
+            ReportQueue.variable(test, "username", "standard_user");
+
+            ReportHandle login = ReportQueue.createNode(test, "Step 1: Login", "Open login page");
+            ReportQueue.log(login, Status.PASS, "Logged in as standard_user");
+            ReportHandle cart = ReportQueue.createNode(test, "Step 2: Cart", "Add products");
+            ReportQueue.table(cart, "Cart", new String[][]{
+                {"Item", "Price"}, {"Sauce Labs Backpack", "$29.99"}, {"Sauce Labs Bike Light", "$9.99"}});
+            ReportQueue.log(cart, Status.PASS, "Cart badge shows 2");
+
+            if (random.nextInt(100) < 5) {
+                ReportQueue.label(test, Status.FAIL, "TEST FAILED", ExtentColor.RED);
+                ReportQueue.throwable(test, Status.FAIL,
+                    new AssertionError("expected [2] but found [" + random.nextInt(5) + "]"));
+            } else {
+                ReportQueue.label(test, Status.PASS, "TEST PASSED", ExtentColor.GREEN);
+            }
+            ReportQueue.finishTest(test);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.saucedemo.bench;
+
+import com.saucedemo.utils.SpanTracer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Cost of recording one span, single-threaded and with 16 threads
+ *
+ * Each thread records nested test > step > command spans with
+ * SpanTracer.start/close, then the run is exported so the file size and
+ * export time can be checked too. Driver-command spans additionally pay
+ * for the EventFiringDecorator proxy and a stack walk - microseconds, next
+ * to a WebDriver HTTP round trip of milliseconds.
+ *
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="com.saucedemo.bench.SpanTracerBenchmark" \
+ *       -Dexec.classpathScope=test -Dexec.args="16 100000"
+ *   (threads, spans per thread)
+ */
+public class SpanTracerBenchmark {
+
+    private static final String[] STEP_NAMES = new String[10];
+
+    static {
+        for (int i = 0; i < STEP_NAMES.length; i++) {
+            STEP_NAMES[i] = "Step " + (i + 1);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int spansPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+
+        System.out.println("╔═══════════════════════════════════════════════════════════╗");
+        System.out.println("║          Span Tracer Overhead Benchmark                   ║");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+
+        // Warm-up (JIT), also on the main thread's buffer
+        record(spansPerThread);
+
+        long single = timed(1, spansPerThread);
+        long parallel = timed(threads, spansPerThread);
+        System.out.println(String.format("⏱️  1 thread:   %,d ns per span", single));
+        System.out.println(String.format("⏱️  %d threads: %,d ns per span (CPU time per span on %d cores)",
+            threads, parallel, Runtime.getRuntime().availableProcessors()));
+
+        Path trace = Paths.get("test-output", "bench", "trace-benchmark.json");
+        long start = System.currentTimeMillis();
+        long spans = SpanTracer.export(trace);
+        System.out.println(String.format("🧭 Exported %,d spans (%,d KB) in %dms -> %s", spans,
+            Files.size(trace) / 1024, System.currentTimeMillis() - start, trace.toAbsolutePath()));
+    }
+
+    /**
+     * Average nanoseconds per span with threads recording at once
+     */
+    private static long timed(int threads, int spansPerThread) throws InterruptedException {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                record(spansPerThread);
+            }, "bench-" + threads + "-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        // Wall time x busy cores / spans: what one span costs, however many threads share a core
+        int busyCores = Math.min(threads, Runtime.getRuntime().availableProcessors());
+        return (System.nanoTime() - start) * busyCores / ((long) threads * spansPerThread);
+    }
+
+    private static void record(int spans) {
+        // Explicit close() - nothing in here throws, and unused try-with-resources variables trip -Xlint:try
+        int recorded = 0;
+        while (recorded < spans) {
+            SpanTracer.Span test = SpanTracer.start("test", "test");
+            recorded++;
+            for (int step = 0; step < 10 && recorded < spans; step++) {
+                SpanTracer.Span stepSpan = SpanTracer.start(STEP_NAMES[step], "step");
+                recorded++;
+                for (int command = 0; command < 8 && recorded < spans; command++) {
+                    SpanTracer.start("click", "driver").close();
+                    recorded++;
+                }
+                stepSpan.close();
+            }
+            test.close();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.saucedemo.bench;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.Status;
+import com.saucedemo.utils.ConsoleSink;
+import com.saucedemo.utils.ExtentReportManager;
+import com.saucedemo.utils.ReportHandle;
+import com.saucedemo.utils.ReportQueue;
+import com.saucedemo.utils.TestLogger;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Cost of a log call: time and heap allocation per call, before and after
+ * level gating
+ *
+ * "legacy" replays the previous TestLogger code path (debug always went to
+ * the report, the debug switch was a system property read per call, every
+ * console line formatted a LocalDateTime). Disabled-level calls should
+ * allocate 0 bytes. Each case is warmed up, then measured over several
+ * iterations; the best one is reported (as JMH would with its default
+ * warm-up / measurement split). Console output goes to a null stream.
+ *
+ * Run with the default log.level=INFO, so debug is disabled.
+ *
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="com.saucedemo.bench.TestLoggerBenchmark" \
+ *       -Dexec.classpathScope=test -Dexec.args="10000"
+ *   (calls per iteration - all of them land in one report test, and
+ *   ExtentReports slows down on tests with tens of thousands of logs)
+ */
+public class TestLoggerBenchmark {
+
+    private static final DateTimeFormatter LEGACY_TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int ITERATIONS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Read by the cases so the JIT cannot drop the argument building
+    private static volatile String cartState = "3 items";
+
+    private interface Case {
+        void run(int i);
+    }
+
+    public static void main(String[] args) {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+
+        System.out.println("╔═══════════════════════════════════════════════════════════╗");
+        System.out.println("║          TestLogger Benchmark                             ║");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+        System.out.println("🔧 debug enabled: " + TestLogger.isDebugEnabled() + ", " + calls + " calls per iteration");
+
+        PrintStream out = System.out;
+        PrintStream nowhere = new PrintStream(OutputStream.nullOutputStream());
+
+        String[][] results = {
+            measure("legacy debug(\"...\" + x)", calls, nowhere, i -> legacyDebug("Cart state: " + cartState)),
+            measure("debug(\"...\" + x)", calls, nowhere, i -> TestLogger.debug("Cart state: " + cartState)),
+            measure("debug(\"key\", value)", calls, nowhere, i -> TestLogger.debug("Cart state", cartState)),
+            measure("debug(() -> \"...\" + x)", calls, nowhere, i -> TestLogger.debug(() -> "Cart state: " + cartState)),
+            measure("legacy console timestamp", calls, nowhere, i -> legacyConsole("Cart state")),
+            measure("info(\"...\") console only", calls, nowhere, i -> consoleOnlyInfo("Cart state")),
+        };
+
+        System.out.println(String.format("%-30s %12s %14s", "case", "ns/call", "bytes/call"));
+        for (String[] row : results) {
+            System.out.println(String.format("%-30s %12s %14s", row[0], row[1], row[2]));
+        }
+    }
+
+    private static String[] measure(String name, int calls, PrintStream console, Case body) {
+        PrintStream out = System.out;
+        System.setOut(console);
+        ExtentReports extent = new ExtentReports();
+        long thread = Thread.currentThread().getId();
+        double bestNanos = Double.MAX_VALUE;
+        double bestBytes = Double.MAX_VALUE;
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS + ITERATIONS; iteration++) {
+            // Report writes only happen with an active test; a fresh one per iteration
+            ExtentReportManager.setTest(ReportQueue.createTest(extent, name + " #" + iteration, "bench"));
+            long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                body.run(i);
+            }
+            long nanos = System.nanoTime() - start;
+            long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+            if (iteration >= WARMUP_ITERATIONS) {
+                bestNanos = Math.min(bestNanos, (double) nanos / calls);
+                bestBytes = Math.min(bestBytes, (double) bytes / calls);
+            }
+            // Let the report writer catch up between iterations
+            ReportQueue.finishTest(ExtentReportManager.getTest());
+            ReportQueue.drain();
+        }
+        ConsoleSink.flush();
+        System.setOut(out);
+        return new String[]{name, String.format("%,.1f", bestNanos), String.format("%,.1f", bestBytes)};
+    }
+
+    /**
+     * The old TestLogger.debug
+     */
+    private static void legacyDebug(String message) {
+        ReportHandle test = ExtentReportManager.getTest();
+        if (test != null) {
+            ReportQueue.log(test, Status.INFO, "🔍 DEBUG: " + message);
+        }
+        if (Boolean.parseBoolean(System.getProperty("test.debug", "false"))) {
+            System.out.println("  🔍 [DEBUG] " + LocalDateTime.now().format(LEGACY_TIME_FORMATTER) + " " + message);
+        }
+    }
+
+    /**
+     * The old console line of TestLogger.info
+     */
+    private static void legacyConsole(String message) {
+        System.out.println("  ℹ️  [INFO] " + LocalDateTime.now().format(LEGACY_TIME_FORMATTER) + " " + message);
+    }
+
+    /**
+     * TestLogger.info with no active test, so only the console line is written
+     */
+    private static void consoleOnlyInfo(String message) {
+        ReportHandle test = ExtentReportManager.getTest();
+        ExtentReportManager.removeTest();
+        TestLogger.info(message);
+        ExtentReportManager.setTest(test);
+    }
+}
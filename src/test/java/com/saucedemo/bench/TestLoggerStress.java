@@ -0,0 +1,140 @@
+package com.saucedemo.bench;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.saucedemo.utils.ConsoleSink;
+import com.saucedemo.utils.EventLog;
+import com.saucedemo.utils.ExtentReportManager;
+import com.saucedemo.utils.ReportHandle;
+import com.saucedemo.utils.ReportQueue;
+import com.saucedemo.utils.TestContext;
+import com.saucedemo.utils.TestLogger;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TestLogger throughput and isolation with many parallel "tests"
+ *
+ * Each thread runs tests back to back the way the listener drives them
+ * (TestContext.begin, steps, timers, nested spans, info logs,
+ * TestContext.end, one ConsoleSink block per test) and checks that its step
+ * numbers, timers and spans were never touched by another thread. Console
+ * output goes to a null stream so the terminal does not set the pace.
+ *
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="com.saucedemo.bench.TestLoggerStress" \
+ *       -Dexec.classpathScope=test -Dexec.args="16 200"
+ *   (threads, tests per thread)
+ */
+public class TestLoggerStress {
+
+    private static final int STEPS = 5;
+    private static final int LOGS_PER_STEP = 10;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int testsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        System.out.println("╔═══════════════════════════════════════════════════════════╗");
+        System.out.println("║          TestLogger Stress Test                           ║");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+        System.out.println("🧵 " + threads + " threads x " + testsPerThread + " tests x " + STEPS + " steps x "
+            + LOGS_PER_STEP + " logs");
+
+        ExtentReports extent = new ExtentReports();
+        AtomicLong logs = new AtomicLong();
+        AtomicLong violations = new AtomicLong();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        PrintStream nowhere = new PrintStream(OutputStream.nullOutputStream());
+
+        for (int t = 0; t < threads; t++) {
+            String threadName = "stress-" + t;
+            Thread worker = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < testsPerThread; i++) {
+                    runTest(extent, threadName + "_test" + i, logs, violations);
+                }
+            }, threadName);
+            workers.add(worker);
+            worker.start();
+        }
+
+        ready.await();
+        System.setOut(nowhere);
+        System.setErr(nowhere);
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long loggedNanos = System.nanoTime() - start;
+        ConsoleSink.flush();
+        System.setOut(out);
+        System.setErr(err);
+
+        ReportQueue.drain();
+        EventLog.printSummary();
+        long totalNanos = System.nanoTime() - start;
+
+        System.out.println(String.format("📈 %,d log calls in %dms on test threads = %,.0f logs/s "
+                + "(%,.0f logs/s including report drain)",
+            logs.get(), loggedNanos / 1_000_000, logs.get() * 1e9 / loggedNanos, logs.get() * 1e9 / totalNanos));
+        if (violations.get() == 0) {
+            System.out.println("✅ No cross-test interference (step numbers, timers, spans)");
+        } else {
+            System.out.println("❌ " + violations.get() + " cross-test interference violations");
+            System.exit(1);
+        }
+    }
+
+    private static void runTest(ExtentReports extent, String name, AtomicLong logs, AtomicLong violations) {
+        ReportHandle test = ReportQueue.createTest(extent, name, "stress");
+        ExtentReportManager.setTest(test);
+        ConsoleSink.beginTest(name);
+        TestContext context = TestContext.begin(name);
+
+        TestLogger.startTimer(name);
+        TestLogger.startSpan(name);
+        for (int step = 1; step <= STEPS; step++) {
+            ReportHandle node = TestLogger.step("step of " + name);
+            if (!node.getName().startsWith("Step " + step + ":")) {
+                violations.incrementAndGet();
+            }
+            TestLogger.startSpan(name + " step " + step);
+            for (int i = 0; i < LOGS_PER_STEP; i++) {
+                TestLogger.info(name + " message " + i);
+            }
+            if (!TestContext.current().peekSpan().getName().equals(name + " step " + step)) {
+                violations.incrementAndGet();
+            }
+            TestLogger.endSpan();
+            logs.addAndGet(LOGS_PER_STEP + 3);
+        }
+        TestLogger.endSpan();
+        // Another thread's stopTimer would have removed or replaced it
+        if (TestContext.current() != context || context.getStepCount() != STEPS
+            || TestLogger.stopTimer(name) < 0 || context.peekSpan() != null) {
+            violations.incrementAndGet();
+        }
+        logs.addAndGet(4);
+
+        ReportQueue.finishTest(test);
+        TestContext.end();
+        ConsoleSink.testDone();
+        ConsoleSink.endTest();
+    }
+}
@@ -0,0 +1,135 @@
+package com.saucedemo.listeners;
+
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Summarises a cross-browser run: results grouped per browser, and each test
+ * side by side across browsers.
+ *
+ * Written to the console and to test-output/cross-browser-summary.txt
+ */
+public class CrossBrowserReporter implements IReporter {
+
+    private static final String SUMMARY_FILE = "test-output/cross-browser-summary.txt";
+
+    @Override
+    public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+        // test -> browser -> outcome
+        Map<String, Map<String, String>> matrix = new TreeMap<>();
+        Map<String, BrowserTotals> totals = new LinkedHashMap<>();
+
+        for (ISuite suite : suites) {
+            for (ISuiteResult suiteResult : suite.getResults().values()) {
+                ITestContext context = suiteResult.getTestContext();
+                String browser = context.getCurrentXmlTest().getParameter("browser");
+                if (browser == null) {
+                    browser = context.getName();
+                }
+                BrowserTotals browserTotals = totals.computeIfAbsent(browser, b -> new BrowserTotals());
+
+                collect(context.getPassedTests().getAllResults(), browser, "PASS", matrix, browserTotals);
+                collect(context.getFailedTests().getAllResults(), browser, "FAIL", matrix, browserTotals);
+                collect(context.getSkippedTests().getAllResults(), browser, "SKIP", matrix, browserTotals);
+            }
+        }
+
+        if (totals.size() < 2) {
+            // Single-browser run - nothing to compare
+            return;
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("Per-browser results");
+        lines.add(String.format("  %-12s %6s %6s %6s %10s", "Browser", "Pass", "Fail", "Skip", "Time"));
+        for (Map.Entry<String, BrowserTotals> entry : totals.entrySet()) {
+            BrowserTotals t = entry.getValue();
+            lines.add(String.format("  %-12s %6d %6d %6d %9.1fs",
+                entry.getKey(), t.passed, t.failed, t.skipped, t.millis / 1000.0));
+        }
+
+        lines.add("");
+        lines.add("Per-test results");
+        Set<String> browsers = totals.keySet();
+        StringBuilder header = new StringBuilder(String.format("  %-55s", "Test"));
+        for (String browser : browsers) {
+            header.append(String.format(" %-16s", browser));
+        }
+        lines.add(header.toString());
+
+        for (Map.Entry<String, Map<String, String>> entry : matrix.entrySet()) {
+            StringBuilder row = new StringBuilder(String.format("  %-55s", entry.getKey()));
+            for (String browser : browsers) {
+                row.append(String.format(" %-16s", entry.getValue().getOrDefault(browser, "-")));
+            }
+            lines.add(row.toString());
+        }
+
+        System.out.println();
+        System.out.println("╔═══════════════════════════════════════════════════════════╗");
+        System.out.println("║              Cross-Browser Summary                        ║");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+        lines.forEach(System.out::println);
+
+        writeSummary(lines);
+    }
+
+    private void collect(Set<ITestResult> results, String browser, String status,
+                         Map<String, Map<String, String>> matrix, BrowserTotals totals) {
+        for (ITestResult result : results) {
+            String className = result.getTestClass().getName();
+            String testName = className.substring(className.lastIndexOf('.') + 1)
+                + "." + result.getMethod().getMethodName();
+            long millis = result.getEndMillis() - result.getStartMillis();
+
+            matrix.computeIfAbsent(testName, k -> new TreeMap<>())
+                .put(browser, status + " " + millis + "ms");
+
+            totals.millis += millis;
+            switch (status) {
+                case "PASS":
+                    totals.passed++;
+                    break;
+                case "FAIL":
+                    totals.failed++;
+                    break;
+                default:
+                    totals.skipped++;
+                    break;
+            }
+        }
+    }
+
+    private void writeSummary(List<String> lines) {
+        File file = new File(SUMMARY_FILE);
+        file.getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            lines.forEach(writer::println);
+            System.out.println("📁 Summary saved at: " + file.getAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Failed to write cross-browser summary: " + e.getMessage());
+        }
+    }
+
+    private static class BrowserTotals {
+        int passed;
+        int failed;
+        int skipped;
+        long millis;
+    }
+}
@@ -1,152 +1,284 @@
 package com.saucedemo.listeners;
 
 import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.markuputils.ExtentColor;
-import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.saucedemo.annotations.JiraTest;
+import com.saucedemo.config.ConfigReader;
+import com.saucedemo.utils.ArtifactStore;
+import com.saucedemo.utils.ConsoleSink;
+import com.saucedemo.utils.DriverFactory;
+import com.saucedemo.utils.EventLog;
 import com.saucedemo.utils.ExtentReportManager;
+import com.saucedemo.utils.FailureBundleCollector;
+import com.saucedemo.utils.HistoryOrderInterceptor;
+import com.saucedemo.utils.LatencyRecorder;
+import com.saucedemo.utils.PagePerformance;
+import com.saucedemo.utils.RegressionDetector;
+import com.saucedemo.utils.ReportHandle;
+import com.saucedemo.utils.ReportQueue;
+import com.saucedemo.utils.ResultStore;
+import com.saucedemo.utils.ScreencastRecorder;
+import com.saucedemo.utils.Screenshot;
 import com.saucedemo.utils.ScreenshotUtil;
+import com.saucedemo.utils.ScreenshotWriter;
+import com.saucedemo.utils.SpanTracer;
+import com.saucedemo.utils.Telemetry;
+import com.saucedemo.utils.TestContext;
 import org.openqa.selenium.WebDriver;
 import org.testng.*;
 
-import java.io.File;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * TestNG Listener for ExtentReports integration
+ *
+ * Also opens and closes each test's ConsoleSink block: from its first
+ * @BeforeMethod to the end of its @AfterMethod, and fails the run on
+ * performance regressions (regression.fail.build) once TestNG has written
+ * its own reports.
  */
-public class ExtentTestListener implements ITestListener, ISuiteListener {
+public class ExtentTestListener implements ITestListener, ISuiteListener, IInvokedMethodListener,
+    IExecutionListener {
 
     private static ExtentReports extent;
 
+    // Retried attempts so far per test + browser (recorded with the final attempt)
+    private static final Map<String, Integer> retries = new ConcurrentHashMap<>();
+
     @Override
     public void onStart(ISuite suite) {
         extent = ExtentReportManager.getExtentReports();
-        System.out.println("╔═══════════════════════════════════════════════════════════╗");
-        System.out.println("║          Starting Test Suite: " + suite.getName());
-        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+        Telemetry.startSuite(suite.getName());
+        ConsoleSink.setExpectedTests(suite.getAllMethods().size());
+        EventLog.log("INFO", "suite.start", suite.getName());
+        ConsoleSink.out("╔═══════════════════════════════════════════════════════════╗");
+        ConsoleSink.out("║          Starting Test Suite: " + suite.getName());
+        ConsoleSink.out("╚═══════════════════════════════════════════════════════════╝");
     }
 
     @Override
     public void onFinish(ISuite suite) {
+        // Test output first, then the summaries below
+        ConsoleSink.flush();
+        DriverFactory.printSessionStats();
+        // Barriers: every queued screenshot (which may log to the report), then
+        // every queued report event, must be applied before the report is written
+        ScreenshotWriter.flush();
+        // Every result is recorded by now; summaries are report sections, not tests
+        RegressionDetector.analyze();
+        RegressionDetector.report();
+        PagePerformance.report();
+        LatencyRecorder.report();
+        ReportQueue.drain();
+        ArtifactStore.printSummary();
+        ArtifactStore.evict();
+        ResultStore.printSummary();
+        RegressionDetector.printSummary();
+        PagePerformance.printSummary();
+        LatencyRecorder.printSummary();
+        EventLog.log("INFO", "suite.end", suite.getName());
+        EventLog.printSummary();
         ExtentReportManager.flushReports();
+        SpanTracer.export();
+        if (Telemetry.getSuiteSpan() != null) {
+            Telemetry.getSuiteSpan().end();
+        }
+        Telemetry.shutdown();
+        ConsoleSink.flush();
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        // Watch mode reruns keep going; the runners turn this into their exit code
+        if (!DriverFactory.isSessionReuse()) {
+            RegressionDetector.failBuildIfRegressed();
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.getTestMethod().isBeforeMethodConfiguration()) {
+            // Renamed to the test in onTestStart
+            ConsoleSink.beginTest(testResult.getTestClass().getRealClass().getSimpleName());
+            PagePerformance.discardPending();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.getTestMethod().isAfterMethodConfiguration()) {
+            ConsoleSink.endTest();
+        }
     }
 
     @Override
     public void onTestStart(ITestResult result) {
         String testName = result.getMethod().getMethodName();
         String description = result.getMethod().getDescription();
+        ConsoleSink.beginTest(testName);
 
-        ExtentTest test = extent.createTest(testName, description);
+        ReportHandle test = ReportQueue.createTest(extent, testName, description);
+        ScreenshotUtil.clearFailureCapture();
 
         // Add categories
         String className = result.getTestClass().getName();
-        test.assignCategory(className.substring(className.lastIndexOf(".") + 1));
+        ReportQueue.category(test, className.substring(className.lastIndexOf(".") + 1));
 
         // Add Jira key if available
         Method method = result.getMethod().getConstructorOrMethod().getMethod();
         JiraTest jiraAnnotation = method.getAnnotation(JiraTest.class);
         if (jiraAnnotation != null) {
-            test.assignCategory("Jira: " + jiraAnnotation.key());
-            test.info("🔖 Jira Key: " + jiraAnnotation.key());
-            test.info("📝 Description: " + jiraAnnotation.description());
-            test.info("⚡ Priority: " + jiraAnnotation.priority());
+            ReportQueue.category(test, "Jira: " + jiraAnnotation.key());
+            ReportQueue.log(test, Status.INFO, "🔖 Jira Key: " + jiraAnnotation.key());
+            ReportQueue.log(test, Status.INFO, "📝 Description: " + jiraAnnotation.description());
+            ReportQueue.log(test, Status.INFO, "⚡ Priority: " + jiraAnnotation.priority());
         }
 
-        // Add browser info
-        Object[] parameters = result.getParameters();
-        if (parameters != null && parameters.length > 0) {
-            test.info("🌐 Browser: " + parameters[0]);
+        // Add browser info (grouped per browser in the report)
+        String browser = getBrowserName(result);
+        ReportQueue.category(test, "Browser: " + browser);
+        ReportQueue.log(test, Status.INFO, "🌐 Browser: " + browser);
+
+        // Earlier runs of this test on this browser (ResultStore)
+        ResultStore.TestStats history = ResultStore.isEnabled()
+            ? ResultStore.stats(HistoryOrderInterceptor.testKey(result.getMethod()), browser)
+            : null;
+        if (history != null) {
+            ReportQueue.log(test, Status.INFO, "📈 History: " + history.summary()
+                + (history.getTopFailure() != null ? " - most frequent failure: " + history.getTopFailure() : ""));
         }
 
         ExtentReportManager.setTest(test);
+        TestContext.begin(testName)
+            .setLabels(jiraAnnotation != null ? jiraAnnotation.key() : null, browser)
+            .setTelemetrySpan(Telemetry.startSpan(testName, Telemetry.getSuiteSpan(),
+            "test.name", testName,
+            "test.class", className,
+            "jira.key", jiraAnnotation != null ? jiraAnnotation.key() : null,
+            "browser", browser));
+        DriverFactory.tagSession("test.name", testName);
+        if (jiraAnnotation != null) {
+            DriverFactory.tagSession("jira.key", jiraAnnotation.key());
+        }
 
-        System.out.println("\n▶️  Starting test: " + testName);
+        ConsoleSink.out("\n▶️  Starting test: " + testName);
+        EventLog.log("INFO", "test.start", description);
+        // Pages its @BeforeMethod already reached
+        PagePerformance.beginTest();
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        ExtentTest test = ExtentReportManager.getTest();
+        DriverFactory.markTestFinished();
+        // Passed - the rolling screencast is not needed
+        ScreencastRecorder.discard(DriverFactory.getDriver());
+        FailureBundleCollector.discard(DriverFactory.getDriver());
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.log(Status.PASS, MarkupHelper.createLabel(
+            // Queued behind anything the test itself logged
+            ReportQueue.label(test, Status.PASS,
                 "Test PASSED: " + result.getMethod().getMethodName(),
                 ExtentColor.GREEN
-            ));
+            );
+            ReportQueue.finishTest(test);
         }
-        System.out.println("✅ Test PASSED: " + result.getMethod().getMethodName());
+        endTestContext(result, "passed");
+        ConsoleSink.out(ConsoleSink.progress() + "✅ Test PASSED: " + result.getMethod().getMethodName());
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
-        ExtentTest test = ExtentReportManager.getTest();
+        DriverFactory.markTestFinished();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.log(Status.FAIL, MarkupHelper.createLabel(
+            ReportQueue.label(test, Status.FAIL,
                 "Test FAILED: " + result.getMethod().getMethodName(),
                 ExtentColor.RED
-            ));
+            );
 
             // Log failure reason
             Throwable throwable = result.getThrowable();
             if (throwable != null) {
-                test.fail("❌ Failure Reason: " + throwable.getMessage());
-                test.fail(throwable);
+                ReportQueue.log(test, Status.FAIL, "❌ Failure Reason: " + throwable.getMessage());
+                ReportQueue.throwable(test, Status.FAIL, throwable);
             }
 
             // Attach screenshot (EMBEDDED as Base64 in HTML)
             try {
                 // Use DriverFactory to get the current thread's driver
-                WebDriver driver = com.saucedemo.utils.DriverFactory.getDriver();
+                WebDriver driver = DriverFactory.getDriver();
 
                 if (driver != null) {
-                    // Capture as Base64 for embedding in HTML
-                    String base64Screenshot = ScreenshotUtil.captureScreenshotAsBase64(driver);
-
-                    if (base64Screenshot != null && !base64Screenshot.isEmpty()) {
-                        // Embed screenshot directly in HTML (no external file needed!)
-                        test.addScreenCaptureFromBase64String(base64Screenshot, "Failure Screenshot");
-                        test.info("📸 Screenshot embedded in report (Base64)");
-
-                        // Optional: Also save to file for backup
-                        String screenshotPath = ScreenshotUtil.captureScreenshot(
-                            driver,
-                            result.getMethod().getMethodName(),
-                            getBrowserName(result)
-                        );
-                        if (screenshotPath != null) {
-                            test.info("💾 Backup saved at: " + screenshotPath);
+                    // One capture per failure - BaseTest.tearDown reuses it
+                    Screenshot screenshot = ScreenshotUtil.captureFailure(
+                        driver,
+                        result.getMethod().getMethodName(),
+                        getBrowserName(result)
+                    );
+
+                    if (screenshot != null) {
+                        // Embed in HTML or store next to the report (encoded off the test thread)
+                        ScreenshotWriter.attachAsync(test, screenshot, "Failure Screenshot");
+                        ReportQueue.log(test, Status.INFO, ScreenshotWriter.isExternalStorage()
+                            ? "📸 Screenshot stored next to the report"
+                            : "📸 Screenshot embedded in report (Base64)");
+
+                        // Optional: Also save to file for backup (same buffer, no second capture)
+                        if (ConfigReader.isScreenshotEnabled()) {
+                            ScreenshotUtil.save(screenshot).thenAccept(screenshotPath -> {
+                                if (screenshotPath != null) {
+                                    ReportQueue.log(test, Status.INFO, "💾 Backup saved at: " + screenshotPath);
+                                }
+                            });
                         }
                     } else {
-                        test.warning("⚠️ Could not capture Base64 screenshot");
+                        ReportQueue.log(test, Status.WARNING, "⚠️ Could not capture screenshot");
                     }
+
+                    // Last few seconds leading up to the failure (screencast.enabled)
+                    ScreencastRecorder.saveAsync(driver,
+                        result.getMethod().getMethodName() + "_" + getBrowserName(result), test);
+
+                    // DOM + console + network log, zipped off the test thread
+                    FailureBundleCollector.saveAsync(driver,
+                        result.getMethod().getMethodName() + "_" + getBrowserName(result), throwable, test);
                 } else {
-                    test.warning("⚠️ WebDriver is null - cannot capture screenshot");
+                    ReportQueue.log(test, Status.WARNING, "⚠️ WebDriver is null - cannot capture screenshot");
                 }
             } catch (Exception e) {
-                test.warning("⚠️ Could not capture screenshot: " + e.getMessage());
-                e.printStackTrace();
+                ReportQueue.log(test, Status.WARNING, "⚠️ Could not capture screenshot: " + e.getMessage());
+                ConsoleSink.err(e);
             }
+            ReportQueue.finishTest(test);
         }
+        endTestContext(result, "failed");
 
-        System.out.println("❌ Test FAILED: " + result.getMethod().getMethodName());
-        System.out.println("   Reason: " + result.getThrowable().getMessage());
+        ConsoleSink.out(ConsoleSink.progress() + "❌ Test FAILED: " + result.getMethod().getMethodName());
+        ConsoleSink.out("   Reason: " + result.getThrowable().getMessage());
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        ExtentTest test = ExtentReportManager.getTest();
+        DriverFactory.markTestFinished();
+        ScreencastRecorder.discard(DriverFactory.getDriver());
+        FailureBundleCollector.discard(DriverFactory.getDriver());
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.log(Status.SKIP, MarkupHelper.createLabel(
+            ReportQueue.label(test, Status.SKIP,
                 "Test SKIPPED: " + result.getMethod().getMethodName(),
                 ExtentColor.YELLOW
-            ));
+            );
 
             if (result.getThrowable() != null) {
-                test.skip(result.getThrowable());
+                ReportQueue.throwable(test, Status.SKIP, result.getThrowable());
             }
+            ReportQueue.finishTest(test);
         }
-        System.out.println("⏭️  Test SKIPPED: " + result.getMethod().getMethodName());
+        endTestContext(result, "skipped");
+        ConsoleSink.out(ConsoleSink.progress() + "⏭️  Test SKIPPED: " + result.getMethod().getMethodName());
     }
 
     @Override
@@ -160,13 +292,55 @@ public class ExtentTestListener implements ITestListener, ISuiteListener {
     }
 
     /**
-     * Get browser name from test parameters
+     * End the test's telemetry span (with its outcome) and its logging context
+     */
+    private void endTestContext(ITestResult result, String status) {
+        Telemetry.Span span = TestContext.current().getTelemetrySpan();
+        if (span != null) {
+            span.setAttribute("test.status", status);
+            if (result.getStatus() == ITestResult.FAILURE && result.getThrowable() != null) {
+                span.setError(result.getThrowable().toString());
+            }
+        }
+        String className = result.getTestClass().getName();
+        long duration = result.getEndMillis() - result.getStartMillis();
+        Telemetry.recordDuration("test.duration", duration,
+            "test.class", className.substring(className.lastIndexOf(".") + 1), "test.status", status);
+        EventLog.log(result.getStatus() == ITestResult.FAILURE ? "ERROR" : "INFO", "test.end",
+            result.getThrowable() != null ? result.getThrowable().toString() : null, duration, status);
+        TestContext.end();
+        ConsoleSink.testDone();
+        recordResult(result, status);
+    }
+
+    /**
+     * Final attempt of a test into the ResultStore; a retried attempt only
+     * counts towards the next one's retries
+     */
+    private void recordResult(ITestResult result, String status) {
+        String test = HistoryOrderInterceptor.testKey(result.getMethod());
+        String browser = getBrowserName(result);
+        if (result.wasRetried()) {
+            retries.merge(test + "|" + browser, 1, Integer::sum);
+            return;
+        }
+        Integer retried = retries.remove(test + "|" + browser);
+        JiraTest jira = result.getMethod().getConstructorOrMethod().getMethod().getAnnotation(JiraTest.class);
+        ResultStore.record(test, browser, status, result.getEndMillis() - result.getStartMillis(),
+            retried != null ? retried : 0, result.getStatus() == ITestResult.FAILURE ? result.getThrowable() : null,
+            jira != null ? jira.key() : null);
+    }
+
+    /**
+     * Get browser name from test parameters, falling back to the
+     * &lt;test&gt; block's "browser" parameter
      */
     private String getBrowserName(ITestResult result) {
         Object[] parameters = result.getParameters();
         if (parameters != null && parameters.length > 0) {
             return parameters[0].toString();
         }
-        return "chrome";
+        String browser = result.getTestContext().getCurrentXmlTest().getParameter("browser");
+        return browser != null ? browser : "chrome";
     }
 }
@@ -1,15 +1,26 @@
 package com.saucedemo.pages;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
 
 import com.saucedemo.config.ConfigReader;
+import com.saucedemo.utils.PagePerformance;
+import com.saucedemo.utils.RegressionDetector;
+import com.saucedemo.utils.TestLogger;
 
 public class BasePage {
 
+    // Every page after login shows its name here
+    private static final By TITLE = By.className("title");
+
     protected WebDriver driver;
     protected WebDriverWait wait;
 
@@ -32,4 +43,56 @@ public class BasePage {
     protected WebDriverWait getWait() {
         return wait;
     }
+
+    /**
+     * Log a screenshot of just the region under test - far fewer pixels
+     * than a full-window capture
+     */
+    protected void logElementScreenshot(WebElement element, String description) {
+        wait.until(ExpectedConditions.visibilityOf(element));
+        TestLogger.screenshot(element, description);
+    }
+
+    /**
+     * Click an element that navigates to the page titled destinationTitle and
+     * record the time until that title shows as the transition (see
+     * RegressionDetector). The wait belongs to the click, so nothing the test
+     * does afterwards is counted; a page that never shows is left for the
+     * test's own check to report.
+     * @param refused condition meaning the page was not left (e.g. a login
+     *     error), or null if the click always navigates
+     */
+    protected void clickThrough(WebElement element, String transition, String destinationTitle,
+                                ExpectedCondition<?> refused) {
+        ExpectedCondition<Boolean> arrived = ExpectedConditions.textToBe(TITLE, destinationTitle);
+        long start = System.nanoTime();
+        element.click();
+        try {
+            wait.until(refused != null ? ExpectedConditions.or(arrived, refused) : arrived);
+        } catch (TimeoutException e) {
+            return;
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (refused == null || Boolean.TRUE.equals(arrived.apply(driver))) {
+            RegressionDetector.recordTransition(transition, millis);
+        }
+    }
+
+    /**
+     * Wait for the page title to read text. Waiting for any visible title is
+     * not enough: during a slow route change (performance_glitch_user) the
+     * previous page's title is still showing.
+     */
+    protected boolean hasTitle(WebElement title, String text) {
+        wait.until(ExpectedConditions.textToBePresentInElement(title, text));
+        return title.getText().equals(text);
+    }
+
+    /**
+     * This page is displayed - captures its browser-side timings (see
+     * PagePerformance)
+     */
+    protected void reached(String page) {
+        PagePerformance.capture(driver, page);
+    }
 }
@@ -7,11 +7,17 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import java.util.List;
 
+import com.saucedemo.utils.PagePerformance;
+import com.saucedemo.utils.RegressionDetector;
+
 public class CartPage extends BasePage {
 
     @FindBy(className = "title")
     private WebElement pageTitle;
 
+    @FindBy(className = "cart_list")
+    private WebElement cartList;
+
     @FindBy(className = "cart_item")
     private List<WebElement> cartItems;
 
@@ -37,8 +43,11 @@ public class CartPage extends BasePage {
 
     public boolean isCartPageDisplayed() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(pageTitle));
-            return pageTitle.getText().equals("Your Cart");
+            boolean displayed = hasTitle(pageTitle, "Your Cart");
+            if (displayed) {
+                reached(PagePerformance.CART);
+            }
+            return displayed;
         } catch (Exception e) {
             return false;
         }
@@ -55,7 +64,7 @@ public class CartPage extends BasePage {
 
     public void clickCheckout() {
         wait.until(ExpectedConditions.elementToBeClickable(checkoutButton));
-        checkoutButton.click();
+        clickThrough(checkoutButton, RegressionDetector.CART_TO_CHECKOUT, "Checkout: Your Information", null);
     }
 
     public void clickContinueShopping() {
@@ -76,4 +85,8 @@ public class CartPage extends BasePage {
             .map(WebElement::getText)
             .collect(java.util.stream.Collectors.toList());
     }
+
+    public void logCartScreenshot(String description) {
+        logElementScreenshot(cartList, description);
+    }
 }
@@ -5,6 +5,8 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
+import com.saucedemo.utils.PagePerformance;
+
 public class CheckoutCompletePage extends BasePage {
 
     @FindBy(className = "title")
@@ -29,8 +31,11 @@ public class CheckoutCompletePage extends BasePage {
 
     public boolean isCheckoutCompletePageDisplayed() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(pageTitle));
-            return pageTitle.getText().equals("Checkout: Complete!");
+            boolean displayed = hasTitle(pageTitle, "Checkout: Complete!");
+            if (displayed) {
+                reached(PagePerformance.CHECKOUT_COMPLETE);
+            }
+            return displayed;
         } catch (Exception e) {
             return false;
         }
@@ -5,6 +5,8 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
+import com.saucedemo.utils.PagePerformance;
+
 public class CheckoutStepOnePage extends BasePage {
 
     @FindBy(className = "title")
@@ -38,8 +40,11 @@ public class CheckoutStepOnePage extends BasePage {
 
     public boolean isCheckoutStepOnePageDisplayed() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(pageTitle));
-            return pageTitle.getText().equals("Checkout: Your Information");
+            boolean displayed = hasTitle(pageTitle, "Checkout: Your Information");
+            if (displayed) {
+                reached(PagePerformance.CHECKOUT_STEP_ONE);
+            }
+            return displayed;
         } catch (Exception e) {
             return false;
         }
@@ -7,6 +7,9 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import java.util.List;
 
+import com.saucedemo.utils.PagePerformance;
+import com.saucedemo.utils.RegressionDetector;
+
 public class CheckoutStepTwoPage extends BasePage {
 
     @FindBy(className = "title")
@@ -15,6 +18,9 @@ public class CheckoutStepTwoPage extends BasePage {
     @FindBy(className = "cart_item")
     private List<WebElement> cartItems;
 
+    @FindBy(className = "summary_info")
+    private WebElement summaryInfo;
+
     @FindBy(className = "summary_subtotal_label")
     private WebElement subtotalLabel;
 
@@ -40,8 +46,11 @@ public class CheckoutStepTwoPage extends BasePage {
 
     public boolean isCheckoutStepTwoPageDisplayed() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(pageTitle));
-            return pageTitle.getText().equals("Checkout: Overview");
+            boolean displayed = hasTitle(pageTitle, "Checkout: Overview");
+            if (displayed) {
+                reached(PagePerformance.CHECKOUT_STEP_TWO);
+            }
+            return displayed;
         } catch (Exception e) {
             return false;
         }
@@ -73,11 +82,15 @@ public class CheckoutStepTwoPage extends BasePage {
 
     public void clickFinish() {
         wait.until(ExpectedConditions.elementToBeClickable(finishButton));
-        finishButton.click();
+        clickThrough(finishButton, RegressionDetector.FINISH_TO_COMPLETE, "Checkout: Complete!", null);
     }
 
     public void clickCancel() {
         wait.until(ExpectedConditions.elementToBeClickable(cancelButton));
         cancelButton.click();
     }
+
+    public void logSummaryScreenshot(String description) {
+        logElementScreenshot(summaryInfo, description);
+    }
 }
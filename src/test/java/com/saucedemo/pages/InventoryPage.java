@@ -8,6 +8,8 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 
 import java.util.List;
 
+import com.saucedemo.utils.PagePerformance;
+
 public class InventoryPage extends BasePage {
 
     @FindBy(className = "title")
@@ -38,8 +40,11 @@ public class InventoryPage extends BasePage {
 
     public boolean isInventoryPageDisplayed() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(pageTitle));
-            return pageTitle.getText().equals("Products");
+            boolean displayed = hasTitle(pageTitle, "Products");
+            if (displayed) {
+                reached(PagePerformance.INVENTORY);
+            }
+            return displayed;
         } catch (Exception e) {
             return false;
         }
@@ -5,6 +5,9 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
+import com.saucedemo.utils.PagePerformance;
+import com.saucedemo.utils.RegressionDetector;
+
 public class LoginPage extends BasePage {
 
     @FindBy(id = "user-name")
@@ -32,6 +35,8 @@ public class LoginPage extends BasePage {
 
     public void enterUsername(String username) {
         wait.until(ExpectedConditions.visibilityOf(usernameField));
+        // Before any input - input ends the browser's LCP measurement
+        reached(PagePerformance.LOGIN);
         usernameField.clear();
         usernameField.sendKeys(username);
     }
@@ -44,7 +49,9 @@ public class LoginPage extends BasePage {
 
     public void clickLoginButton() {
         wait.until(ExpectedConditions.elementToBeClickable(loginButton));
-        loginButton.click();
+        // A rejected login stays here with an error - not a transition
+        clickThrough(loginButton, RegressionDetector.LOGIN_TO_INVENTORY, "Products",
+            ExpectedConditions.visibilityOf(errorMessage));
     }
 
     public void login(String username, String password) {
@@ -0,0 +1,44 @@
+package com.saucedemo.runner;
+
+import com.saucedemo.utils.ResultStore;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Print duration and flakiness stats from the result history
+ *
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="com.saucedemo.runner.HistoryQuery" \
+ *       -Dexec.classpathScope=test -Dexec.args="CartTest"
+ *
+ * Optional argument: only tests whose "Class#method" contains it.
+ */
+public class HistoryQuery {
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+
+        System.out.println("╔═══════════════════════════════════════════════════════════╗");
+        System.out.println("║          Test History                                     ║");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+
+        List<ResultStore.TestStats> stats = ResultStore.allStats().stream()
+            .filter(s -> s.getTest().contains(filter))
+            .collect(Collectors.toList());
+        if (stats.isEmpty()) {
+            System.out.println("No results recorded" + (filter.isEmpty() ? "" : " for '" + filter + "'"));
+            return;
+        }
+
+        System.out.println(String.format("%-45s %-8s %5s %9s %9s %7s %7s %7s  %s", "Test", "Browser", "Runs",
+            "p50", "p95", "Failed", "Flaky", "Trend", "Most frequent failure"));
+        for (ResultStore.TestStats s : stats) {
+            System.out.println(String.format("%-45s %-8s %5d %9s %9s %6.0f%% %6.0f%% %7s  %s", s.getTest(),
+                s.getBrowser(), s.getRuns(), s.getP50() >= 0 ? s.getP50() + "ms" : "-",
+                s.getP95() >= 0 ? s.getP95() + "ms" : "-", s.getFailureRate() * 100, s.getFlakeRate() * 100,
+                Double.isNaN(s.getTrendPercent()) ? "-" : String.format("%+.0f%%", s.getTrendPercent()),
+                s.getTopFailure() != null ? s.getTopFailure() : ""));
+        }
+    }
+}
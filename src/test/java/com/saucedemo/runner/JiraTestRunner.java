@@ -1,6 +1,8 @@
 package com.saucedemo.runner;
 
+import com.saucedemo.config.ConfigReader;
 import com.saucedemo.utils.JiraTestFilter;
+import com.saucedemo.utils.RegressionDetector;
 import org.testng.TestNG;
 import org.testng.xml.XmlClass;
 import org.testng.xml.XmlSuite;
@@ -22,6 +24,12 @@ import java.util.List;
  *
  * 3. Run with browser:
  *    java -cp ... JiraTestRunner --keys PROJ-123 --browser chrome
+ *
+ *    Several browsers at once (each capped by browser.<name>.max.sessions):
+ *    java -cp ... JiraTestRunner --keys PROJ-123 --browser chrome,firefox
+ *
+ * 4. Watch mode (rerun affected tests on source change):
+ *    java -cp ... JiraTestRunner --watch [--keys PROJ-123]
  */
 public class JiraTestRunner {
 
@@ -30,6 +38,7 @@ public class JiraTestRunner {
         String[] jiraKeys = null;
         String browser = "chrome";
         boolean showHelp = false;
+        boolean watch = false;
 
         // Parse command line arguments
         for (int i = 0; i < args.length; i++) {
@@ -52,6 +61,10 @@ public class JiraTestRunner {
                         browser = args[++i];
                     }
                     break;
+                case "--watch":
+                case "-w":
+                    watch = true;
+                    break;
                 case "--help":
                 case "-h":
                     showHelp = true;
@@ -59,11 +72,23 @@ public class JiraTestRunner {
             }
         }
 
-        if (showHelp || (filePath == null && jiraKeys == null)) {
+        if (showHelp || (!watch && filePath == null && jiraKeys == null)) {
             printHelp();
             return;
         }
 
+        List<String> browsers = new ArrayList<>();
+        for (String name : browser.split(",")) {
+            if (!name.trim().isEmpty()) {
+                browsers.add(name.trim().toLowerCase());
+            }
+        }
+        if (browsers.isEmpty()) {
+            System.err.println("❌ --browser needs at least one browser name (e.g. chrome or chrome,firefox), got '"
+                + browser + "'");
+            System.exit(1);
+        }
+
         System.out.println("╔════════════════════════════════════════════════╗");
         System.out.println("║         Jira Test Runner - SauceDemo          ║");
         System.out.println("╚════════════════════════════════════════════════╝");
@@ -78,38 +103,74 @@ public class JiraTestRunner {
             JiraTestFilter.setJiraKeys(jiraKeys);
         }
 
-        System.out.println("🌐 Browser: " + browser);
+        System.out.println("🌐 Browser: " + String.join(", ", browsers));
         System.out.println();
 
+        if (watch) {
+            try {
+                new WatchModeRunner(browsers).run();
+            } catch (Exception e) {
+                System.err.println("Watch mode stopped: " + e.getMessage());
+            }
+            return;
+        }
+
         // Create TestNG suite programmatically
         TestNG testNG = new TestNG();
-        XmlSuite suite = createTestSuite(browser);
+        XmlSuite suite = createTestSuite(browsers);
 
         testNG.setXmlSuites(Arrays.asList(suite));
-        testNG.run();
+        try {
+            testNG.run();
+        } catch (RegressionDetector.RegressionsFound e) {
+            // Reported below as the exit code
+        }
 
         System.out.println();
         System.out.println("✅ Test execution completed!");
+
+        if (RegressionDetector.shouldFailBuild()) {
+            System.out.println("❌ Performance regressions found (regression.fail.build) - exit code "
+                + RegressionDetector.EXIT_CODE);
+            System.exit(RegressionDetector.EXIT_CODE);
+        }
     }
 
-    private static XmlSuite createTestSuite(String browser) {
+    private static XmlSuite createTestSuite(List<String> browsers) {
         XmlSuite suite = new XmlSuite();
         suite.setName("Jira Test Suite");
-        suite.setParallel(XmlSuite.ParallelMode.NONE);
+
+        // Browsers fan out in parallel; DriverFactory caps live sessions per browser
+        if (browsers.size() > 1) {
+            suite.setParallel(XmlSuite.ParallelMode.TESTS);
+            suite.setThreadCount(browsers.size());
+        } else {
+            suite.setParallel(XmlSuite.ParallelMode.NONE);
+        }
 
         // Add interceptor for filtering
         suite.addListener("com.saucedemo.utils.JiraTestFilter");
+        suite.addListener("com.saucedemo.utils.HistoryOrderInterceptor");
+        suite.addListener("com.saucedemo.listeners.ExtentTestListener");
+        suite.addListener("com.saucedemo.listeners.CrossBrowserReporter");
+
+        // One test block per browser
+        for (String browser : browsers) {
+            XmlTest test = new XmlTest(suite);
+            test.setName(browser + " Tests");
+            test.addParameter("browser", browser);
+
+            if (browsers.size() > 1) {
+                test.setParallel(XmlSuite.ParallelMode.CLASSES);
+                test.setThreadCount(ConfigReader.getMaxSessions(browser));
+            }
 
-        // Create test
-        XmlTest test = new XmlTest(suite);
-        test.setName(browser + " Tests");
-        test.addParameter("browser", browser);
-
-        // Add test classes
-        List<XmlClass> classes = new ArrayList<>();
-        classes.add(new XmlClass("com.saucedemo.tests.LoginTest"));
-        classes.add(new XmlClass("com.saucedemo.tests.CartTest"));
-        test.setXmlClasses(classes);
+            // Add test classes
+            List<XmlClass> classes = new ArrayList<>();
+            classes.add(new XmlClass("com.saucedemo.tests.LoginTest"));
+            classes.add(new XmlClass("com.saucedemo.tests.CartTest"));
+            test.setXmlClasses(classes);
+        }
 
         return suite;
     }
@@ -125,7 +186,8 @@ public class JiraTestRunner {
         System.out.println("Options:");
         System.out.println("  --file, -f <path>       Path to file containing Jira keys (one per line)");
         System.out.println("  --keys, -k <keys>       Comma-separated Jira keys (e.g., PROJ-123,PROJ-456)");
-        System.out.println("  --browser, -b <name>    Browser to use (chrome|firefox) [default: chrome]");
+        System.out.println("  --browser, -b <names>   Browser(s) to use, comma-separated (chrome,firefox) [default: chrome]");
+        System.out.println("  --watch, -w             Watch src/test/java and rerun affected tests on change");
         System.out.println("  --help, -h              Show this help message");
         System.out.println();
         System.out.println("Examples:");
@@ -142,6 +204,10 @@ public class JiraTestRunner {
         System.out.println("     mvn exec:java -Dexec.mainClass=\"com.saucedemo.runner.JiraTestRunner\" \\");
         System.out.println("                   -Dexec.args=\"--keys SAUCE-101 --browser firefox\"");
         System.out.println();
+        System.out.println("  4. Watch mode (keeps browser sessions warm between reruns):");
+        System.out.println("     mvn exec:java -Dexec.mainClass=\"com.saucedemo.runner.JiraTestRunner\" \\");
+        System.out.println("                   -Dexec.classpathScope=test -Dexec.args=\"--watch\"");
+        System.out.println();
         System.out.println("File Format (jira-keys.txt):");
         System.out.println("  # Comments start with #");
         System.out.println("  SAUCE-101");
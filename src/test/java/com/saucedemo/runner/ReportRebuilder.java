@@ -0,0 +1,55 @@
+package com.saucedemo.runner;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.saucedemo.utils.ExtentReportManager;
+import com.saucedemo.utils.ReportJournal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Rebuild an HTML report from its event journal, e.g. after the run was
+ * killed before the final flush
+ *
+ * Usage:
+ *   mvn exec:java -Dexec.mainClass="com.saucedemo.runner.ReportRebuilder" \
+ *       -Dexec.classpathScope=test \
+ *       -Dexec.args="test-output/extent-reports/TestReport_20250101_120000.journal.jsonl"
+ *
+ * Optional second argument: output HTML path (default: journal name with
+ * "-rebuilt.html").
+ */
+public class ReportRebuilder {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: ReportRebuilder <journal.jsonl> [output.html]");
+            System.exit(1);
+        }
+
+        Path journal = Paths.get(args[0]);
+        if (!Files.exists(journal)) {
+            System.err.println("❌ Journal not found: " + journal);
+            System.exit(1);
+        }
+        String output = args.length > 1
+            ? args[1]
+            : journal.toString().replace(".journal.jsonl", "") + "-rebuilt.html";
+
+        System.out.println("╔═══════════════════════════════════════════════════════════╗");
+        System.out.println("║          Rebuilding Report From Journal                   ║");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+        System.out.println("🧾 Journal: " + journal);
+
+        long start = System.currentTimeMillis();
+        ExtentReports extent = ExtentReportManager.createExtentReports(output);
+        int tests = ReportJournal.replay(journal, extent);
+        extent.flush();
+
+        System.out.println("✅ Rebuilt " + tests + " tests in " + (System.currentTimeMillis() - start) + "ms");
+        System.out.println("📁 Report Location: " + new File(output).getAbsolutePath());
+    }
+}
@@ -1,6 +1,7 @@
 package com.saucedemo.runner;
 
 import com.saucedemo.utils.JiraTestFilter;
+import com.saucedemo.utils.RegressionDetector;
 import org.testng.TestNG;
 import org.testng.xml.XmlClass;
 import org.testng.xml.XmlSuite;
@@ -37,10 +38,20 @@ public class SimpleJiraRunner {
         testNG.setXmlSuites(Arrays.asList(suite));
 
         System.out.println("▶️  Starting test execution...\n");
-        testNG.run();
+        try {
+            testNG.run();
+        } catch (RegressionDetector.RegressionsFound e) {
+            // Reported below as the exit code
+        }
 
         System.out.println();
         System.out.println("✅ Test execution completed!");
+
+        if (RegressionDetector.shouldFailBuild()) {
+            System.out.println("❌ Performance regressions found (regression.fail.build) - exit code "
+                + RegressionDetector.EXIT_CODE);
+            System.exit(RegressionDetector.EXIT_CODE);
+        }
     }
 
     /**
@@ -53,6 +64,7 @@ public class SimpleJiraRunner {
 
         // Add listener for filtering
         suite.addListener("com.saucedemo.utils.JiraTestFilter");
+        suite.addListener("com.saucedemo.utils.HistoryOrderInterceptor");
 
         // Add ExtentReports listener
         suite.addListener("com.saucedemo.listeners.ExtentTestListener");
@@ -0,0 +1,435 @@
+package com.saucedemo.runner;
+
+import com.saucedemo.config.ConfigReader;
+import com.saucedemo.utils.DriverFactory;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Watch mode: monitors src/test/java, recompiles changed classes in-process
+ * and reruns only the tests that (transitively) reference them.
+ *
+ * Browser sessions stay open between reruns (DriverFactory session reuse),
+ * so an edit to InventoryPage reruns CartTest without paying browser startup.
+ * With several browsers each rerun runs the tests on all of them in parallel,
+ * like JiraTestRunner does.
+ *
+ * Page objects, tests and base classes are loaded through a fresh class loader
+ * on every rerun so edits take effect. Everything else (DriverFactory, listeners,
+ * config) stays in the parent loader to keep the warm sessions alive.
+ */
+public class WatchModeRunner {
+
+    private static final Path SOURCE_ROOT = Paths.get("src/test/java");
+    private static final Path OUTPUT_DIR = Paths.get("target/test-classes");
+    private static final long DEBOUNCE_MILLIS = 300;
+
+    private static final String[] RELOADABLE_PACKAGES = {
+        "com.saucedemo.pages.",
+        "com.saucedemo.tests.",
+        "com.saucedemo.base."
+    };
+
+    private static final Pattern PACKAGE_PATTERN = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("\\b[A-Z]\\w*\\b");
+
+    private final List<String> browsers;
+    private final Map<Path, WatchKey> watchedDirs = new HashMap<>();
+
+    public WatchModeRunner(List<String> browsers) {
+        this.browsers = new ArrayList<>(browsers);
+    }
+
+    public void run() throws IOException, InterruptedException {
+        DriverFactory.setSessionReuse(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverFactory::closeIdleSessions));
+
+        System.out.println("👀 Watch mode - monitoring " + SOURCE_ROOT.toAbsolutePath());
+        System.out.println("🌐 Browser: " + String.join(", ", browsers) + " (sessions are kept warm between runs)");
+        System.out.println("   Press Ctrl+C to stop");
+
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            registerRecursively(watchService, SOURCE_ROOT);
+
+            while (true) {
+                WatchKey key;
+                try {
+                    key = watchService.take();
+                } catch (ClosedWatchServiceException e) {
+                    return;
+                }
+
+                Set<Path> changed = new LinkedHashSet<>();
+                collectChanges(watchService, key, changed);
+
+                // Editors write files in several steps - wait until things settle
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collectChanges(watchService, next, changed);
+                }
+
+                changed.removeIf(path -> !Files.exists(path));
+                if (!changed.isEmpty()) {
+                    onSourcesChanged(changed);
+                }
+            }
+        } finally {
+            DriverFactory.setSessionReuse(false);
+        }
+    }
+
+    private void collectChanges(WatchService watchService, WatchKey key, Set<Path> changed) throws IOException {
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            if (Files.isDirectory(path)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    registerRecursively(watchService, path);
+                }
+            } else if (path.toString().endsWith(".java")) {
+                changed.add(path);
+            }
+        }
+        if (!key.reset()) {
+            watchedDirs.remove(dir);
+        }
+    }
+
+    private void registerRecursively(WatchService watchService, Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!watchedDirs.containsKey(dir)) {
+                    watchedDirs.put(dir, dir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void onSourcesChanged(Set<Path> changed) throws IOException {
+        System.out.println();
+        System.out.println("🔄 Changed: " + changed.stream()
+            .map(path -> path.getFileName().toString())
+            .reduce((a, b) -> a + ", " + b).orElse(""));
+
+        if (!compile(changed)) {
+            System.out.println("⛔ Compilation failed - waiting for the next change");
+            return;
+        }
+
+        Map<String, SourceInfo> sources = scanSources();
+        Set<String> changedClasses = new HashSet<>();
+        for (Path path : changed) {
+            SourceInfo info = sources.get(qualifiedName(path,
+                new String(Files.readAllBytes(path), StandardCharsets.UTF_8)));
+            if (info != null) {
+                changedClasses.add(info.className);
+            }
+        }
+
+        runTests(findAffectedClasses(sources, changedClasses));
+    }
+
+    /**
+     * Compile the changed files into target/test-classes using the in-process compiler
+     */
+    private boolean compile(Set<Path> changed) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            System.err.println("No system Java compiler available - run watch mode on a JDK, not a JRE");
+            return false;
+        }
+
+        Files.createDirectories(OUTPUT_DIR);
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        try (StandardJavaFileManager fileManager =
+                 compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            List<File> files = new ArrayList<>();
+            for (Path path : changed) {
+                files.add(path.toFile());
+            }
+
+            List<String> options = Arrays.asList(
+                "-d", OUTPUT_DIR.toString(),
+                "-classpath", OUTPUT_DIR + File.pathSeparator + System.getProperty("java.class.path"),
+                "-sourcepath", SOURCE_ROOT.toString(),
+                "-implicit:none"
+            );
+
+            long start = System.currentTimeMillis();
+            boolean success = compiler.getTask(null, fileManager, diagnostics, options, null,
+                fileManager.getJavaFileObjectsFromFiles(files)).call();
+
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    System.err.println("  " + diagnostic.getSource().getName() + ":"
+                        + diagnostic.getLineNumber() + " " + diagnostic.getMessage(null));
+                }
+            }
+
+            if (success) {
+                System.out.println("🔨 Compiled " + files.size() + " file(s) in "
+                    + (System.currentTimeMillis() - start) + "ms");
+            }
+            return success;
+        }
+    }
+
+    /**
+     * Classes affected by a change = the transitive closure of classes that
+     * reference any changed class (by simple name in the same source tree).
+     * runTests keeps the ones that are test classes.
+     */
+    private List<String> findAffectedClasses(Map<String, SourceInfo> sources, Set<String> changedClasses) {
+        Map<String, Set<String>> dependents = new HashMap<>();
+        for (SourceInfo info : sources.values()) {
+            for (String reference : info.references) {
+                dependents.computeIfAbsent(reference, k -> new HashSet<>()).add(info.className);
+            }
+        }
+
+        Set<String> affected = new HashSet<>(changedClasses);
+        Deque<String> queue = new ArrayDeque<>(changedClasses);
+        while (!queue.isEmpty()) {
+            for (String dependent : dependents.getOrDefault(queue.poll(), new HashSet<>())) {
+                if (affected.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        return new ArrayList<>(new TreeSet<>(affected));
+    }
+
+    private Map<String, SourceInfo> scanSources() throws IOException {
+        Map<Path, String> contents = new HashMap<>();
+        Map<String, String> simpleToQualified = new HashMap<>();
+
+        Files.walkFileTree(SOURCE_ROOT, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (file.toString().endsWith(".java")) {
+                    String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+                    contents.put(file, content);
+                    simpleToQualified.put(simpleName(file), qualifiedName(file, content));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        Map<String, SourceInfo> sources = new HashMap<>();
+        for (Map.Entry<Path, String> entry : contents.entrySet()) {
+            String content = entry.getValue();
+            SourceInfo info = new SourceInfo(qualifiedName(entry.getKey(), content));
+
+            Matcher matcher = IDENTIFIER_PATTERN.matcher(content);
+            while (matcher.find()) {
+                String referenced = simpleToQualified.get(matcher.group());
+                if (referenced != null && !referenced.equals(info.className)) {
+                    info.references.add(referenced);
+                }
+            }
+            sources.put(info.className, info);
+        }
+        return sources;
+    }
+
+    private static String simpleName(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.substring(0, fileName.length() - ".java".length());
+    }
+
+    private static String qualifiedName(Path file, String content) {
+        Matcher matcher = PACKAGE_PATTERN.matcher(content);
+        return matcher.find() ? matcher.group(1) + "." + simpleName(file) : simpleName(file);
+    }
+
+    /**
+     * A TestNG test class: @Test on the class or on one of its methods, read
+     * from the compiled class (the source text also matches comments and
+     * strings)
+     */
+    private static boolean isTestClass(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return false;
+        }
+        if (type.isAnnotationPresent(Test.class)) {
+            return true;
+        }
+        for (Method method : type.getMethods()) {
+            if (method.isAnnotationPresent(Test.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void runTests(List<String> affectedClasses) {
+        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+        try (ReloadingClassLoader loader = new ReloadingClassLoader(previous)) {
+            Thread.currentThread().setContextClassLoader(loader);
+
+            // Reloaded, so a class that just gained or lost its @Test methods is seen as it is now
+            List<Class<?>> classes = new ArrayList<>();
+            List<String> tests = new ArrayList<>();
+            for (String className : affectedClasses) {
+                Class<?> type;
+                try {
+                    type = loader.loadClass(className);
+                } catch (ClassNotFoundException | LinkageError e) {
+                    System.err.println("Skipping " + className + " - could not load it: " + e);
+                    continue;
+                }
+                if (isTestClass(type)) {
+                    classes.add(type);
+                    tests.add(className);
+                }
+            }
+            if (classes.isEmpty()) {
+                System.out.println("ℹ️  No tests reference the changed classes");
+                return;
+            }
+            System.out.println("▶️  Rerunning: " + tests);
+
+            XmlSuite suite = new XmlSuite();
+            suite.setName("Watch Mode Suite");
+            if (browsers.size() > 1) {
+                suite.setParallel(XmlSuite.ParallelMode.TESTS);
+                suite.setThreadCount(browsers.size());
+            } else {
+                suite.setParallel(XmlSuite.ParallelMode.NONE);
+            }
+            suite.addListener("com.saucedemo.utils.JiraTestFilter");
+            suite.addListener("com.saucedemo.utils.HistoryOrderInterceptor");
+            suite.addListener("com.saucedemo.listeners.ExtentTestListener");
+
+            // One test block per browser, as in JiraTestRunner
+            for (String browser : browsers) {
+                XmlTest test = new XmlTest(suite);
+                test.setName(browser + " Tests");
+                test.addParameter("browser", browser);
+                if (browsers.size() > 1) {
+                    test.setParallel(XmlSuite.ParallelMode.CLASSES);
+                    test.setThreadCount(ConfigReader.getMaxSessions(browser));
+                }
+                List<XmlClass> xmlClasses = new ArrayList<>();
+                for (Class<?> type : classes) {
+                    xmlClasses.add(new XmlClass(type));
+                }
+                test.setXmlClasses(xmlClasses);
+            }
+
+            long start = System.currentTimeMillis();
+            TestNG testNG = new TestNG();
+            testNG.setXmlSuites(Arrays.asList(suite));
+            testNG.run();
+            System.out.println("⏱️  Rerun finished in " + (System.currentTimeMillis() - start) + "ms"
+                + (testNG.hasFailure() ? " - with failures" : ""));
+        } catch (IOException e) {
+            System.err.println("Could not load changed classes: " + e.getMessage());
+        } finally {
+            Thread.currentThread().setContextClassLoader(previous);
+        }
+    }
+
+    private static class SourceInfo {
+        final String className;
+        final Set<String> references = new HashSet<>();
+
+        SourceInfo(String className) {
+            this.className = className;
+        }
+    }
+
+    /**
+     * Child-first loader for page objects and tests so recompiled classes are
+     * picked up; all other classes are shared with the parent loader
+     */
+    private static class ReloadingClassLoader extends URLClassLoader {
+
+        ReloadingClassLoader(ClassLoader parent) throws MalformedURLException {
+            super(new URL[]{OUTPUT_DIR.toUri().toURL()}, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!isReloadable(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    try {
+                        loaded = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        loaded = super.loadClass(name, false);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+
+        private static boolean isReloadable(String name) {
+            for (String prefix : RELOADABLE_PACKAGES) {
+                if (name.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
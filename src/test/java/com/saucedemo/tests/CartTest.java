@@ -90,6 +90,8 @@ public class CartTest extends BaseTest {
             "Cart should contain Sauce Labs Bike Light");
         Assert.assertTrue(cartPage.getCartItemNames().contains("Sauce Labs Bolt T-Shirt"),
             "Cart should contain Sauce Labs Bolt T-Shirt");
+
+        cartPage.logCartScreenshot("Cart with 3 items");
     }
 
     @Test(priority = 3, description = "Verify removing item from cart")
@@ -154,6 +156,7 @@ public class CartTest extends BaseTest {
             "Tax should be displayed");
         Assert.assertFalse(checkoutStepTwoPage.getTotal().isEmpty(),
             "Total should be displayed");
+        checkoutStepTwoPage.logSummaryScreenshot("Checkout summary");
 
         // Complete checkout
         checkoutStepTwoPage.clickFinish();
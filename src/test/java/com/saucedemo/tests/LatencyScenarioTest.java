@@ -0,0 +1,109 @@
+package com.saucedemo.tests;
+
+import com.saucedemo.annotations.JiraTest;
+import com.saucedemo.base.BaseTest;
+import com.saucedemo.config.ConfigReader;
+import com.saucedemo.pages.*;
+import com.saucedemo.utils.LatencyRecorder;
+import com.saucedemo.utils.PagePerformance;
+import com.saucedemo.utils.PopupHandler;
+import com.saucedemo.utils.TestLogger;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Latency scenario: the login and checkout journey as standard_user and
+ * performance_glitch_user, latency.iterations times each (alternating, so
+ * both users see the same site conditions). Each step is timed from its
+ * action until the next page is displayed; LatencyRecorder reports the
+ * per-step distributions and the delta at the end of the suite.
+ *
+ * Run with testng-latency.xml (mvn test -Platency). Step times leave out
+ * the page's own timing capture (perf.enabled).
+ */
+public class LatencyScenarioTest extends BaseTest {
+
+    @DataProvider(name = "journeys")
+    public Object[][] journeys() {
+        int iterations = ConfigReader.getLatencyIterations();
+        Object[][] journeys = new Object[iterations * 2][];
+        for (int i = 0; i < iterations; i++) {
+            journeys[2 * i] = new Object[]{ConfigReader.getValidUsername(), ConfigReader.getValidPassword(), i + 1};
+            journeys[2 * i + 1] = new Object[]{ConfigReader.getGlitchUsername(), ConfigReader.getGlitchPassword(), i + 1};
+        }
+        return journeys;
+    }
+
+    @Test(dataProvider = "journeys", description = "Login and checkout journey, timed per step")
+    @JiraTest(key = "SAUCE-301", description = "Latency scenario: standard vs performance_glitch_user",
+        priority = "Medium")
+    public void testJourneyLatency(String username, String password, int iteration) {
+        LoginPage loginPage = new LoginPage(driver);
+        InventoryPage inventoryPage = new InventoryPage(driver);
+        CartPage cartPage = new CartPage(driver);
+        CheckoutStepOnePage checkoutStepOnePage = new CheckoutStepOnePage(driver);
+        CheckoutStepTwoPage checkoutStepTwoPage = new CheckoutStepTwoPage(driver);
+        CheckoutCompletePage checkoutCompletePage = new CheckoutCompletePage(driver);
+
+        TestLogger.info("👤 " + username + " - journey " + iteration);
+
+        // Typing is not part of the step
+        loginPage.enterUsername(username);
+        loginPage.enterPassword(password);
+        step(username, "login", () -> {
+            loginPage.clickLoginButton();
+            return inventoryPage.isInventoryPageDisplayed();
+        });
+        PopupHandler.dismissChromePasswordPopup(driver);
+
+        step(username, "add-to-cart", () -> {
+            inventoryPage.addItemToCart("Sauce Labs Backpack");
+            return inventoryPage.getCartItemCount() == 1;
+        });
+        step(username, "open-cart", () -> {
+            inventoryPage.clickShoppingCart();
+            return cartPage.isCartPageDisplayed();
+        });
+        step(username, "checkout", () -> {
+            cartPage.clickCheckout();
+            return checkoutStepOnePage.isCheckoutStepOnePageDisplayed();
+        });
+
+        checkoutStepOnePage.fillCheckoutInformation(
+            ConfigReader.getTestFirstName(),
+            ConfigReader.getTestLastName(),
+            ConfigReader.getTestPostalCode()
+        );
+        step(username, "continue", () -> {
+            checkoutStepOnePage.clickContinue();
+            return checkoutStepTwoPage.isCheckoutStepTwoPageDisplayed();
+        });
+        step(username, "finish", () -> {
+            checkoutStepTwoPage.clickFinish();
+            return checkoutCompletePage.isCheckoutCompletePageDisplayed();
+        });
+        step(username, "back-home", () -> {
+            checkoutCompletePage.clickBackToProducts();
+            return inventoryPage.isInventoryPageDisplayed();
+        });
+    }
+
+    /**
+     * Run one step and record its latency, less any PagePerformance capture
+     * made once the page showed; a step that never reaches its page fails
+     * the journey (and is not recorded)
+     */
+    private void step(String username, String step, BooleanSupplier action) {
+        long captured = PagePerformance.getCaptureNanos();
+        long start = System.nanoTime();
+        boolean reached = action.getAsBoolean();
+        long elapsed = System.nanoTime() - start - (PagePerformance.getCaptureNanos() - captured);
+        long millis = elapsed / 1_000_000;
+        Assert.assertTrue(reached, "Step '" + step + "' did not reach its page as " + username
+            + " within " + ConfigReader.getExplicitWait() + "s");
+        LatencyRecorder.record(username, step, millis);
+    }
+}
@@ -0,0 +1,317 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigReader;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for screenshots and other artifacts
+ *
+ * Files are stored once under sha256/&lt;2 chars&gt;/&lt;hash&gt;.&lt;ext&gt; and referenced
+ * by path, so the same "Your Cart" screen failing on both browsers is stored
+ * once. With artifact.store.dedup=perceptual, images whose 64-bit difference
+ * hash (dHash) is within artifact.store.phash.threshold bits of an existing
+ * image reuse that image instead.
+ *
+ * The store is shared across runs; evict() deletes least recently referenced
+ * files until the store fits in artifact.store.max.mb, but never a file
+ * referenced by this run (its report links to it). Evicted files are listed
+ * in evicted.log, which explains broken images in older reports.
+ */
+public class ArtifactStore {
+
+    private static final Path ROOT = Paths.get(ConfigReader.getProperty("artifact.store.dir",
+        ConfigReader.getScreenshotDir() + "cas/"));
+    private static final Path PHASH_INDEX = ROOT.resolve("phash.index");
+    private static final Path EVICTED_LOG = ROOT.resolve("evicted.log");
+    private static final boolean PERCEPTUAL =
+        ConfigReader.getProperty("artifact.store.dedup", "exact").equalsIgnoreCase("perceptual");
+    private static final int PHASH_THRESHOLD =
+        Integer.parseInt(ConfigReader.getProperty("artifact.store.phash.threshold", "4"));
+    private static final long MAX_BYTES =
+        Long.parseLong(ConfigReader.getProperty("artifact.store.max.mb", "500")) * 1024 * 1024;
+
+    // Files used since then (every put touches its file) belong to this run; a second
+    // of slack for file systems with coarse modification times
+    private static final long RUN_STARTED = System.currentTimeMillis() - 1000;
+
+    // Perceptual hash -> stored path (relative to ROOT), loaded lazily from phash.index
+    private static Map<Long, String> phashIndex;
+
+    private static final AtomicInteger stored = new AtomicInteger();
+    private static final AtomicInteger exactHits = new AtomicInteger();
+    private static final AtomicInteger nearHits = new AtomicInteger();
+    private static final AtomicLong bytesWritten = new AtomicLong();
+    private static final AtomicLong bytesDeduplicated = new AtomicLong();
+
+    /**
+     * Store bytes (or find an identical copy) and return the file path
+     */
+    public static Path put(byte[] bytes, String extension) throws IOException {
+        String hash = sha256(bytes);
+        Path target = ROOT.resolve("sha256").resolve(hash.substring(0, 2)).resolve(hash + "." + extension);
+
+        if (Files.exists(target)) {
+            // Touch so retention treats it as recently used
+            Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            exactHits.incrementAndGet();
+            bytesDeduplicated.addAndGet(bytes.length);
+            return target;
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+        ScreenshotWriter.write(temp, bytes);
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) {
+            // Another thread stored the same content first (or no atomic move on this FS)
+            if (Files.exists(target)) {
+                Files.deleteIfExists(temp);
+                exactHits.incrementAndGet();
+                return target;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        stored.incrementAndGet();
+        bytesWritten.addAndGet(bytes.length);
+        return target;
+    }
+
+    /**
+     * Store an image. In perceptual mode a near-identical image already in
+     * the store is returned instead of storing a new one.
+     * @param encoded bytes to store (e.g. re-encoded JPEG)
+     * @param extension file extension of encoded
+     * @param sourcePng original screenshot, used for the perceptual hash
+     */
+    public static Path putImage(byte[] encoded, String extension, byte[] sourcePng) throws IOException {
+        if (!PERCEPTUAL) {
+            return put(encoded, extension);
+        }
+
+        long phash = differenceHash(sourcePng);
+        synchronized (ArtifactStore.class) {
+            Map<Long, String> index = phashIndex();
+            for (Map.Entry<Long, String> entry : index.entrySet()) {
+                if (Long.bitCount(entry.getKey() ^ phash) <= PHASH_THRESHOLD) {
+                    Path existing = ROOT.resolve(entry.getValue());
+                    if (Files.exists(existing) && existing.toString().endsWith("." + extension)) {
+                        Files.setLastModifiedTime(existing, FileTime.fromMillis(System.currentTimeMillis()));
+                        nearHits.incrementAndGet();
+                        bytesDeduplicated.addAndGet(encoded.length);
+                        return existing;
+                    }
+                }
+            }
+
+            Path target = put(encoded, extension);
+            String relative = ROOT.relativize(target).toString().replace('\\', '/');
+            if (!index.containsValue(relative)) {
+                index.put(phash, relative);
+                Files.write(PHASH_INDEX, (Long.toHexString(phash) + " " + relative + "\n")
+                        .getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            return target;
+        }
+    }
+
+    /**
+     * Delete least recently used artifacts until the store fits in
+     * artifact.store.max.mb, keeping everything this run referenced
+     */
+    public static synchronized void evict() {
+        Path shaRoot = ROOT.resolve("sha256");
+        if (!Files.isDirectory(shaRoot)) {
+            return;
+        }
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(shaRoot)) {
+            // .tmp files are still being written
+            files = walk.filter(Files::isRegularFile)
+                .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            System.err.println("Could not scan artifact store: " + e.getMessage());
+            return;
+        }
+
+        long total = 0;
+        List<FileEntry> entries = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                long size = Files.size(file);
+                entries.add(new FileEntry(file, size, Files.getLastModifiedTime(file).toMillis()));
+                total += size;
+            } catch (IOException e) {
+                // Deleted concurrently
+            }
+        }
+        if (total <= MAX_BYTES) {
+            return;
+        }
+
+        entries.sort((a, b) -> Long.compare(a.lastUsed, b.lastUsed));
+        int deleted = 0;
+        long freed = 0;
+        StringBuilder log = new StringBuilder();
+        String now = Instant.now().toString();
+        for (FileEntry entry : entries) {
+            if (total - freed <= MAX_BYTES || entry.lastUsed >= RUN_STARTED) {
+                // Sorted by last use: everything after this belongs to this run
+                break;
+            }
+            try {
+                Files.deleteIfExists(entry.path);
+                freed += entry.size;
+                deleted++;
+                log.append(now).append(' ').append(ROOT.relativize(entry.path).toString().replace('\\', '/'))
+                    .append(" last used ").append(Instant.ofEpochMilli(entry.lastUsed)).append('\n');
+            } catch (IOException e) {
+                System.err.println("Could not evict " + entry.path + ": " + e.getMessage());
+            }
+        }
+
+        if (deleted > 0) {
+            rewritePhashIndex();
+            try {
+                Files.write(EVICTED_LOG, log.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Could not write " + EVICTED_LOG + ": " + e.getMessage());
+            }
+        }
+        long left = total - freed;
+        System.out.println(String.format("🗄️  Artifact store: evicted %d files (%.1f MB, listed in %s)%s",
+            deleted, freed / 1024.0 / 1024.0, EVICTED_LOG,
+            left > MAX_BYTES
+                ? String.format(" - still %.1f MB over %d MB: the rest is used by this run",
+                    (left - MAX_BYTES) / 1024.0 / 1024.0, MAX_BYTES / 1024 / 1024)
+                : " to stay under " + MAX_BYTES / 1024 / 1024 + " MB"));
+    }
+
+    /**
+     * Print this run's deduplication statistics
+     */
+    public static void printSummary() {
+        int references = stored.get() + exactHits.get() + nearHits.get();
+        if (references == 0) {
+            return;
+        }
+        System.out.println(String.format("🗄️  Artifact store: %d references -> %d new files (%.1f KB), "
+                + "%d exact + %d near duplicates (%.1f KB saved)",
+            references, stored.get(), bytesWritten.get() / 1024.0,
+            exactHits.get(), nearHits.get(), bytesDeduplicated.get() / 1024.0));
+    }
+
+    /**
+     * 64-bit difference hash: 9x8 grayscale thumbnail, one bit per
+     * horizontally adjacent pixel pair (left brighter than right)
+     */
+    static long differenceHash(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            throw new IOException("Not a readable image");
+        }
+
+        BufferedImage small = new BufferedImage(9, 8, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = small.createGraphics();
+        graphics.drawImage(image, 0, 0, 9, 8, null);
+        graphics.dispose();
+
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                int left = small.getRaster().getSample(x, y, 0);
+                int right = small.getRaster().getSample(x + 1, y, 0);
+                hash = (hash << 1) | (left > right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    private static Map<Long, String> phashIndex() throws IOException {
+        if (phashIndex == null) {
+            phashIndex = new LinkedHashMap<>();
+            if (Files.exists(PHASH_INDEX)) {
+                for (String line : Files.readAllLines(PHASH_INDEX, StandardCharsets.UTF_8)) {
+                    String[] parts = line.trim().split(" ", 2);
+                    if (parts.length == 2) {
+                        phashIndex.put(Long.parseUnsignedLong(parts[0], 16), parts[1]);
+                    }
+                }
+            }
+        }
+        return phashIndex;
+    }
+
+    private static void rewritePhashIndex() {
+        if (!Files.exists(PHASH_INDEX)) {
+            return;
+        }
+        try {
+            phashIndex = null;
+            Map<Long, String> index = phashIndex();
+            index.values().removeIf(relative -> !Files.exists(ROOT.resolve(relative)));
+            StringBuilder content = new StringBuilder();
+            for (Map.Entry<Long, String> entry : index.entrySet()) {
+                content.append(Long.toHexString(entry.getKey())).append(' ').append(entry.getValue()).append('\n');
+            }
+            Files.write(PHASH_INDEX, content.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Could not rewrite perceptual hash index: " + e.getMessage());
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class FileEntry {
+        final Path path;
+        final long size;
+        final long lastUsed;
+
+        FileEntry(Path path, long size, long lastUsed) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigReader;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Console output of the tests, written by one "console-writer" thread
+ *
+ * console.mode:
+ * - buffered (default): each test's lines (its @BeforeMethod, the test and
+ *   its @AfterMethod) are collected on its own thread and printed as one
+ *   block once the test is over, so parallel tests never interleave
+ * - live: every line is printed as it happens, prefixed with the test it
+ *   belongs to, and finished tests are counted ("[12/40]") - for CI logs
+ * - direct: System.out / System.err on the calling thread, as before
+ *
+ * Lines logged outside a test (suite start, background threads) go
+ * straight to the writer. Test threads never wait on the console; call
+ * flush() before reading what was printed or exiting.
+ */
+public class ConsoleSink {
+
+    private enum Mode { BUFFERED, LIVE, DIRECT }
+
+    private static final Mode MODE = resolveMode();
+
+    private static final BlockingQueue<List<Segment>> queue = new LinkedBlockingQueue<>();
+    private static final Object pendingLock = new Object();
+    private static long pending = 0;
+
+    private static final ThreadLocal<Block> block = new ThreadLocal<>();
+    // Blocks still open, written out by flush() if their test never closed them
+    private static final Set<Block> openBlocks = ConcurrentHashMap.newKeySet();
+
+    private static final AtomicInteger finishedTests = new AtomicInteger();
+    private static volatile int expectedTests;
+
+    private static Thread writer;
+
+    /**
+     * Text for one stream; consecutive lines for the same stream share one
+     */
+    private static final class Segment {
+        private final boolean err;
+        private final StringBuilder text = new StringBuilder();
+
+        Segment(boolean err) {
+            this.err = err;
+        }
+    }
+
+    /**
+     * Output of one test on its thread
+     */
+    private static final class Block {
+        private String label;
+        private final List<Segment> segments = new ArrayList<>();
+        private boolean testDone;
+
+        Block(String label) {
+            this.label = label;
+        }
+
+        synchronized void append(boolean err, String line) {
+            Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (last == null || last.err != err) {
+                last = new Segment(err);
+                segments.add(last);
+            }
+            last.text.append(line).append(System.lineSeparator());
+        }
+
+        synchronized List<Segment> take() {
+            List<Segment> taken = new ArrayList<>(segments);
+            segments.clear();
+            return taken;
+        }
+    }
+
+    public static void out(String line) {
+        write(false, line);
+    }
+
+    public static void err(String line) {
+        write(true, line);
+    }
+
+    /**
+     * Print a throwable's stack trace (as printStackTrace would)
+     */
+    public static void err(Throwable throwable) {
+        StringWriter trace = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(trace));
+        String text = trace.toString();
+        write(true, text.endsWith(System.lineSeparator())
+            ? text.substring(0, text.length() - System.lineSeparator().length())
+            : text);
+    }
+
+    private static void write(boolean err, String line) {
+        if (MODE == Mode.DIRECT) {
+            (err ? System.err : System.out).println(line);
+            return;
+        }
+        Block current = block.get();
+        if (current == null) {
+            submit(single(err, line));
+        } else if (MODE == Mode.LIVE) {
+            submit(single(err, "[" + current.label + "] " + line));
+        } else {
+            current.append(err, line);
+        }
+    }
+
+    /**
+     * Start collecting this thread's output for a test, or rename the block
+     * already started by its @BeforeMethod. A block whose test already
+     * finished is written out first.
+     */
+    public static void beginTest(String label) {
+        if (MODE == Mode.DIRECT) {
+            return;
+        }
+        Block current = block.get();
+        if (current != null && current.testDone) {
+            endTest();
+            current = null;
+        }
+        if (current == null) {
+            current = new Block(label);
+            block.set(current);
+            openBlocks.add(current);
+        } else {
+            current.label = label;
+        }
+    }
+
+    /**
+     * The test on this thread has its result; its @AfterMethod output still
+     * belongs to its block
+     */
+    public static void testDone() {
+        finishedTests.incrementAndGet();
+        Block current = block.get();
+        if (current != null) {
+            current.testDone = true;
+        }
+    }
+
+    /**
+     * Write out this thread's block (after the test's last @AfterMethod)
+     */
+    public static void endTest() {
+        Block current = block.get();
+        if (current == null) {
+            return;
+        }
+        block.remove();
+        openBlocks.remove(current);
+        List<Segment> segments = current.take();
+        if (!segments.isEmpty()) {
+            submit(segments);
+        }
+    }
+
+    /**
+     * Number of tests the suite will run (for the live progress counter)
+     */
+    public static void setExpectedTests(int count) {
+        expectedTests = count;
+    }
+
+    /**
+     * "[finished/expected] " in live mode, "" otherwise
+     */
+    public static String progress() {
+        if (MODE != Mode.LIVE) {
+            return "";
+        }
+        int expected = expectedTests;
+        return "[" + finishedTests.get() + (expected > 0 ? "/" + expected : "") + "] ";
+    }
+
+    /**
+     * Write out blocks left open and wait until everything queued is printed
+     */
+    public static void flush() {
+        for (Block open : openBlocks) {
+            openBlocks.remove(open);
+            List<Segment> segments = open.take();
+            if (!segments.isEmpty()) {
+                submit(segments);
+            }
+        }
+        synchronized (pendingLock) {
+            while (pending > 0) {
+                try {
+                    pendingLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static List<Segment> single(boolean err, String line) {
+        Segment segment = new Segment(err);
+        segment.text.append(line).append(System.lineSeparator());
+        List<Segment> segments = new ArrayList<>(1);
+        segments.add(segment);
+        return segments;
+    }
+
+    private static void submit(List<Segment> segments) {
+        startWriter();
+        synchronized (pendingLock) {
+            pending++;
+        }
+        queue.add(segments);
+    }
+
+    private static synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(ConsoleSink::drainLoop, "console-writer");
+        writer.setDaemon(true);
+        writer.start();
+        // Whatever is still queued when the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(ConsoleSink::flush, "console-flush"));
+    }
+
+    private static void drainLoop() {
+        while (true) {
+            List<Segment> segments;
+            try {
+                segments = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                for (Segment segment : segments) {
+                    PrintStream stream = segment.err ? System.err : System.out;
+                    stream.print(segment.text);
+                    if (queue.isEmpty()) {
+                        stream.flush();
+                    }
+                }
+            } finally {
+                synchronized (pendingLock) {
+                    pending--;
+                    pendingLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private static Mode resolveMode() {
+        String mode = ConfigReader.getProperty("console.mode", "buffered").trim().toUpperCase();
+        try {
+            return Mode.valueOf(mode);
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠️ Unknown console.mode '" + mode.toLowerCase() + "', using buffered");
+            return Mode.BUFFERED;
+        }
+    }
+}
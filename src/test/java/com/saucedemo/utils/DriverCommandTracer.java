@@ -0,0 +1,129 @@
+package com.saucedemo.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Spans for every WebDriver command and for the page-object method that
+ * issued it, plus the selenium.command.duration metric (Telemetry)
+ *
+ * Sessions are wrapped in an EventFiringDecorator; each call on the driver
+ * or on an element (navigation, window, alert...) becomes a "driver" span.
+ * The page-object method is the outermost com.saucedemo.pages frame on the
+ * stack when the command starts. Consecutive commands from the same method
+ * form one "page" span, which ends with its last command - so two calls of
+ * the same method in a row show up as one span.
+ */
+class DriverCommandTracer implements WebDriverListener {
+
+    private static final String PAGES_PACKAGE = "com.saucedemo.pages.";
+    private static final StackWalker STACK = StackWalker.getInstance();
+
+    private static final ThreadLocal<CallState> state = ThreadLocal.withInitial(CallState::new);
+
+    private static final class CallState {
+        // Start times of the commands in progress (decorated calls can nest)
+        long[] starts = new long[8];
+        int depth;
+
+        String page;
+        long pageStart;
+        long pageEnd;
+    }
+
+    /**
+     * Wrap a new session so its commands are traced (no-op when both tracing
+     * and telemetry are off)
+     */
+    static WebDriver decorate(WebDriver webDriver) {
+        if (!SpanTracer.isEnabled() && !Telemetry.isEnabled()) {
+            return webDriver;
+        }
+        return new EventFiringDecorator<>(new DriverCommandTracer()).decorate(webDriver);
+    }
+
+    /**
+     * End the current page-object span on this thread (a new step started,
+     * or the test finished)
+     */
+    static void closePageSpan() {
+        CallState call = state.get();
+        if (call.page != null) {
+            SpanTracer.record(call.page, "page", call.pageStart, call.pageEnd);
+            call.page = null;
+        }
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        CallState call = state.get();
+        long now = System.nanoTime();
+        if (call.depth == 0) {
+            String page = pageMethod();
+            if (page == null || !page.equals(call.page)) {
+                closePageSpan();
+                if (page != null) {
+                    call.page = page;
+                    call.pageStart = now;
+                }
+            }
+        }
+        if (call.depth == call.starts.length) {
+            call.starts = Arrays.copyOf(call.starts, call.depth * 2);
+        }
+        call.starts[call.depth++] = now;
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        end(method, args);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        end(method, args);
+    }
+
+    private static void end(Method method, Object[] args) {
+        CallState call = state.get();
+        if (call.depth == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long start = call.starts[--call.depth];
+        SpanTracer.record(commandName(method, args), "driver", start, now);
+        Telemetry.recordDuration("selenium.command.duration", (now - start) / 1e6, "command", method.getName());
+        if (call.page != null) {
+            call.pageEnd = now;
+        }
+    }
+
+    /**
+     * "findElement(By.id: checkout)" for lookups, the bare method name otherwise
+     */
+    private static String commandName(Method method, Object[] args) {
+        String name = method.getName();
+        if ((name.equals("findElement") || name.equals("findElements") || name.equals("get")
+            || name.equals("to")) && args != null && args.length == 1) {
+            return name + "(" + args[0] + ")";
+        }
+        return name;
+    }
+
+    /**
+     * "CartPage.clickCheckout" - the outermost page-object frame, or null
+     */
+    private static String pageMethod() {
+        Optional<StackWalker.StackFrame> frame = STACK.walk(frames -> frames
+            .filter(f -> f.getClassName().startsWith(PAGES_PACKAGE))
+            .reduce((inner, outer) -> outer));
+        return frame.map(f -> f.getClassName().substring(PAGES_PACKAGE.length()) + "." + f.getMethodName())
+            .orElse(null);
+    }
+}
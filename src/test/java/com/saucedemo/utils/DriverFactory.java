@@ -1,6 +1,8 @@
 package com.saucedemo.utils;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
@@ -8,20 +10,101 @@ import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.saucedemo.config.ConfigReader;
 
 public class DriverFactory {
 
     private static ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static ThreadLocal<String> driverBrowser = new ThreadLocal<>();
+
+    // Warm sessions kept open between runs when session reuse is enabled (watch mode)
+    private static final Map<String, Deque<WebDriver>> idleSessions = new HashMap<>();
+    private static volatile boolean sessionReuse = false;
+
+    // Per-browser cap on live sessions (browser.<name>.max.sessions)
+    private static final Map<String, Semaphore> sessionPermits = new ConcurrentHashMap<>();
+    private static ThreadLocal<SessionPermit> heldPermit = new ThreadLocal<>();
+
+    // Throttles how many browsers launch at once, independent of the live-session caps
+    private static final SessionAdmissionController launchController = SessionAdmissionController.fromConfig();
+
+    private static final AtomicInteger liveSessions = new AtomicInteger();
+
+    // Telemetry span of the session held by this thread (launch/reuse until quit)
+    private static ThreadLocal<Telemetry.Span> sessionSpan = new ThreadLocal<>();
 
     public static WebDriver getDriver() {
         return driver.get();
     }
 
+    /**
+     * Browser of this thread's session, or null
+     */
+    public static String getBrowser() {
+        return driverBrowser.get();
+    }
+
+    /**
+     * Keep browser sessions open after quitDriver() so the next setDriver()
+     * for the same browser can pick them up instead of launching a new one
+     */
+    public static void setSessionReuse(boolean enabled) {
+        sessionReuse = enabled;
+        if (!enabled) {
+            closeIdleSessions();
+        }
+    }
+
+    public static boolean isSessionReuse() {
+        return sessionReuse;
+    }
+
     public static void setDriver(String browser) {
-        WebDriver webDriver = null;
+        // A session still attached to this thread was never quit (e.g. its
+        // @BeforeMethod blew up) - reclaim it before starting a new one
+        WebDriver leaked = driver.get();
+        if (leaked != null) {
+            if (SessionRegistry.isRegistered(leaked)) {
+                SessionRegistry.reclaim(leaked, "thread started a new session without quitting");
+            }
+            driver.remove();
+            driverBrowser.remove();
+        }
+
+        long waitStart = System.nanoTime();
+        acquireSessionPermit(browser.toLowerCase());
+        Telemetry.recordDuration("selenium.session.wait.duration", (System.nanoTime() - waitStart) / 1e6,
+            "browser", browser.toLowerCase(), "wait.reason", "slot");
+        try {
+            createDriver(browser);
+        } catch (RuntimeException | Error e) {
+            releaseSessionPermit();
+            throw e;
+        }
+    }
+
+    private static void createDriver(String browser) {
+        WebDriver webDriver = sessionReuse ? takeIdleSession(browser.toLowerCase()) : null;
+        if (webDriver != null) {
+            registerSession(browser.toLowerCase(), webDriver, true);
+            return;
+        }
+
+        // Hold back new browsers while the machine is short on memory
+        long waitStart = System.nanoTime();
+        MemoryMonitor.awaitMemory(browser.toLowerCase(), liveSessions.get());
+        Telemetry.recordDuration("selenium.session.wait.duration", (System.nanoTime() - waitStart) / 1e6,
+            "browser", browser.toLowerCase(), "wait.reason", "memory");
+        long launchStart = System.nanoTime();
 
         switch (browser.toLowerCase()) {
             case "chrome":
@@ -36,7 +119,10 @@ public class DriverFactory {
                 chromeOptions.addArguments("--incognito");
 
                 // Window settings
-                chromeOptions.addArguments("--start-maximized");
+                int[] chromeWindow = ConfigReader.getWindowSize();
+                chromeOptions.addArguments(chromeWindow != null
+                    ? "--window-size=" + chromeWindow[0] + "," + chromeWindow[1]
+                    : "--start-maximized");
                 chromeOptions.addArguments("--disable-notifications");
                 chromeOptions.addArguments("--disable-popup-blocking");
 
@@ -67,37 +153,248 @@ public class DriverFactory {
                 chromePrefs.put("password_manager_enabled", false);
                 chromeOptions.setExperimentalOption("prefs", chromePrefs);
 
-                webDriver = new ChromeDriver(chromeOptions);
+                webDriver = launchController.launch("chrome", () -> new ChromeDriver(chromeOptions));
                 break;
 
             case "firefox":
                 WebDriverManager.firefoxdriver().setup();
                 FirefoxOptions firefoxOptions = new FirefoxOptions();
-                firefoxOptions.addArguments("--start-maximized");
+                int[] firefoxWindow = ConfigReader.getWindowSize();
+                if (firefoxWindow != null) {
+                    firefoxOptions.addArguments("--width=" + firefoxWindow[0], "--height=" + firefoxWindow[1]);
+                }
 
                 // Disable Firefox password manager popup
                 firefoxOptions.addPreference("signon.rememberSignons", false);
                 firefoxOptions.addPreference("signon.autofillForms", false);
 
-                webDriver = new FirefoxDriver(firefoxOptions);
+                webDriver = launchController.launch("firefox", () -> new FirefoxDriver(firefoxOptions));
                 break;
 
             default:
                 throw new IllegalArgumentException("Browser " + browser + " is not supported");
         }
 
+        Telemetry.recordDuration("selenium.session.start.duration", (System.nanoTime() - launchStart) / 1e6,
+            "browser", browser.toLowerCase());
+
+        // Every command becomes a span in the run's trace (trace.enabled) and a latency sample (otel.enabled)
+        webDriver = DriverCommandTracer.decorate(webDriver);
+
         webDriver.manage().timeouts().implicitlyWait(
             Duration.ofSeconds(ConfigReader.getImplicitWait())
         );
-        webDriver.manage().window().maximize();
+        // A fixed viewport keeps screenshots small and the same size on every machine
+        int[] windowSize = ConfigReader.getWindowSize();
+        if (windowSize != null) {
+            webDriver.manage().window().setSize(new Dimension(windowSize[0], windowSize[1]));
+        } else {
+            webDriver.manage().window().maximize();
+        }
+
+        registerSession(browser.toLowerCase(), webDriver, false);
+    }
 
+    private static void registerSession(String browser, WebDriver webDriver, boolean reused) {
+        driverBrowser.set(browser);
         driver.set(webDriver);
+
+        // Sessions start in @BeforeMethod, before the test - tagSession() adds the test later
+        Telemetry.Span span = Telemetry.startSpan("session " + browser, Telemetry.getSuiteSpan(),
+            "browser", browser, "session.reused", String.valueOf(reused));
+        sessionSpan.set(span);
+
+        SessionPermit permit = heldPermit.get();
+        SessionRegistry.register(webDriver, browser, () -> {
+            // Leaked session quit by the watchdog - give its slot back
+            ScreencastRecorder.stop(webDriver);
+            FailureBundleCollector.stop(webDriver);
+            span.setAttribute("session.reclaimed", "true").end();
+            int live = liveSessions.decrementAndGet();
+            SessionTimeline.record("RECLAIM", browser, live,
+                MemoryMonitor.availableMemoryMb(), MemoryMonitor.browserRssMb());
+            if (permit != null) {
+                permit.release();
+            }
+        });
+
+        int live = liveSessions.incrementAndGet();
+        SessionTimeline.record("START", browser, live,
+            MemoryMonitor.availableMemoryMb(), MemoryMonitor.browserRssMb());
+        ScreencastRecorder.start(webDriver);
+        FailureBundleCollector.start(webDriver);
     }
 
     public static void quitDriver() {
-        if (driver.get() != null) {
-            driver.get().quit();
+        try {
+            WebDriver webDriver = driver.get();
+            // Unregistered means the watchdog already reclaimed this session
+            if (webDriver != null && SessionRegistry.unregister(webDriver)) {
+                ScreencastRecorder.stop(webDriver);
+                FailureBundleCollector.stop(webDriver);
+                try {
+                    if (sessionReuse && resetSession(webDriver)) {
+                        synchronized (idleSessions) {
+                            idleSessions.computeIfAbsent(driverBrowser.get(), k -> new ArrayDeque<>())
+                                .push(webDriver);
+                        }
+                    } else {
+                        webDriver.quit();
+                    }
+                } finally {
+                    int live = liveSessions.decrementAndGet();
+                    SessionTimeline.record("QUIT", driverBrowser.get(), live,
+                        MemoryMonitor.availableMemoryMb(), MemoryMonitor.browserRssMb());
+                    if (sessionSpan.get() != null) {
+                        sessionSpan.get().end();
+                    }
+                }
+            }
+        } finally {
             driver.remove();
+            driverBrowser.remove();
+            sessionSpan.remove();
+            releaseSessionPermit();
+        }
+    }
+
+    /**
+     * Tag the current thread's session span with the test using it (e.g.
+     * test.name, jira.key)
+     */
+    public static void tagSession(String key, String value) {
+        Telemetry.Span span = sessionSpan.get();
+        if (span != null) {
+            span.setAttribute(key, value);
+        }
+    }
+
+    /**
+     * Called by the listener when the current thread's test finishes, so the
+     * watchdog can reclaim the session if teardown never quits it
+     */
+    public static void markTestFinished() {
+        SessionRegistry.markTestFinished();
+    }
+
+    /**
+     * Block until the browser has a free session slot
+     */
+    private static void acquireSessionPermit(String browser) {
+        SessionPermit held = heldPermit.get();
+        if (held != null && !held.isReleased()) {
+            return;
+        }
+        Semaphore permits = sessionPermits.computeIfAbsent(browser,
+            name -> new Semaphore(ConfigReader.getMaxSessions(name), true));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a " + browser + " session slot", e);
+        }
+        heldPermit.set(new SessionPermit(permits));
+    }
+
+    private static void releaseSessionPermit() {
+        SessionPermit permit = heldPermit.get();
+        if (permit != null) {
+            heldPermit.remove();
+            permit.release();
+        }
+    }
+
+    /**
+     * Session slot that can be released exactly once, either by the owning
+     * thread or by the watchdog reclaiming a leaked session
+     */
+    private static class SessionPermit {
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        SessionPermit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+
+        boolean isReleased() {
+            return released.get();
+        }
+    }
+
+    public static int getLiveSessionCount() {
+        return liveSessions.get();
+    }
+
+    public static SessionAdmissionController getLaunchController() {
+        return launchController;
+    }
+
+    /**
+     * Print session launch statistics (call once at the end of the suite)
+     */
+    public static void printSessionStats() {
+        launchController.printSummary();
+        SessionRegistry.printSummary();
+        SessionTimeline.write();
+    }
+
+    /**
+     * Quit every idle warm session
+     * @return the number of sessions quit
+     */
+    public static int closeIdleSessions() {
+        int closed = 0;
+        synchronized (idleSessions) {
+            for (Deque<WebDriver> sessions : idleSessions.values()) {
+                for (WebDriver session : sessions) {
+                    try {
+                        session.quit();
+                    } catch (Exception e) {
+                        // Session already gone
+                    }
+                    closed++;
+                }
+                sessions.clear();
+            }
+        }
+        return closed;
+    }
+
+    private static WebDriver takeIdleSession(String browser) {
+        synchronized (idleSessions) {
+            Deque<WebDriver> sessions = idleSessions.get(browser);
+            while (sessions != null && !sessions.isEmpty()) {
+                WebDriver session = sessions.pop();
+                try {
+                    // Cheap liveness check - throws if the browser was closed
+                    session.getWindowHandle();
+                    return session;
+                } catch (Exception e) {
+                    ConsoleSink.out("  ♻️  Dropping dead warm " + browser + " session");
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Clear cookies and web storage so the next test starts logged out
+     */
+    private static boolean resetSession(WebDriver webDriver) {
+        try {
+            webDriver.manage().deleteAllCookies();
+            ((JavascriptExecutor) webDriver).executeScript(
+                "window.localStorage.clear(); window.sessionStorage.clear();");
+            webDriver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            return false;
         }
     }
 }
@@ -0,0 +1,246 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Structured log of every test event, one JSON object per line
+ *
+ * Each TestLogger / ExtentLogger call and each listener event becomes
+ * {"ts", "run", "thread", "test", "jira", "browser", "level", "event",
+ * "step", "message", "duration_ms", "status"} (absent fields omitted), taken
+ * from the thread's TestContext. The test thread only formats the line and
+ * queues it (eventlog.queue.size, dropped when full); one "event-log-writer"
+ * thread appends batches to eventlog.dir/events.jsonl through a buffer and
+ * pushes it to the OS whenever the queue goes idle.
+ *
+ * When events.jsonl reaches eventlog.max.file.mb it is rotated to
+ * events.1.jsonl (older files shift up, up to eventlog.max.files). Runs
+ * append to the same stream; "run" tells them apart.
+ */
+public class EventLog {
+
+    private static final boolean ENABLED =
+        Boolean.parseBoolean(ConfigReader.getProperty("eventlog.enabled", "true"));
+    private static final Path DIR = Paths.get(ConfigReader.getProperty("eventlog.dir", "test-output/events/"));
+    private static final long MAX_FILE_BYTES =
+        Long.parseLong(ConfigReader.getProperty("eventlog.max.file.mb", "50")) * 1024 * 1024;
+    private static final int MAX_FILES = Integer.parseInt(ConfigReader.getProperty("eventlog.max.files", "10"));
+    private static final int QUEUE_SIZE = Integer.parseInt(ConfigReader.getProperty("eventlog.queue.size", "16384"));
+
+    private static final String RUN = String.valueOf(System.currentTimeMillis());
+    private static final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private static final Object pendingLock = new Object();
+    private static long pending = 0;
+
+    private static final AtomicLong written = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+
+    private static Thread writerThread;
+    private static volatile boolean running;
+
+    // Writer thread only
+    private static BufferedWriter writer;
+    private static long fileBytes;
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Event of the current thread's test
+     */
+    public static void log(String level, String event, String message) {
+        log(level, event, message, -1, null);
+    }
+
+    /**
+     * Event of the current thread's test; durationMillis &lt; 0 and a null
+     * status are left out
+     */
+    public static void log(String level, String event, String message, long durationMillis, String status) {
+        if (!ENABLED) {
+            return;
+        }
+        if (!running) {
+            ensureStarted();
+        }
+        TestContext context = TestContext.current();
+        StringBuilder line = new StringBuilder(160 + (message != null ? message.length() : 0));
+        line.append("{\"ts\":").append(System.currentTimeMillis()).append(",\"run\":\"").append(RUN)
+            .append("\",\"thread\":");
+        JsonText.quote(line, Thread.currentThread().getName());
+        field(line, "test", context.getTestName());
+        field(line, "jira", context.getJiraKey());
+        field(line, "browser", context.getBrowser());
+        line.append(",\"level\":\"").append(level).append("\",\"event\":\"").append(event).append('"');
+        field(line, "step", context.getStepName());
+        field(line, "message", message);
+        if (durationMillis >= 0) {
+            line.append(",\"duration_ms\":").append(durationMillis);
+        }
+        field(line, "status", status);
+        line.append('}');
+        submit(line.toString());
+    }
+
+    private static void field(StringBuilder line, String name, String value) {
+        if (value != null) {
+            line.append(",\"").append(name).append("\":");
+            JsonText.quote(line, value);
+        }
+    }
+
+    private static void submit(String line) {
+        synchronized (pendingLock) {
+            pending++;
+        }
+        if (!queue.offer(line)) {
+            dropped.incrementAndGet();
+            done(1);
+        }
+    }
+
+    /**
+     * Wait until every queued event is in the file (pushed to the OS)
+     */
+    public static void flush() {
+        synchronized (pendingLock) {
+            while (pending > 0) {
+                try {
+                    pendingLock.wait(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Flush and print what was written (end of the suite)
+     */
+    public static void printSummary() {
+        if (!ENABLED || written.get() + dropped.get() == 0) {
+            return;
+        }
+        flush();
+        System.out.println("🧾 Event log: " + written.get() + " events (" + dropped.get() + " dropped) -> "
+            + DIR.resolve("events.jsonl").toAbsolutePath());
+    }
+
+    private static synchronized void ensureStarted() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(EventLog::writeLoop, "event-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(EventLog::flush, "event-log-flush"));
+    }
+
+    private static void writeLoop() {
+        List<String> batch = new ArrayList<>(512);
+        while (true) {
+            try {
+                String first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, 511);
+                    write(batch);
+                    done(batch.size());
+                    batch.clear();
+                }
+                if (queue.isEmpty() && writer != null) {
+                    writer.flush();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                ConsoleSink.err("Event log write failed: " + e.getMessage());
+                done(batch.size());
+                batch.clear();
+                closeQuietly();
+            }
+        }
+    }
+
+    private static void done(int events) {
+        synchronized (pendingLock) {
+            pending -= events;
+            if (pending <= 0) {
+                pendingLock.notifyAll();
+            }
+        }
+    }
+
+    private static void write(List<String> lines) throws IOException {
+        for (String line : lines) {
+            if (writer == null || fileBytes >= MAX_FILE_BYTES) {
+                rotate();
+            }
+            writer.write(line);
+            writer.write('\n');
+            // Close enough for rotation: events are almost all ASCII
+            fileBytes += line.length() + 1;
+        }
+        // Flushed to the OS before anyone waiting in flush() is released
+        if (queue.isEmpty()) {
+            writer.flush();
+        }
+        written.addAndGet(lines.size());
+    }
+
+    /**
+     * Open events.jsonl, first shifting it to events.1.jsonl when it is full
+     */
+    private static void rotate() throws IOException {
+        Files.createDirectories(DIR);
+        Path current = DIR.resolve("events.jsonl");
+        if (writer != null || (Files.exists(current) && Files.size(current) >= MAX_FILE_BYTES)) {
+            closeQuietly();
+            Files.deleteIfExists(DIR.resolve("events." + MAX_FILES + ".jsonl"));
+            for (int i = MAX_FILES - 1; i >= 1; i--) {
+                Path older = DIR.resolve("events." + i + ".jsonl");
+                if (Files.exists(older)) {
+                    Files.move(older, DIR.resolve("events." + (i + 1) + ".jsonl"), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (MAX_FILES > 0 && Files.exists(current)) {
+                Files.move(current, DIR.resolve("events.1.jsonl"), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(current);
+            }
+        }
+        writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(current,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8), 64 * 1024);
+        fileBytes = Files.size(current);
+    }
+
+    private static void closeQuietly() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // Reopened (or rotated) on the next write
+            }
+            writer = null;
+        }
+    }
+}
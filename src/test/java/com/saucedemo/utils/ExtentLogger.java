@@ -1,12 +1,12 @@
 package com.saucedemo.utils;
 
-import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.markuputils.ExtentColor;
-import com.aventstack.extentreports.markuputils.MarkupHelper;
 
 /**
  * Utility class for logging test steps to ExtentReports
+ * (applied by the ReportQueue writer thread), the console (ConsoleSink) and
+ * the EventLog
  */
 public class ExtentLogger {
 
@@ -14,76 +14,94 @@ public class ExtentLogger {
      * Log info message
      */
     public static void info(String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.info(message);
+            ReportQueue.log(test, Status.INFO, message);
         }
-        System.out.println("  ℹ️  " + message);
+        ConsoleSink.out("  ℹ️  " + message);
+        EventLog.log("INFO", "log", message);
     }
 
     /**
      * Log pass message
      */
     public static void pass(String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.pass(MarkupHelper.createLabel(message, ExtentColor.GREEN));
+            ReportQueue.label(test, Status.PASS, message, ExtentColor.GREEN);
         }
-        System.out.println("  ✅ " + message);
+        ConsoleSink.out("  ✅ " + message);
+        EventLog.log("INFO", "pass", message);
     }
 
     /**
      * Log fail message
      */
     public static void fail(String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.fail(MarkupHelper.createLabel(message, ExtentColor.RED));
+            ReportQueue.label(test, Status.FAIL, message, ExtentColor.RED);
         }
-        System.out.println("  ❌ " + message);
+        ConsoleSink.out("  ❌ " + message);
+        EventLog.log("ERROR", "fail", message);
     }
 
     /**
      * Log warning message
      */
     public static void warning(String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.warning(MarkupHelper.createLabel(message, ExtentColor.YELLOW));
+            ReportQueue.label(test, Status.WARNING, message, ExtentColor.YELLOW);
         }
-        System.out.println("  ⚠️  " + message);
+        ConsoleSink.out("  ⚠️  " + message);
+        EventLog.log("WARN", "log", message);
     }
 
     /**
      * Log skip message
      */
     public static void skip(String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.skip(MarkupHelper.createLabel(message, ExtentColor.ORANGE));
+            ReportQueue.label(test, Status.SKIP, message, ExtentColor.ORANGE);
         }
-        System.out.println("  ⏭️  " + message);
+        ConsoleSink.out("  ⏭️  " + message);
+        EventLog.log("INFO", "skip", message);
     }
 
     /**
      * Log step with custom status
      */
     public static void log(Status status, String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.log(status, message);
+            ReportQueue.log(test, status, message);
         }
-        System.out.println("  📝 " + message);
+        ConsoleSink.out("  📝 " + message);
+        EventLog.log(level(status), "log", message);
     }
 
     /**
      * Create a step (node) in the test
      */
-    public static ExtentTest createStep(String stepName) {
-        ExtentTest test = ExtentReportManager.getTest();
+    public static ReportHandle createStep(String stepName) {
+        EventLog.log("INFO", "step", stepName);
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            return test.createNode(stepName);
+            return ReportQueue.createNode(test, stepName, null);
         }
         return null;
     }
+
+    private static String level(Status status) {
+        switch (status) {
+            case FAIL:
+                return "ERROR";
+            case WARNING:
+                return "WARN";
+            default:
+                return "INFO";
+        }
+    }
 }
@@ -4,19 +4,46 @@ import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.saucedemo.config.ConfigReader;
 
 import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Manager class for ExtentReports HTML reporting
+ *
+ * report.format selects the output:
+ * - spark: Extent's single-file Spark report (default)
+ * - paged: static shell plus chunked data files (PagedReportWriter), for
+ *   runs with thousands of tests; built from the journal
+ * - both
+ *
+ * Suite-wide summaries (addSection) are report-level sections, not tests.
  */
 public class ExtentReportManager {
 
     private static ExtentReports extent;
-    private static ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+    private static ThreadLocal<ReportHandle> test = new ThreadLocal<>();
     private static String reportPath;
+    private static final String REPORT_DIR = "test-output/extent-reports/";
+    private static final String STATS_FILE = REPORT_DIR + "report-stats.csv";
+    private static final boolean JOURNAL_ENABLED =
+        Boolean.parseBoolean(ConfigReader.getProperty("report.journal.enabled", "true"));
+    private static final boolean RELEASE_COMPLETED =
+        Boolean.parseBoolean(ConfigReader.getProperty("report.release.completed", "false"));
+    private static final String FORMAT = ConfigReader.getProperty("report.format", "spark").toLowerCase();
+
+    private static boolean sparkEnabled = true;
+    private static boolean pagedEnabled = false;
+    private static String pagedPath;
+    private static final List<String> sections = new ArrayList<>();
 
     /**
      * Initialize ExtentReports
@@ -33,7 +60,7 @@ public class ExtentReportManager {
      */
     private static void createInstance() {
         String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String reportDir = "test-output/extent-reports/";
+        String reportDir = REPORT_DIR;
 
         // Create directory if not exists
         File directory = new File(reportDir);
@@ -41,9 +68,28 @@ public class ExtentReportManager {
             directory.mkdirs();
         }
 
+        pagedEnabled = FORMAT.equals("paged") || FORMAT.equals("both");
+        if (pagedEnabled && !JOURNAL_ENABLED) {
+            System.err.println("⚠️ report.format=" + FORMAT + " needs report.journal.enabled=true - using spark");
+            pagedEnabled = false;
+        }
+        sparkEnabled = !pagedEnabled || FORMAT.equals("both");
+
         reportPath = reportDir + "TestReport_" + timestamp + ".html";
+        pagedPath = reportDir + "TestReport_" + timestamp + "-paged.html";
+        // Paged only: tests are still modelled (the queue applies to them) but never rendered by Extent
+        extent = sparkEnabled ? createExtentReports(reportPath) : new ExtentReports();
+
+        if (JOURNAL_ENABLED) {
+            ReportJournal.open(Paths.get(reportDir, "TestReport_" + timestamp + ".journal.jsonl"));
+        }
+    }
 
-        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
+    /**
+     * Configured ExtentReports writing a Spark report to htmlPath
+     */
+    public static ExtentReports createExtentReports(String htmlPath) {
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(htmlPath);
 
         // Configure report
         sparkReporter.config().setDocumentTitle("SauceDemo Test Report");
@@ -51,29 +97,30 @@ public class ExtentReportManager {
         sparkReporter.config().setTheme(Theme.STANDARD);
         sparkReporter.config().setTimeStampFormat("dd-MM-yyyy HH:mm:ss");
 
-        extent = new ExtentReports();
-        extent.attachReporter(sparkReporter);
+        ExtentReports reports = new ExtentReports();
+        reports.attachReporter(sparkReporter);
 
         // System info
-        extent.setSystemInfo("Application", "SauceDemo");
-        extent.setSystemInfo("Environment", "QA");
-        extent.setSystemInfo("Tester", "Automation Team");
-        extent.setSystemInfo("OS", System.getProperty("os.name"));
-        extent.setSystemInfo("Java Version", System.getProperty("java.version"));
+        reports.setSystemInfo("Application", "SauceDemo");
+        reports.setSystemInfo("Environment", "QA");
+        reports.setSystemInfo("Tester", "Automation Team");
+        reports.setSystemInfo("OS", System.getProperty("os.name"));
+        reports.setSystemInfo("Java Version", System.getProperty("java.version"));
+        return reports;
     }
 
     /**
      * Get current test
      */
-    public static ExtentTest getTest() {
+    public static ReportHandle getTest() {
         return test.get();
     }
 
     /**
      * Set current test
      */
-    public static void setTest(ExtentTest extentTest) {
-        test.set(extentTest);
+    public static void setTest(ReportHandle handle) {
+        test.set(handle);
     }
 
     /**
@@ -83,24 +130,164 @@ public class ExtentReportManager {
         test.remove();
     }
 
+    /**
+     * Add a report-level section (a suite-wide summary): shown in the Spark
+     * report's Logs view and above the paged report's test list, and never
+     * counted as a test. Call before flushReports().
+     * @param parts HTML after the title and description (e.g. MarkupHelper
+     *     labels and tables)
+     */
+    public static void addSection(String title, String description, String... parts) {
+        StringBuilder html = new StringBuilder("<h5>").append(title).append("</h5>");
+        if (description != null) {
+            html.append("<p>").append(description).append("</p>");
+        }
+        for (String part : parts) {
+            html.append(part);
+        }
+        synchronized (sections) {
+            sections.add(html.toString());
+        }
+    }
+
     /**
      * Flush reports
      */
-    public static void flushReports() {
+    public static synchronized void flushReports() {
         if (extent != null) {
-            extent.flush();
+            long start = System.currentTimeMillis();
+            ReportJournal.close();
+            if (sparkEnabled) {
+                if (RELEASE_COMPLETED && ReportJournal.getPath() != null) {
+                    // Completed tests were dropped from memory - the journal has everything
+                    rebuildFromJournal();
+                } else {
+                    addSections(extent);
+                    extent.flush();
+                }
+            }
+            if (pagedEnabled) {
+                writePagedReport();
+            }
+            long flushMillis = System.currentTimeMillis() - start;
+
             System.out.println("\n╔═══════════════════════════════════════════════════════════╗");
             System.out.println("║  📊 ExtentReports HTML Report Generated Successfully!   ║");
             System.out.println("╚═══════════════════════════════════════════════════════════╝");
-            System.out.println("📁 Report Location: " + new File(reportPath).getAbsolutePath());
+            if (sparkEnabled) {
+                System.out.println("📁 Report Location: " + new File(reportPath).getAbsolutePath());
+            }
+            if (pagedEnabled) {
+                System.out.println("📁 Paged Report Location: " + new File(pagedPath).getAbsolutePath());
+            }
             System.out.println("🌐 Open in browser to view detailed results");
+            recordReportStats(flushMillis);
+        }
+    }
+
+    /**
+     * Periodic flush during the run (called by the report writer thread, which
+     * owns the Extent model), so a killed run still leaves a recent report.
+     * With report.release.completed the given finished tests are then dropped
+     * from memory, so later periodic reports only show the tests still held;
+     * the complete report is the final one, rebuilt from the journal (or by
+     * ReportRebuilder after a crash). The paged format is always written from
+     * the journal, so without Spark finished tests are always dropped.
+     */
+    static synchronized void flushIncremental(List<ExtentTest> completed) {
+        if (extent == null) {
+            return;
+        }
+        if (sparkEnabled) {
+            extent.flush();
+        }
+        ReportJournal.sync();
+        if ((RELEASE_COMPLETED || !sparkEnabled) && ReportJournal.getPath() != null) {
+            for (ExtentTest completedTest : completed) {
+                extent.removeTest(completedTest);
+            }
+        }
+    }
+
+    private static void rebuildFromJournal() {
+        try {
+            ExtentReports rebuilt = createExtentReports(reportPath);
+            int tests = ReportJournal.replay(ReportJournal.getPath(), rebuilt);
+            addSections(rebuilt);
+            rebuilt.flush();
+            System.out.println("🧾 Report rebuilt from journal (" + tests + " tests)");
+        } catch (IOException e) {
+            System.err.println("Failed to rebuild report from journal - writing in-memory tests only: "
+                + e.getMessage());
+            addSections(extent);
+            extent.flush();
+        }
+    }
+
+    private static void addSections(ExtentReports reports) {
+        synchronized (sections) {
+            sections.forEach(reports::addTestRunnerOutput);
+        }
+    }
+
+    private static void writePagedReport() {
+        try {
+            List<String> pagedSections;
+            synchronized (sections) {
+                pagedSections = new ArrayList<>(sections);
+            }
+            int tests = PagedReportWriter.write(ReportJournal.getPath(), Paths.get(pagedPath), pagedSections);
+            System.out.println("📑 Paged report written (" + tests + " tests)");
+        } catch (IOException e) {
+            System.err.println("Failed to write paged report: " + e.getMessage());
         }
     }
 
     /**
-     * Get report path
+     * Print report size / generation time and append them to report-stats.csv,
+     * so runs with different screenshot.storage modes can be compared
+     */
+    private static void recordReportStats(long flushMillis) {
+        String mode = ConfigReader.getProperty("screenshot.storage", "embedded")
+            + "/" + ConfigReader.getProperty("screenshot.format", "png") + "/" + FORMAT;
+        long htmlBytes = sparkEnabled ? new File(reportPath).length() : 0;
+        if (pagedEnabled) {
+            try {
+                htmlBytes += PagedReportWriter.getSize(Paths.get(pagedPath));
+            } catch (IOException e) {
+                // Size only
+            }
+        }
+        // Screenshot files the report links to - not backups, bundles or screencasts
+        long screenshotBytes = ScreenshotWriter.getReferencedBytes();
+
+        System.out.println(String.format("📏 Report: %.1f KB HTML + %.1f KB screenshots, generated in %dms (%s)",
+            htmlBytes / 1024.0, screenshotBytes / 1024.0, flushMillis, mode));
+
+        File stats = new File(STATS_FILE);
+        boolean writeHeader = !stats.exists();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(stats, true))) {
+            if (writeHeader) {
+                writer.println("report,storage_mode,html_bytes,screenshot_bytes,flush_ms");
+            }
+            writer.println(new File(getReportPath()).getName() + "," + mode + "," + htmlBytes + ","
+                + screenshotBytes + "," + flushMillis);
+        } catch (IOException e) {
+            System.err.println("Failed to write report stats: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Directory the report lives in
+     */
+    public static String getReportDir() {
+        return REPORT_DIR;
+    }
+
+    /**
+     * Get report path (the paged shell when Spark is off)
      */
     public static String getReportPath() {
-        return reportPath;
+        return sparkEnabled ? reportPath : pagedPath;
     }
 }
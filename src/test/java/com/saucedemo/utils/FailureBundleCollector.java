@@ -0,0 +1,275 @@
+package com.saucedemo.utils;
+
+import com.aventstack.extentreports.Status;
+import com.saucedemo.config.ConfigReader;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Per-session console and network log, dumped only when a test fails
+ *
+ * Each session subscribes to DevTools events (Runtime.consoleAPICalled,
+ * Runtime.exceptionThrown, Network.*) - pushed by the browser, never polled.
+ * Events are kept as small entries in bounded RingBuffers; nothing is
+ * formatted or written while tests pass. On failure the buffers, the
+ * current DOM and the failure details are zipped into one bundle in the
+ * ArtifactStore and linked from the report.
+ *
+ * Browsers without a DevTools connection still get a bundle with the DOM.
+ */
+public class FailureBundleCollector {
+
+    private static final boolean ENABLED =
+        Boolean.parseBoolean(ConfigReader.getProperty("failure.bundle.enabled", "true"));
+    private static final int CONSOLE_MAX =
+        Integer.parseInt(ConfigReader.getProperty("failure.bundle.console.max", "500"));
+    private static final int NETWORK_MAX =
+        Integer.parseInt(ConfigReader.getProperty("failure.bundle.network.max", "1000"));
+    private static final long MAX_BYTES =
+        Long.parseLong(ConfigReader.getProperty("failure.bundle.max.kb", "1024")) * 1024;
+
+    private static final Map<WebDriver, Collector> collectors = new IdentityHashMap<>();
+
+    private static class Entry {
+        final long timestamp;
+        final String kind;
+        final String text;
+
+        Entry(String kind, String text) {
+            this.timestamp = System.currentTimeMillis();
+            this.kind = kind;
+            this.text = text;
+        }
+
+        long size() {
+            return 48L + (long) text.length() * 2;
+        }
+    }
+
+    private static class Collector {
+        final RingBuffer<Entry> console = new RingBuffer<>(CONSOLE_MAX, MAX_BYTES, Entry::size);
+        final RingBuffer<Entry> network = new RingBuffer<>(NETWORK_MAX, MAX_BYTES, Entry::size);
+        DevTools devTools;
+
+        void clear() {
+            console.clear();
+            network.clear();
+        }
+    }
+
+    /**
+     * Subscribe to the session's console and network events
+     */
+    public static void start(WebDriver webDriver) {
+        if (!ENABLED || webDriver == null) {
+            return;
+        }
+        Collector collector = new Collector();
+        synchronized (collectors) {
+            if (collectors.containsKey(webDriver)) {
+                return;
+            }
+            collectors.put(webDriver, collector);
+        }
+
+        if (!(webDriver instanceof HasDevTools)) {
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) webDriver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            subscribe(devTools, collector);
+            collector.devTools = devTools;
+        } catch (RuntimeException e) {
+            // No matching DevTools version - the bundle will only have the DOM
+            ConsoleSink.err("Console/network capture unavailable: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Unsubscribe and free the buffers (call before quitting the session)
+     */
+    public static void stop(WebDriver webDriver) {
+        Collector collector;
+        synchronized (collectors) {
+            collector = collectors.remove(webDriver);
+        }
+        if (collector == null) {
+            return;
+        }
+        collector.clear();
+        if (collector.devTools != null) {
+            try {
+                collector.devTools.clearListeners();
+            } catch (RuntimeException e) {
+                // Connection already closed
+            }
+        }
+    }
+
+    /**
+     * Forget everything captured so far - the test passed
+     */
+    public static void discard(WebDriver webDriver) {
+        Collector collector = collector(webDriver);
+        if (collector != null) {
+            collector.clear();
+        }
+    }
+
+    /**
+     * Write a bundle (DOM, console log, network log, failure details) in the
+     * background and link it from the report. Only the DOM is read on the
+     * calling thread, since it needs the driver.
+     */
+    public static void saveAsync(WebDriver webDriver, String name, Throwable failure, ReportHandle test) {
+        Collector collector = collector(webDriver);
+        if (collector == null) {
+            return;
+        }
+        List<Entry> console = collector.console.drain();
+        List<Entry> network = collector.network.drain();
+        String url = safely(webDriver::getCurrentUrl);
+        String dom = safely(webDriver::getPageSource);
+
+        ScreenshotWriter.submit(() -> {
+            try {
+                byte[] zip = zip(name, url, dom, console, network, failure);
+                Path stored = ArtifactStore.put(zip, "zip");
+                ConsoleSink.out("🧾 Failure bundle for " + name + ": " + stored);
+                if (test != null) {
+                    String link = Paths.get(ExtentReportManager.getReportDir()).toAbsolutePath()
+                        .relativize(stored.toAbsolutePath()).toString().replace('\\', '/');
+                    ReportQueue.log(test, Status.INFO, "🧾 <a href='" + link + "' target='_blank'>Failure bundle</a> (DOM, "
+                        + console.size() + " console messages, " + network.size() + " network events, "
+                        + zip.length / 1024 + " KB)");
+                }
+            } catch (IOException e) {
+                ConsoleSink.err("Failed to write failure bundle for " + name + ": " + e.getMessage());
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void subscribe(DevTools devTools, Collector collector) {
+        devTools.send(new Command<>("Runtime.enable", Collections.emptyMap()));
+        devTools.send(new Command<>("Network.enable", Collections.emptyMap()));
+
+        listen(devTools, "Runtime.consoleAPICalled", params -> {
+            StringBuilder text = new StringBuilder();
+            for (Object arg : (List<Object>) params.getOrDefault("args", Collections.emptyList())) {
+                Map<String, Object> value = (Map<String, Object>) arg;
+                Object shown = value.containsKey("value") ? value.get("value") : value.get("description");
+                text.append(text.length() > 0 ? " " : "").append(shown);
+            }
+            collector.console.add(new Entry(String.valueOf(params.get("type")).toUpperCase(), text.toString()));
+        });
+        listen(devTools, "Runtime.exceptionThrown", params -> {
+            Map<String, Object> details = (Map<String, Object>) params.get("exceptionDetails");
+            Map<String, Object> exception = (Map<String, Object>) details.get("exception");
+            Object text = exception != null && exception.get("description") != null
+                ? exception.get("description") : details.get("text");
+            collector.console.add(new Entry("EXCEPTION", String.valueOf(text)));
+        });
+        listen(devTools, "Network.requestWillBeSent", params -> {
+            Map<String, Object> request = (Map<String, Object>) params.get("request");
+            collector.network.add(new Entry("REQUEST", params.get("requestId") + " "
+                + request.get("method") + " " + request.get("url")));
+        });
+        listen(devTools, "Network.responseReceived", params -> {
+            Map<String, Object> response = (Map<String, Object>) params.get("response");
+            collector.network.add(new Entry("RESPONSE", params.get("requestId") + " "
+                + response.get("status") + " " + response.get("mimeType") + " " + response.get("url")));
+        });
+        listen(devTools, "Network.loadingFailed", params ->
+            collector.network.add(new Entry("FAILED", params.get("requestId") + " " + params.get("errorText"))));
+    }
+
+    private static void listen(DevTools devTools, String method, Consumer<Map<String, Object>> handler) {
+        devTools.addListener(new Event<Map<String, Object>>(method, input -> input.read(Json.MAP_TYPE)), params -> {
+            try {
+                handler.accept(params);
+            } catch (RuntimeException e) {
+                // Unexpected event shape - never let it break the DevTools connection
+            }
+        });
+    }
+
+    private static byte[] zip(String name, String url, String dom, List<Entry> console, List<Entry> network,
+                              Throwable failure) throws IOException {
+        StringBuilder details = new StringBuilder();
+        details.append("Test: ").append(name).append('\n');
+        details.append("URL: ").append(url).append('\n');
+        details.append("Captured: ").append(new Date()).append("\n\n");
+        if (failure != null) {
+            StringWriter trace = new StringWriter();
+            failure.printStackTrace(new PrintWriter(trace));
+            details.append(trace);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            addEntry(zip, "failure.txt", details.toString());
+            addEntry(zip, "dom.html", dom);
+            addEntry(zip, "console.log", format(console));
+            addEntry(zip, "network.log", format(network));
+        }
+        return out.toByteArray();
+    }
+
+    private static void addEntry(ZipOutputStream zip, String fileName, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(fileName));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static String format(List<Entry> entries) {
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS");
+        StringBuilder text = new StringBuilder();
+        for (Entry entry : entries) {
+            text.append(time.format(new Date(entry.timestamp))).append(' ')
+                .append(String.format("%-9s", entry.kind)).append(' ')
+                .append(entry.text).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static String safely(Supplier<String> read) {
+        try {
+            return read.get();
+        } catch (RuntimeException e) {
+            return "(unavailable: " + e.getMessage() + ")";
+        }
+    }
+
+    private static Collector collector(WebDriver webDriver) {
+        if (webDriver == null) {
+            return null;
+        }
+        synchronized (collectors) {
+            return collectors.get(webDriver);
+        }
+    }
+}
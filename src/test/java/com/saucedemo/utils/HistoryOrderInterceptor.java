@@ -0,0 +1,88 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigReader;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orders tests using the ResultStore history (history.order)
+ *
+ * - failures-first: tests that failed last time, then the flakiest, then
+ *   the slowest - a broken build shows up in the first minutes
+ * - slowest-first: by p95 duration, so the long tests start while the
+ *   parallel slots are all free and the run finishes sooner
+ * - none: TestNG's order
+ *
+ * Tests stay grouped by class (classes are ordered by their first test);
+ * tests without history go first, they may be new or slow.
+ */
+public class HistoryOrderInterceptor implements IMethodInterceptor {
+
+    private static final String ORDER = ConfigReader.getProperty("history.order", "failures-first").trim();
+
+    /**
+     * Store key of a test method: "CartTest#testCheckout"
+     */
+    public static String testKey(ITestNGMethod method) {
+        return method.getRealClass().getSimpleName() + "#" + method.getMethodName();
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ResultStore.isEnabled() || ORDER.equalsIgnoreCase("none") || methods.size() < 2) {
+            return methods;
+        }
+        String browser = context.getCurrentXmlTest().getParameter("browser");
+        Comparator<ResultStore.TestStats> order = comparator();
+        if (order == null) {
+            ConsoleSink.err("⚠️ Unknown history.order '" + ORDER + "', keeping TestNG order");
+            return methods;
+        }
+        Map<IMethodInstance, ResultStore.TestStats> stats = new IdentityHashMap<>();
+        for (IMethodInstance method : methods) {
+            String test = testKey(method.getMethod());
+            stats.put(method, browser != null ? ResultStore.stats(test, browser) : ResultStore.stats(test));
+        }
+        Comparator<IMethodInstance> byHistory = Comparator.comparing(stats::get, Comparator.nullsFirst(order));
+
+        Map<Class<?>, List<IMethodInstance>> byClass = new LinkedHashMap<>();
+        for (IMethodInstance method : methods) {
+            byClass.computeIfAbsent(method.getMethod().getRealClass(), c -> new ArrayList<>()).add(method);
+        }
+        List<List<IMethodInstance>> classes = new ArrayList<>(byClass.values());
+        for (List<IMethodInstance> classMethods : classes) {
+            classMethods.sort(byHistory);
+        }
+        classes.sort((a, b) -> byHistory.compare(a.get(0), b.get(0)));
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        classes.forEach(ordered::addAll);
+        ConsoleSink.out("🧭 Test order from history (" + ORDER + "): " + ordered.stream()
+            .map(m -> testKey(m.getMethod()))
+            .reduce((a, b) -> a + ", " + b).orElse(""));
+        return ordered;
+    }
+
+    private static Comparator<ResultStore.TestStats> comparator() {
+        Comparator<ResultStore.TestStats> slowest =
+            Comparator.comparingLong(ResultStore.TestStats::getP95).reversed();
+        if (ORDER.equalsIgnoreCase("slowest-first")) {
+            return slowest;
+        }
+        if (ORDER.equalsIgnoreCase("failures-first")) {
+            return Comparator.comparing((ResultStore.TestStats s) -> !"failed".equals(s.getLastStatus()))
+                .thenComparing(Comparator.comparingDouble(ResultStore.TestStats::getFlakeRate).reversed())
+                .thenComparing(slowest);
+        }
+        return null;
+    }
+}
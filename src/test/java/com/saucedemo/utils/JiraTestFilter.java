@@ -30,10 +30,10 @@ public class JiraTestFilter implements IMethodInterceptor {
                 }
             }
             filterEnabled = true;
-            System.out.println("Loaded " + jiraKeys.size() + " Jira keys from file: " + filePath);
-            System.out.println("Keys: " + jiraKeys);
+            ConsoleSink.out("Loaded " + jiraKeys.size() + " Jira keys from file: " + filePath);
+            ConsoleSink.out("Keys: " + jiraKeys);
         } catch (IOException e) {
-            System.err.println("Error reading Jira keys file: " + e.getMessage());
+            ConsoleSink.err("Error reading Jira keys file: " + e.getMessage());
             filterEnabled = false;
         }
     }
@@ -46,19 +46,19 @@ public class JiraTestFilter implements IMethodInterceptor {
             }
         }
         filterEnabled = !jiraKeys.isEmpty();
-        System.out.println("Set Jira keys filter: " + jiraKeys);
+        ConsoleSink.out("Set Jira keys filter: " + jiraKeys);
     }
 
     public static void clearFilter() {
         jiraKeys.clear();
         filterEnabled = false;
-        System.out.println("Jira filter cleared - all tests will run");
+        ConsoleSink.out("Jira filter cleared - all tests will run");
     }
 
     @Override
     public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
         if (!filterEnabled || jiraKeys.isEmpty()) {
-            System.out.println("No Jira filter applied - running all tests");
+            ConsoleSink.out("No Jira filter applied - running all tests");
             return methods;
         }
 
@@ -72,16 +72,16 @@ public class JiraTestFilter implements IMethodInterceptor {
                 String testKey = annotation.key().toUpperCase();
                 if (jiraKeys.contains(testKey)) {
                     filteredMethods.add(method);
-                    System.out.println("✓ Including test: " + testMethod.getName() + " [" + annotation.key() + "]");
+                    ConsoleSink.out("✓ Including test: " + testMethod.getName() + " [" + annotation.key() + "]");
                 } else {
-                    System.out.println("✗ Excluding test: " + testMethod.getName() + " [" + annotation.key() + "]");
+                    ConsoleSink.out("✗ Excluding test: " + testMethod.getName() + " [" + annotation.key() + "]");
                 }
             } else {
-                System.out.println("✗ Excluding test without @JiraTest: " + testMethod.getName());
+                ConsoleSink.out("✗ Excluding test without @JiraTest: " + testMethod.getName());
             }
         }
 
-        System.out.println("\nFiltered: " + filteredMethods.size() + " tests out of " + methods.size());
+        ConsoleSink.out("\nFiltered: " + filteredMethods.size() + " tests out of " + methods.size());
         return filteredMethods;
     }
 }
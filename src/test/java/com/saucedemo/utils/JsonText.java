@@ -0,0 +1,48 @@
+package com.saucedemo.utils;
+
+/**
+ * Hand-written JSON for hot paths (report chunks, trace events), where a
+ * Selenium JsonOutput per record costs more than the record itself
+ */
+final class JsonText {
+
+    private JsonText() {
+    }
+
+    /**
+     * Append text as a JSON string literal
+     */
+    static StringBuilder quote(StringBuilder json, String text) {
+        if (text == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"');
+    }
+}
@@ -0,0 +1,188 @@
+package com.saucedemo.utils;
+
+import com.aventstack.extentreports.markuputils.ExtentColor;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.saucedemo.config.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-step latency of the latency scenario suite, per user
+ *
+ * Each journey step (action until the next page is displayed) is recorded
+ * for its user; at the end of the suite every step gets p50/p90/max per
+ * user and the delta of each user against valid.username (standard_user)
+ * with a one-sided Mann-Whitney p-value. Steps whose slowest run used more
+ * than latency.headroom.warn of explicit.wait are flagged - that wait is
+ * what tolerates the slow user.
+ *
+ * Samples also go to ResultStore timings as "&lt;user&gt;/&lt;step&gt;", so
+ * RegressionDetector follows them across runs.
+ */
+public class LatencyRecorder {
+
+    private static final double HEADROOM_WARN =
+        Double.parseDouble(ConfigReader.getProperty("latency.headroom.warn", "0.5"));
+
+    // user -> step -> samples (ms), in recording order
+    private static final Map<String, Map<String, List<Long>>> samples = new LinkedHashMap<>();
+
+    /**
+     * One step of one journey
+     */
+    public static void record(String user, String step, long millis) {
+        synchronized (samples) {
+            samples.computeIfAbsent(user, u -> new LinkedHashMap<>())
+                .computeIfAbsent(step, s -> new ArrayList<>())
+                .add(millis);
+        }
+        TestLogger.logDuration(step + " as " + user, millis);
+        String browser = DriverFactory.getBrowser();
+        ResultStore.recordTiming(user + "/" + step, browser != null ? browser : "unknown", millis);
+    }
+
+    /**
+     * Per-step distribution and delta rows: a header, then one row per step
+     * and user
+     */
+    private static List<String[]> rows() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Step", "User", "Runs", "p50", "p90", "Max", "Δ p50 vs baseline", "p (slower)"});
+        synchronized (samples) {
+            if (samples.isEmpty()) {
+                return rows;
+            }
+            Map<String, List<Long>> baseline = samples.get(ConfigReader.getValidUsername());
+            if (baseline == null) {
+                baseline = samples.values().iterator().next();
+            }
+            // Baseline user first
+            List<Map.Entry<String, Map<String, List<Long>>>> users = new ArrayList<>(samples.entrySet());
+            Map<String, List<Long>> first = baseline;
+            users.sort(Comparator.comparing(user -> user.getValue() != first));
+            List<String> steps = new ArrayList<>();
+            for (Map<String, List<Long>> perUser : samples.values()) {
+                for (String step : perUser.keySet()) {
+                    if (!steps.contains(step)) {
+                        steps.add(step);
+                    }
+                }
+            }
+            for (String step : steps) {
+                long[] base = sorted(baseline.get(step));
+                for (Map.Entry<String, Map<String, List<Long>>> user : users) {
+                    long[] values = sorted(user.getValue().get(step));
+                    if (values.length == 0) {
+                        continue;
+                    }
+                    String delta = "-";
+                    String p = "-";
+                    if (user.getValue() != baseline && base.length > 0) {
+                        long p50 = percentile(values, 50);
+                        long baseP50 = percentile(base, 50);
+                        delta = String.format("%+dms (x%.1f)", p50 - baseP50, baseP50 > 0 ? (double) p50 / baseP50 : 0);
+                        double pValue = RegressionDetector.mannWhitneyGreater(values, base);
+                        p = pValue < 0.0001 ? "<0.0001" : String.format("%.4f", pValue);
+                    }
+                    rows.add(new String[]{step, user.getKey(), String.valueOf(values.length),
+                        percentile(values, 50) + "ms", percentile(values, 90) + "ms",
+                        values[values.length - 1] + "ms", delta, p});
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Steps whose slowest run came close to explicit.wait
+     */
+    private static List<String> tightWaits() {
+        long waitMillis = ConfigReader.getExplicitWait() * 1000L;
+        List<String> tight = new ArrayList<>();
+        synchronized (samples) {
+            for (Map.Entry<String, Map<String, List<Long>>> user : samples.entrySet()) {
+                for (Map.Entry<String, List<Long>> step : user.getValue().entrySet()) {
+                    long max = Collections.max(step.getValue());
+                    if (max > waitMillis * HEADROOM_WARN) {
+                        tight.add(step.getKey() + " as " + user.getKey() + ": slowest " + max + "ms of a "
+                            + waitMillis + "ms wait");
+                    }
+                }
+            }
+        }
+        return tight;
+    }
+
+    /**
+     * Print the per-step table (end of the suite)
+     */
+    public static void printSummary() {
+        List<String[]> rows = rows();
+        if (rows.size() < 2) {
+            return;
+        }
+        System.out.println("\n╔═══════════════════════════════════════════════════════════╗");
+        System.out.println("║  ⏱️  Latency Scenario - per-step latency by user           ║");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+        for (String[] row : rows) {
+            System.out.println(String.format("   %-14s %-24s %5s %9s %9s %9s %20s %10s", (Object[]) row));
+        }
+        List<String> tight = tightWaits();
+        if (tight.isEmpty()) {
+            System.out.println("   ✅ Every step finished within " + Math.round(HEADROOM_WARN * 100)
+                + "% of explicit.wait");
+        } else {
+            tight.forEach(t -> System.out.println("   ⚠️ Tight wait - " + t));
+        }
+    }
+
+    /**
+     * Latency section of the report (call before the report is flushed)
+     */
+    public static void report() {
+        List<String[]> rows = rows();
+        if (rows.size() < 2) {
+            return;
+        }
+        String title = "⏱️ Latency scenario";
+        String description = "Per-step latency by user; delta and Mann-Whitney p against the baseline user";
+        String table = "<b>Per-step latency</b>" + MarkupHelper.createTable(rows.toArray(new String[0][])).getMarkup();
+        List<String> tight = tightWaits();
+        if (tight.isEmpty()) {
+            ExtentReportManager.addSection(title, description, table,
+                MarkupHelper.createLabel("Every step finished well within explicit.wait", ExtentColor.GREEN)
+                    .getMarkup());
+            return;
+        }
+        StringBuilder list = new StringBuilder("<b>Tight waits</b><ul>");
+        for (String step : tight) {
+            list.append("<li>").append(step).append("</li>");
+        }
+        ExtentReportManager.addSection(title, description, table,
+            MarkupHelper.createLabel(tight.size() + " step(s) close to explicit.wait", ExtentColor.ORANGE).getMarkup(),
+            list.append("</ul>").toString());
+    }
+
+    private static long[] sorted(List<Long> values) {
+        if (values == null) {
+            return new long[0];
+        }
+        long[] sorted = values.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values
+     */
+    private static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
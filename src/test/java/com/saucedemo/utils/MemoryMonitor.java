@@ -0,0 +1,180 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Samples system memory (/proc/meminfo) and the resident memory of browser
+ * and driver processes started by this JVM (/proc/&lt;pid&gt;/status)
+ *
+ * Used by DriverFactory to hold back new sessions while the machine is
+ * short on memory. On systems without /proc every sample returns -1 and
+ * sessions are never held back.
+ */
+public class MemoryMonitor {
+
+    private static final Path MEMINFO = Paths.get("/proc/meminfo");
+
+    private static final long MIN_AVAILABLE_MB =
+        Long.parseLong(ConfigReader.getProperty("memory.min.available.mb", "1024"));
+    private static final long POLL_MILLIS =
+        Long.parseLong(ConfigReader.getProperty("memory.poll.ms", "1000"));
+    private static final long MAX_WAIT_MILLIS =
+        Long.parseLong(ConfigReader.getProperty("memory.max.wait.seconds", "120")) * 1000;
+
+    /**
+     * Available system memory in MB, or -1 if unknown
+     */
+    public static long availableMemoryMb() {
+        try {
+            long free = -1;
+            long cached = 0;
+            for (String line : Files.readAllLines(MEMINFO, StandardCharsets.UTF_8)) {
+                if (line.startsWith("MemAvailable:")) {
+                    return parseKb(line) / 1024;
+                }
+                if (line.startsWith("MemFree:")) {
+                    free = parseKb(line);
+                } else if (line.startsWith("Cached:")) {
+                    cached = parseKb(line);
+                }
+            }
+            // Old kernels without MemAvailable
+            return free < 0 ? -1 : (free + cached) / 1024;
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Resident memory (MB) of browser/driver processes started by this JVM,
+     * grouped by process family (chrome, firefox, chromedriver, geckodriver)
+     */
+    public static Map<String, Long> browserRssMb() {
+        Map<String, Long> rss = new TreeMap<>();
+        ProcessHandle.current().descendants().forEach(process -> {
+            String family = processFamily(process);
+            if (family != null) {
+                long kb = readRssKb(process.pid());
+                if (kb > 0) {
+                    rss.merge(family, kb / 1024, Long::sum);
+                }
+            }
+        });
+        return rss;
+    }
+
+    /**
+     * Block while available memory is below memory.min.available.mb and other
+     * sessions are still running (they will free memory when they quit).
+     * Idle warm sessions (watch mode) are not counted as running but still
+     * hold memory, so they are quit first. Gives up after
+     * memory.max.wait.seconds so a run can never hang.
+     */
+    public static void awaitMemory(String browser, int liveSessions) {
+        long available = availableMemoryMb();
+        if (available >= 0 && available < MIN_AVAILABLE_MB) {
+            available = closeIdleSessions(browser, available);
+        }
+        if (available < 0 || available >= MIN_AVAILABLE_MB || liveSessions == 0) {
+            SessionTimeline.record("ADMIT", browser, liveSessions, available, browserRssMb());
+            return;
+        }
+
+        SessionTimeline.record("HOLD", browser, liveSessions, available, browserRssMb());
+        ConsoleSink.out("  🧠 Holding new " + browser + " session - " + available
+            + "MB available (< " + MIN_AVAILABLE_MB + "MB), " + liveSessions + " live sessions");
+
+        long deadline = System.currentTimeMillis() + MAX_WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for free memory", e);
+            }
+
+            available = availableMemoryMb();
+            if (available < MIN_AVAILABLE_MB) {
+                // Sessions finishing meanwhile may have been parked instead of quit
+                available = closeIdleSessions(browser, available);
+            }
+            liveSessions = DriverFactory.getLiveSessionCount();
+            if (available >= MIN_AVAILABLE_MB || liveSessions == 0) {
+                SessionTimeline.record("RELEASE", browser, liveSessions, available, browserRssMb());
+                return;
+            }
+        }
+
+        SessionTimeline.record("TIMEOUT", browser, DriverFactory.getLiveSessionCount(),
+            availableMemoryMb(), browserRssMb());
+        ConsoleSink.out("  ⚠️  Memory still low after " + MAX_WAIT_MILLIS / 1000
+            + "s - starting " + browser + " session anyway");
+    }
+
+    /**
+     * Quit idle warm sessions
+     * @return available memory afterwards (unchanged if there were none)
+     */
+    private static long closeIdleSessions(String browser, long available) {
+        int closed = DriverFactory.closeIdleSessions();
+        if (closed == 0) {
+            return available;
+        }
+        ConsoleSink.out("  🧠 Quit " + closed + " idle warm session(s) before starting " + browser + " - "
+            + available + "MB available (< " + MIN_AVAILABLE_MB + "MB)");
+        SessionTimeline.record("EVICT_IDLE", browser, DriverFactory.getLiveSessionCount(), available,
+            browserRssMb());
+        return availableMemoryMb();
+    }
+
+    static String processFamily(ProcessHandle process) {
+        Optional<String> command = process.info().command();
+        if (!command.isPresent()) {
+            return null;
+        }
+        String name = Paths.get(command.get()).getFileName().toString().toLowerCase();
+        if (name.contains("chromedriver")) {
+            return "chromedriver";
+        }
+        if (name.contains("geckodriver")) {
+            return "geckodriver";
+        }
+        if (name.contains("chrome") || name.contains("chromium")) {
+            return "chrome";
+        }
+        if (name.contains("firefox")) {
+            return "firefox";
+        }
+        return null;
+    }
+
+    private static long readRssKb(long pid) {
+        try {
+            List<String> lines = Files.readAllLines(Paths.get("/proc", String.valueOf(pid), "status"),
+                StandardCharsets.UTF_8);
+            for (String line : lines) {
+                if (line.startsWith("VmRSS:")) {
+                    return parseKb(line);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Process exited between listing and reading
+        }
+        return 0;
+    }
+
+    private static long parseKb(String line) {
+        String[] parts = line.trim().split("\\s+");
+        return Long.parseLong(parts[1]);
+    }
+}
@@ -0,0 +1,59 @@
+package com.saucedemo.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Destination for OTLP/JSON export requests (written by OtlpJson for Telemetry)
+ *
+ * signal is "traces" or "metrics"; json is one ExportTraceServiceRequest /
+ * ExportMetricsServiceRequest.
+ */
+public interface OtlpExporter {
+
+    void export(String signal, String json) throws IOException;
+
+    /**
+     * Collector stand-in: one request per line in dir/&lt;signal&gt;.jsonl
+     * (the layout of the OpenTelemetry Collector file exporter)
+     */
+    static OtlpExporter file(Path dir) {
+        return (signal, json) -> {
+            Files.createDirectories(dir);
+            synchronized (OtlpExporter.class) {
+                Files.write(dir.resolve(signal + ".jsonl"), (json + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        };
+    }
+
+    /**
+     * OTLP/HTTP with JSON encoding: POST endpoint/v1/&lt;signal&gt;
+     * (e.g. http://localhost:4318)
+     */
+    static OtlpExporter http(String endpoint) {
+        String base = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        return (signal, json) -> {
+            HttpURLConnection connection = (HttpURLConnection) new URL(base + "/v1/" + signal).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(5000);
+            connection.setReadTimeout(5000);
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+            int code = connection.getResponseCode();
+            connection.disconnect();
+            if (code / 100 != 2) {
+                throw new IOException("HTTP " + code + " from " + base + "/v1/" + signal);
+            }
+        };
+    }
+}
@@ -0,0 +1,271 @@
+package com.saucedemo.utils;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricDataType;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OpenTelemetry SDK exporters writing OTLP/JSON export requests to
+ * OtlpExporter destinations (the SDK only ships OTLP exporters as a separate
+ * artifact, and those speak protobuf or need OkHttp)
+ */
+final class OtlpJson {
+
+    private static final AtomicLong reportedFailures = new AtomicLong();
+
+    private OtlpJson() {
+    }
+
+    /**
+     * Spans as ExportTraceServiceRequest, one request per batch
+     */
+    static final class Spans implements SpanExporter {
+        private final List<OtlpExporter> destinations;
+        private final AtomicLong exported = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        Spans(List<OtlpExporter> destinations) {
+            this.destinations = destinations;
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            if (spans.isEmpty()) {
+                return CompletableResultCode.ofSuccess();
+            }
+            Map<InstrumentationScopeInfo, List<SpanData>> byScope = new LinkedHashMap<>();
+            for (SpanData span : spans) {
+                byScope.computeIfAbsent(span.getInstrumentationScopeInfo(), k -> new ArrayList<>()).add(span);
+            }
+
+            StringBuilder json = new StringBuilder(spans.size() * 400);
+            json.append("{\"resourceSpans\":[{\"resource\":");
+            appendResource(json, spans.iterator().next().getResource());
+            json.append(",\"scopeSpans\":[");
+            boolean firstScope = true;
+            for (Map.Entry<InstrumentationScopeInfo, List<SpanData>> scope : byScope.entrySet()) {
+                json.append(firstScope ? "{\"scope\":{\"name\":" : ",{\"scope\":{\"name\":");
+                JsonText.quote(json, scope.getKey().getName()).append("},\"spans\":[");
+                for (int i = 0; i < scope.getValue().size(); i++) {
+                    appendSpan(i > 0 ? json.append(',') : json, scope.getValue().get(i));
+                }
+                json.append("]}");
+                firstScope = false;
+            }
+            json.append("]}]}");
+
+            if (!send(destinations, "traces", json.toString())) {
+                failures.incrementAndGet();
+                return CompletableResultCode.ofFailure();
+            }
+            exported.addAndGet(spans.size());
+            return CompletableResultCode.ofSuccess();
+        }
+
+        private static void appendSpan(StringBuilder json, SpanData span) {
+            json.append("{\"traceId\":\"").append(span.getTraceId())
+                .append("\",\"spanId\":\"").append(span.getSpanId())
+                .append("\",\"parentSpanId\":\"")
+                .append(span.getParentSpanContext().isValid() ? span.getParentSpanId() : "")
+                .append("\",\"name\":");
+            JsonText.quote(json, span.getName());
+            // OTLP SpanKind: 1 = INTERNAL ... 5 = CONSUMER, in the order of the API enum
+            json.append(",\"kind\":").append(span.getKind().ordinal() + 1)
+                .append(",\"startTimeUnixNano\":\"").append(span.getStartEpochNanos())
+                .append("\",\"endTimeUnixNano\":\"").append(span.getEndEpochNanos()).append("\",\"attributes\":");
+            appendAttributes(json, span.getAttributes());
+            // OTLP StatusCode: 0 = UNSET, 1 = OK, 2 = ERROR, in the order of the API enum
+            json.append(",\"status\":{\"code\":").append(span.getStatus().getStatusCode().ordinal());
+            if (!span.getStatus().getDescription().isEmpty()) {
+                JsonText.quote(json.append(",\"message\":"), span.getStatus().getDescription());
+            }
+            json.append("}}");
+        }
+
+        long getExported() {
+            return exported.get();
+        }
+
+        long getFailures() {
+            return failures.get();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    /**
+     * Cumulative histograms as ExportMetricsServiceRequest, one request per
+     * collection
+     */
+    static final class Metrics implements MetricExporter {
+        private final List<OtlpExporter> destinations;
+        private final AtomicLong series = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        Metrics(List<OtlpExporter> destinations) {
+            this.destinations = destinations;
+        }
+
+        @Override
+        public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+            return AggregationTemporality.CUMULATIVE;
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<MetricData> metrics) {
+            if (metrics.isEmpty()) {
+                return CompletableResultCode.ofSuccess();
+            }
+            StringBuilder json = new StringBuilder(4096);
+            json.append("{\"resourceMetrics\":[{\"resource\":");
+            appendResource(json, metrics.iterator().next().getResource());
+            json.append(",\"scopeMetrics\":[{\"scope\":{\"name\":");
+            JsonText.quote(json, metrics.iterator().next().getInstrumentationScopeInfo().getName())
+                .append("},\"metrics\":[");
+            long points = 0;
+            boolean firstMetric = true;
+            for (MetricData metric : metrics) {
+                if (metric.getType() != MetricDataType.HISTOGRAM) {
+                    // Telemetry only records histograms
+                    continue;
+                }
+                json.append(firstMetric ? "{\"name\":" : ",{\"name\":");
+                JsonText.quote(json, metric.getName()).append(",\"unit\":");
+                // 2 = AGGREGATION_TEMPORALITY_CUMULATIVE
+                JsonText.quote(json, metric.getUnit())
+                    .append(",\"histogram\":{\"aggregationTemporality\":2,\"dataPoints\":[");
+                boolean firstPoint = true;
+                for (HistogramPointData point : metric.getHistogramData().getPoints()) {
+                    appendPoint(firstPoint ? json : json.append(','), point);
+                    firstPoint = false;
+                    points++;
+                }
+                json.append("]}}");
+                firstMetric = false;
+            }
+            json.append("]}]}]}");
+
+            if (!send(destinations, "metrics", json.toString())) {
+                failures.incrementAndGet();
+                return CompletableResultCode.ofFailure();
+            }
+            series.set(points);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        private static void appendPoint(StringBuilder json, HistogramPointData point) {
+            json.append("{\"attributes\":");
+            appendAttributes(json, point.getAttributes());
+            json.append(",\"startTimeUnixNano\":\"").append(point.getStartEpochNanos())
+                .append("\",\"timeUnixNano\":\"").append(point.getEpochNanos())
+                .append("\",\"count\":\"").append(point.getCount()).append("\",\"sum\":").append(point.getSum());
+            if (point.hasMin()) {
+                json.append(",\"min\":").append(point.getMin());
+            }
+            if (point.hasMax()) {
+                json.append(",\"max\":").append(point.getMax());
+            }
+            json.append(",\"bucketCounts\":[");
+            for (int i = 0; i < point.getCounts().size(); i++) {
+                json.append(i > 0 ? ",\"" : "\"").append(point.getCounts().get(i)).append('"');
+            }
+            json.append("],\"explicitBounds\":[");
+            for (int i = 0; i < point.getBoundaries().size(); i++) {
+                json.append(i > 0 ? "," : "").append(point.getBoundaries().get(i));
+            }
+            json.append("]}");
+        }
+
+        /**
+         * Series in the last exported collection
+         */
+        long getSeries() {
+            return series.get();
+        }
+
+        long getFailures() {
+            return failures.get();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    private static boolean send(List<OtlpExporter> destinations, String signal, String json) {
+        boolean sent = true;
+        for (OtlpExporter destination : destinations) {
+            try {
+                destination.export(signal, json);
+            } catch (IOException | RuntimeException e) {
+                if (reportedFailures.incrementAndGet() == 1) {
+                    ConsoleSink.err("⚠️ Telemetry export failed (" + signal + "): " + e.getMessage());
+                }
+                sent = false;
+            }
+        }
+        return sent;
+    }
+
+    private static void appendResource(StringBuilder json, Resource resource) {
+        json.append("{\"attributes\":");
+        appendAttributes(json, resource.getAttributes());
+        json.append('}');
+    }
+
+    private static void appendAttributes(StringBuilder json, Attributes attributes) {
+        json.append('[');
+        boolean[] first = {true};
+        attributes.forEach((key, value) -> {
+            json.append(first[0] ? "{\"key\":" : ",{\"key\":");
+            JsonText.quote(json, key.getKey()).append(",\"value\":{");
+            switch (key.getType()) {
+                case BOOLEAN:
+                    json.append("\"boolValue\":").append(value);
+                    break;
+                case LONG:
+                    json.append("\"intValue\":\"").append(value).append('"');
+                    break;
+                case DOUBLE:
+                    json.append("\"doubleValue\":").append(value);
+                    break;
+                default:
+                    JsonText.quote(json.append("\"stringValue\":"), String.valueOf(value));
+            }
+            json.append("}}");
+            first[0] = false;
+        });
+        json.append(']');
+    }
+}
@@ -0,0 +1,467 @@
+package com.saucedemo.utils;
+
+import com.aventstack.extentreports.markuputils.ExtentColor;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.saucedemo.config.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Browser-side performance of each page a test reaches
+ *
+ * When a page object sees its page displayed, one executeAsyncScript call
+ * returns everything the browser knows about it:
+ * - navigation timing (ttfb, dcl, load) and paint timing (fp, fcp)
+ * - LCP and CLS (largest session window) from a PerformanceObserver with
+ *   buffered entries - where the browser supports those entry types
+ * - resource timing: count, transfer size and the slowest resources
+ *
+ * saucedemo is a single-page app: only the first page of a document is a
+ * "hard" navigation with navigation, paint and LCP timings of its own. Later
+ * pages are "soft": resources and layout shifts since the previous capture.
+ *
+ * Captures are stored per page per test in perf.dir/page-perf.jsonl and
+ * logged to the test; captures made in @BeforeMethod belong to the test
+ * that follows. Budgets are perf.budget.&lt;page&gt;.&lt;metric&gt;, falling back
+ * to perf.budget.&lt;metric&gt; (empty = none); violations are logged as
+ * warnings, summarised at the end of the suite and in the report.
+ */
+public class PagePerformance {
+
+    public static final String LOGIN = "login";
+    public static final String INVENTORY = "inventory";
+    public static final String CART = "cart";
+    public static final String CHECKOUT_STEP_ONE = "checkout-step-one";
+    public static final String CHECKOUT_STEP_TWO = "checkout-step-two";
+    public static final String CHECKOUT_COMPLETE = "checkout-complete";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(ConfigReader.getProperty("perf.enabled", "true"));
+    private static final Path FILE =
+        Paths.get(ConfigReader.getProperty("perf.dir", "test-output/perf/"), "page-perf.jsonl");
+
+    // ms, except cls (unitless), resources (count) and transfer.kb
+    private static final List<String> METRICS =
+        Arrays.asList("ttfb", "dcl", "load", "fp", "fcp", "lcp", "cls", "resources", "transfer.kb");
+
+    /**
+     * arguments: timeOrigin and performance.now() of the previous capture
+     * on this thread. Resolves after the next frame, so the page's own paint
+     * and layout shift entries are in.
+     */
+    private static final String SCRIPT = String.join("\n",
+        "var lastOrigin = arguments[0], lastNow = arguments[1], done = arguments[arguments.length - 1];",
+        "var hard = performance.timeOrigin !== lastOrigin, since = hard ? 0 : lastNow;",
+        "var types = (window.PerformanceObserver && PerformanceObserver.supportedEntryTypes) || [];",
+        "function observe(type) {",
+        "  if (types.indexOf(type) < 0) { return null; }",
+        "  var entries = [];",
+        "  try {",
+        "    var o = new PerformanceObserver(function (list) { entries.push.apply(entries, list.getEntries()); });",
+        "    o.observe({type: type, buffered: true});",
+        "    return {entries: entries, observer: o};",
+        "  } catch (e) { return null; }",
+        "}",
+        "function take(o) {",
+        "  if (!o) { return []; }",
+        "  o.entries.push.apply(o.entries, o.observer.takeRecords());",
+        "  o.observer.disconnect();",
+        "  return o.entries;",
+        "}",
+        "var lcpObserver = observe('largest-contentful-paint'), clsObserver = observe('layout-shift');",
+        "var finished = false;",
+        "function collect() {",
+        "  if (finished) { return; }",
+        "  finished = true;",
+        "  var r = {hard: hard, timeOrigin: performance.timeOrigin, now: performance.now(), url: location.pathname};",
+        "  var lcp = take(lcpObserver), shifts = take(clsObserver);",
+        "  if (hard) {",
+        "    var nav = performance.getEntriesByType('navigation')[0];",
+        "    if (nav) { r.ttfb = nav.responseStart; r.dcl = nav.domContentLoadedEventEnd; r.load = nav.loadEventEnd; }",
+        "    performance.getEntriesByType('paint').forEach(function (p) {",
+        "      r[p.name === 'first-contentful-paint' ? 'fcp' : 'fp'] = p.startTime;",
+        "    });",
+        "    if (lcp.length) {",
+        "      var last = lcp[lcp.length - 1], el = last.element;",
+        "      r.lcp = last.startTime;",
+        "      r.lcpElement = el ? el.tagName.toLowerCase() + (el.id ? '#' + el.id : '') : (last.url || '');",
+        "    }",
+        "  }",
+        "  if (clsObserver) {",
+        "    var cls = 0, session = 0, first = 0, previous = 0;",
+        "    shifts.forEach(function (s) {",
+        "      if (s.hadRecentInput || s.startTime < since) { return; }",
+        "      if (session && s.startTime - previous < 1000 && s.startTime - first < 5000) { session += s.value; }",
+        "      else { session = s.value; first = s.startTime; }",
+        "      previous = s.startTime;",
+        "      cls = Math.max(cls, session);",
+        "    });",
+        "    r.cls = cls;",
+        "  }",
+        "  var resources = performance.getEntriesByType('resource').filter(function (e) { return e.startTime >= since; });",
+        "  r.resources = resources.length;",
+        "  r.transfer = resources.reduce(function (sum, e) { return sum + (e.transferSize || 0); }, 0);",
+        "  r.slowest = resources.sort(function (a, b) { return b.duration - a.duration; }).slice(0, 3).map(function (e) {",
+        "    return {name: e.name.split('?')[0].split('/').pop() || e.name, type: e.initiatorType, duration: e.duration};",
+        "  });",
+        "  done(r);",
+        "}",
+        "requestAnimationFrame(function () { setTimeout(collect, 0); });",
+        "setTimeout(collect, 250);");
+
+    /**
+     * One page reached by one test
+     */
+    private static final class Capture {
+        private final String page;
+        private final String url;
+        private final boolean hard;
+        private final Map<String, Double> metrics;
+        private final String lcpElement;
+        private final List<String> slowest;
+        private final List<String> violations;
+
+        Capture(String page, String url, boolean hard, Map<String, Double> metrics, String lcpElement,
+                List<String> slowest, List<String> violations) {
+            this.page = page;
+            this.url = url;
+            this.hard = hard;
+            this.metrics = metrics;
+            this.lcpElement = lcpElement;
+            this.slowest = slowest;
+            this.violations = violations;
+        }
+    }
+
+    /**
+     * Document seen by the previous capture, captures waiting for their
+     * test (made in @BeforeMethod) and time spent capturing
+     */
+    private static final class ThreadState {
+        private double timeOrigin = -1;
+        private double now;
+        private String lastPage;
+        private long captureNanos;
+        private final List<Capture> pending = new ArrayList<>();
+    }
+
+    private static final ThreadLocal<ThreadState> state = ThreadLocal.withInitial(ThreadState::new);
+
+    // page -> metric -> values, and violations, over the suite
+    private static final Map<String, Map<String, List<Double>>> suiteValues = new ConcurrentHashMap<>();
+    private static final List<String> suiteViolations = Collections.synchronizedList(new ArrayList<>());
+    private static final Map<String, Double> budgets = new ConcurrentHashMap<>();
+
+    private static BufferedWriter writer;
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * The page is displayed: capture its timings once per visit
+     */
+    public static void capture(WebDriver driver, String page) {
+        if (!ENABLED || !(driver instanceof JavascriptExecutor)) {
+            return;
+        }
+        ThreadState thread = state.get();
+        if (page.equals(thread.lastPage)) {
+            // Same page checked again
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            capture(driver, page, thread);
+        } finally {
+            thread.captureNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Time this thread has spent in capture() so far; callers timing a step
+     * subtract the difference so the capture script is not counted
+     */
+    public static long getCaptureNanos() {
+        return state.get().captureNanos;
+    }
+
+    private static void capture(WebDriver driver, String page, ThreadState thread) {
+        Map<?, ?> result;
+        try {
+            Object returned = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT, thread.timeOrigin, thread.now);
+            if (!(returned instanceof Map)) {
+                return;
+            }
+            result = (Map<?, ?>) returned;
+        } catch (Exception e) {
+            TestLogger.debug(() -> "Page performance capture failed on " + page + ": " + e.getMessage());
+            return;
+        }
+        thread.lastPage = page;
+        thread.timeOrigin = number(result.get("timeOrigin"));
+        thread.now = number(result.get("now"));
+
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            Object value = result.get(metric.equals("transfer.kb") ? "transfer" : metric);
+            if (value instanceof Number) {
+                double number = ((Number) value).doubleValue();
+                metrics.put(metric, metric.equals("transfer.kb") ? number / 1024 : number);
+            }
+        }
+        List<String> slowest = new ArrayList<>();
+        if (result.get("slowest") instanceof List) {
+            for (Object entry : (List<?>) result.get("slowest")) {
+                Map<?, ?> resource = (Map<?, ?>) entry;
+                slowest.add(resource.get("name") + " (" + resource.get("type") + ", "
+                    + Math.round(number(resource.get("duration"))) + "ms)");
+            }
+        }
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Double> metric : metrics.entrySet()) {
+            Double budget = budget(page, metric.getKey());
+            if (budget != null && metric.getValue() > budget) {
+                violations.add(metric.getKey() + " " + format(metric.getKey(), metric.getValue())
+                    + " > budget " + format(metric.getKey(), budget));
+            }
+        }
+        Capture capture = new Capture(page, String.valueOf(result.get("url")), Boolean.TRUE.equals(result.get("hard")),
+            metrics, (String) result.get("lcpElement"), slowest, violations);
+
+        if (TestContext.current().getTestName() == null) {
+            thread.pending.add(capture);
+        } else {
+            record(capture);
+        }
+    }
+
+    /**
+     * A test starts on this thread: its @BeforeMethod captures are logged
+     * and stored as its own
+     */
+    public static void beginTest() {
+        ThreadState thread = state.get();
+        List<Capture> pending = new ArrayList<>(thread.pending);
+        thread.pending.clear();
+        pending.forEach(PagePerformance::record);
+    }
+
+    /**
+     * A new @BeforeMethod starts: drop captures of a setup whose test never
+     * started; every page counts as a new visit
+     */
+    public static void discardPending() {
+        ThreadState thread = state.get();
+        thread.pending.clear();
+        thread.lastPage = null;
+    }
+
+    private static void record(Capture capture) {
+        StringBuilder line = new StringBuilder("⚡ Page " + capture.page + " (" + (capture.hard ? "load" : "route")
+            + "):");
+        for (Map.Entry<String, Double> metric : capture.metrics.entrySet()) {
+            line.append(' ').append(metric.getKey()).append('=').append(format(metric.getKey(), metric.getValue()));
+        }
+        if (capture.lcpElement != null && !capture.lcpElement.isEmpty()) {
+            line.append(" (LCP ").append(capture.lcpElement).append(')');
+        }
+        TestLogger.info(line.toString());
+        if (!capture.slowest.isEmpty()) {
+            TestLogger.debug(() -> "   Slowest resources: " + String.join(", ", capture.slowest));
+        }
+        for (String violation : capture.violations) {
+            TestLogger.warn("⚡ Budget exceeded on " + capture.page + ": " + violation);
+        }
+
+        TestContext context = TestContext.current();
+        for (Map.Entry<String, Double> metric : capture.metrics.entrySet()) {
+            suiteValues.computeIfAbsent(capture.page, p -> new ConcurrentHashMap<>())
+                .computeIfAbsent(metric.getKey(), m -> Collections.synchronizedList(new ArrayList<>()))
+                .add(metric.getValue());
+        }
+        for (String violation : capture.violations) {
+            suiteViolations.add(context.getTestName() + " - " + capture.page + ": " + violation);
+        }
+        write(capture, context);
+    }
+
+    private static void write(Capture capture, TestContext context) {
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"ts\":").append(System.currentTimeMillis()).append(",\"run\":\"")
+            .append(ResultStore.getRunId()).append("\",\"test\":");
+        JsonText.quote(json, context.getTestName()).append(",\"browser\":");
+        JsonText.quote(json, DriverFactory.getBrowser()).append(",\"page\":");
+        JsonText.quote(json, capture.page).append(",\"url\":");
+        JsonText.quote(json, capture.url).append(",\"navigation\":\"").append(capture.hard ? "hard" : "soft")
+            .append("\",\"metrics\":{");
+        boolean first = true;
+        for (Map.Entry<String, Double> metric : capture.metrics.entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            JsonText.quote(json, metric.getKey()).append(':')
+                .append(Math.round(metric.getValue() * 1000) / 1000.0);
+        }
+        json.append('}');
+        if (capture.lcpElement != null) {
+            JsonText.quote(json.append(",\"lcp_element\":"), capture.lcpElement);
+        }
+        json.append(",\"slowest\":").append(array(capture.slowest))
+            .append(",\"violations\":").append(array(capture.violations)).append("}\n");
+
+        synchronized (PagePerformance.class) {
+            try {
+                if (writer == null) {
+                    Files.createDirectories(FILE.toAbsolutePath().getParent());
+                    writer = Files.newBufferedWriter(FILE, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                writer.write(json.toString());
+                writer.flush();
+            } catch (IOException e) {
+                ConsoleSink.err("Page performance write failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String array(List<String> values) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            JsonText.quote(i > 0 ? json.append(',') : json, values.get(i));
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * perf.budget.&lt;page&gt;.&lt;metric&gt;, else perf.budget.&lt;metric&gt;, else none
+     */
+    private static Double budget(String page, String metric) {
+        Double budget = budgets.computeIfAbsent(page + "." + metric, key -> {
+            String value = ConfigReader.getProperty("perf.budget." + key,
+                ConfigReader.getProperty("perf.budget." + metric, "")).trim();
+            return value.isEmpty() ? Double.NaN : Double.parseDouble(value);
+        });
+        return budget.isNaN() ? null : budget;
+    }
+
+    private static String format(String metric, double value) {
+        switch (metric) {
+            case "cls":
+                return String.format("%.3f", value);
+            case "resources":
+                return String.valueOf(Math.round(value));
+            case "transfer.kb":
+                return String.format("%.1f", value);
+            default:
+                return Math.round(value) + "ms";
+        }
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    /**
+     * Median per page and metric, and the budget violations (end of the
+     * suite)
+     */
+    public static void printSummary() {
+        if (!ENABLED || suiteValues.isEmpty()) {
+            return;
+        }
+        System.out.println("\n⚡ Page performance (median per page, " + FILE.toAbsolutePath() + "):");
+        for (String[] row : summaryRows()) {
+            StringBuilder line = new StringBuilder(String.format("   %-18s", row[0]));
+            for (int i = 1; i < row.length; i++) {
+                line.append(String.format(" %11s", row[i]));
+            }
+            System.out.println(line);
+        }
+        if (suiteViolations.isEmpty()) {
+            System.out.println("   ✅ All pages within budget");
+        } else {
+            System.out.println("   ⚠️ " + suiteViolations.size() + " budget violation(s):");
+            synchronized (suiteViolations) {
+                suiteViolations.stream().limit(20).forEach(v -> System.out.println("      " + v));
+            }
+        }
+    }
+
+    /**
+     * Page performance section of the report (call before the report is
+     * flushed)
+     */
+    public static void report() {
+        if (!ENABLED || suiteValues.isEmpty()) {
+            return;
+        }
+        String title = "⚡ Page performance";
+        String description = "Median browser-side timings per page; budgets from perf.budget.*";
+        String table = "<b>Median per page</b>" + MarkupHelper.createTable(summaryRows().toArray(new String[0][]))
+            .getMarkup();
+        if (suiteViolations.isEmpty()) {
+            ExtentReportManager.addSection(title, description, table,
+                MarkupHelper.createLabel("All pages within budget", ExtentColor.GREEN).getMarkup());
+            return;
+        }
+        StringBuilder violations = new StringBuilder("<b>Violations</b><ul>");
+        synchronized (suiteViolations) {
+            for (String violation : suiteViolations) {
+                violations.append("<li>").append(violation).append("</li>");
+            }
+        }
+        ExtentReportManager.addSection(title, description, table,
+            MarkupHelper.createLabel(suiteViolations.size() + " budget violation(s)", ExtentColor.ORANGE).getMarkup(),
+            violations.append("</ul>").toString());
+    }
+
+    private static List<String[]> summaryRows() {
+        List<String[]> rows = new ArrayList<>();
+        String[] header = new String[METRICS.size() + 1];
+        header[0] = "Page";
+        for (int i = 0; i < METRICS.size(); i++) {
+            header[i + 1] = METRICS.get(i);
+        }
+        rows.add(header);
+        for (String page : Arrays.asList(LOGIN, INVENTORY, CART, CHECKOUT_STEP_ONE, CHECKOUT_STEP_TWO,
+            CHECKOUT_COMPLETE)) {
+            Map<String, List<Double>> values = suiteValues.get(page);
+            if (values == null) {
+                continue;
+            }
+            String[] row = new String[METRICS.size() + 1];
+            row[0] = page;
+            for (int i = 0; i < METRICS.size(); i++) {
+                List<Double> metricValues = values.get(METRICS.get(i));
+                row[i + 1] = metricValues == null ? "-" : format(METRICS.get(i), median(metricValues));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static double median(List<Double> values) {
+        double[] sorted;
+        synchronized (values) {
+            sorted = values.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        }
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
@@ -0,0 +1,266 @@
+package com.saucedemo.utils;
+
+import com.aventstack.extentreports.Status;
+import com.saucedemo.config.ConfigReader;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Paged report for very large runs, written from the ReportJournal
+ *
+ * Output next to the Spark report:
+ *   TestReport_x-paged.html          static shell (table, search, filters)
+ *   TestReport_x-paged/index.js      one compact row per test: name, status,
+ *                                    categories (class, Jira key, browser),
+ *                                    duration, chunk number
+ *   TestReport_x-paged/chunk-N.js    log entries of report.paged.chunk.size tests
+ *
+ * The shell loads only index.js up front and pulls in a chunk when a test
+ * is opened. Data files are JSONP (reportIndex(...) / reportChunk(...)) so
+ * the report works from file:// without a web server. Chunk entries are
+ * [test id, node id (0 = the test itself), timestamp, status, html]; node
+ * creation is [test id, node id, timestamp, "NODE", name, parent node id].
+ *
+ * One streaming pass over the journal: every log entry is appended straight
+ * to its chunk file and only the index is kept in memory, however many logs
+ * the run produced.
+ */
+public class PagedReportWriter {
+
+    private static final Json JSON = new Json();
+    private static final String SHELL_RESOURCE = "/paged-report.html";
+    private static final int CHUNK_SIZE =
+        Integer.parseInt(ConfigReader.getProperty("report.paged.chunk.size", "200"));
+
+    private static class Chunk {
+        final Writer writer;
+        boolean empty = true;
+
+        Chunk(Writer writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * Append one entry - ids, timestamp, then strings (hand-written
+         * JSON: a JsonOutput per entry costs more than the whole render)
+         */
+        void write(long test, long node, long timestamp, String status, String html, Long parent)
+            throws IOException {
+            StringBuilder json = new StringBuilder(html == null ? 64 : html.length() + 64);
+            json.append(empty ? "[" : ",\n[").append(test).append(',').append(node).append(',').append(timestamp)
+                .append(',');
+            JsonText.quote(json, status).append(',');
+            JsonText.quote(json, html);
+            if (parent != null) {
+                json.append(',').append(parent);
+            }
+            writer.write(json.append(']').toString());
+            empty = false;
+        }
+    }
+
+    private static class TestRow {
+        final long id;
+        final int order;
+        final String name;
+        final long start;
+        long end;
+        Status status = Status.PASS;
+        final List<String> categories = new ArrayList<>();
+
+        TestRow(long id, int order, String name, long start) {
+            this.id = id;
+            this.order = order;
+            this.name = name;
+            this.start = start;
+            this.end = start;
+        }
+
+        int chunk() {
+            return order / CHUNK_SIZE;
+        }
+    }
+
+    /**
+     * Write the shell for journal to htmlPath, and its data files to the
+     * directory htmlPath without ".html"
+     * @return number of tests written
+     */
+    public static int write(Path journal, Path htmlPath) throws IOException {
+        return write(journal, htmlPath, List.of());
+    }
+
+    /**
+     * As write(journal, htmlPath), with report-level sections (HTML) above
+     * the test list
+     */
+    public static int write(Path journal, Path htmlPath, List<String> sections) throws IOException {
+        String shellName = htmlPath.getFileName().toString();
+        Path dataDir = htmlPath.resolveSibling(shellName.replaceAll("\\.html$", ""));
+        Files.createDirectories(dataDir);
+
+        // A test's TEST entry always comes before its logs, so its chunk is known on first sight
+        Map<Long, TestRow> tests = new LinkedHashMap<>();
+        Map<Long, TestRow> owners = new HashMap<>();
+        Map<Integer, Chunk> chunks = new HashMap<>();
+        try {
+            ReportJournal.forEach(journal, entry -> {
+                ReportQueue.Kind kind = ReportQueue.Kind.valueOf((String) entry.get("kind"));
+                long id = ((Number) entry.get("test")).longValue();
+                long timestamp = ((Number) entry.get("ts")).longValue();
+
+                if (kind == ReportQueue.Kind.TEST) {
+                    TestRow row = new TestRow(id, tests.size(), (String) entry.get("text"), timestamp);
+                    tests.put(id, row);
+                    owners.put(id, row);
+                    return;
+                }
+                TestRow row = owners.get(id);
+                if (row == null) {
+                    return;
+                }
+                row.end = Math.max(row.end, timestamp);
+                long node = id == row.id ? 0 : id;
+
+                try {
+                    switch (kind) {
+                        case CATEGORY:
+                            row.categories.add((String) entry.get("text"));
+                            break;
+                        case FINISH:
+                            break;
+                        case NODE:
+                            long created = entry.get("node") != null ? ((Number) entry.get("node")).longValue() : 0;
+                            owners.put(created, row);
+                            Chunk chunk = chunk(chunks, dataDir, row.chunk());
+                            chunk.write(row.id, created, timestamp, "NODE", (String) entry.get("text"), node);
+                            if (entry.get("body") != null) {
+                                chunk.write(row.id, created, timestamp, "INFO", (String) entry.get("body"), null);
+                            }
+                            break;
+                        default:
+                            row.status = Status.max(row.status, ReportJournal.status(entry));
+                            chunk(chunks, dataDir, row.chunk()).write(row.id, node, timestamp,
+                                (String) entry.get("status"), html(kind, entry), null);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (Chunk chunk : chunks.values()) {
+                chunk.writer.write("]);\n");
+                chunk.writer.close();
+            }
+        }
+
+        writeIndex(dataDir.resolve("index.js"), tests);
+        writeShell(htmlPath, dataDir.getFileName().toString(), sections);
+        return tests.size();
+    }
+
+    /**
+     * Size of the shell plus all of its data files
+     */
+    public static long getSize(Path htmlPath) throws IOException {
+        long size = Files.exists(htmlPath) ? Files.size(htmlPath) : 0;
+        Path dataDir = htmlPath.resolveSibling(htmlPath.getFileName().toString().replaceAll("\\.html$", ""));
+        if (Files.isDirectory(dataDir)) {
+            try (Stream<Path> files = Files.list(dataDir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    size += Files.size(file);
+                }
+            }
+        }
+        return size;
+    }
+
+    private static String html(ReportQueue.Kind kind, Map<String, Object> entry) {
+        if (kind == ReportQueue.Kind.MEDIA) {
+            String image = (String) entry.get("body");
+            String source = image.startsWith("data:") ? image : "data:image/png;base64," + image;
+            String title = entry.get("text") != null ? ReportJournal.escape((String) entry.get("text")) : "";
+            return "<div class='media'><img src='" + source + "' title='" + title + "' alt='" + title + "'>"
+                + "<span>" + title + "</span></div>";
+        }
+        return ReportQueue.render(ReportJournal.toEvent(entry, null));
+    }
+
+    private static Chunk chunk(Map<Integer, Chunk> chunks, Path dataDir, int number) throws IOException {
+        Chunk chunk = chunks.get(number);
+        if (chunk == null) {
+            chunk = new Chunk(Files.newBufferedWriter(dataDir.resolve("chunk-" + number + ".js"),
+                StandardCharsets.UTF_8));
+            chunk.writer.write("reportChunk(" + number + ",[\n");
+            chunks.put(number, chunk);
+        }
+        return chunk;
+    }
+
+    private static void writeIndex(Path indexPath, Map<Long, TestRow> tests) throws IOException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        List<Object> rows = new ArrayList<>(tests.size());
+        for (TestRow row : tests.values()) {
+            counts.merge(row.status.toLower(), 1, Integer::sum);
+            rows.add(Arrays.asList(row.id, row.name, row.status.toLower(), row.start, row.end - row.start,
+                row.chunk(), row.categories));
+        }
+
+        Map<String, Object> index = new LinkedHashMap<>();
+        index.put("title", "Automation Test Results");
+        index.put("generated", new SimpleDateFormat("dd-MM-yyyy HH:mm:ss").format(new Date()));
+        index.put("counts", counts);
+        index.put("tests", rows);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(indexPath, StandardCharsets.UTF_8)) {
+            writer.write("reportIndex(");
+            writer.write(toJson(index));
+            writer.write(");\n");
+        }
+    }
+
+    private static void writeShell(Path htmlPath, String dataDirName, List<String> sections) throws IOException {
+        String shell;
+        try (InputStream in = PagedReportWriter.class.getResourceAsStream(SHELL_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Missing resource " + SHELL_RESOURCE);
+            }
+            shell = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        StringBuilder sectionHtml = new StringBuilder();
+        for (String section : sections) {
+            sectionHtml.append("<div class=\"section\">").append(section).append("</div>\n");
+        }
+        Files.write(htmlPath, shell.replace("{{DATA_DIR}}", dataDirName).replace("{{SECTIONS}}", sectionHtml)
+            .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toJson(Object value) {
+        StringBuilder json = new StringBuilder();
+        try (JsonOutput output = JSON.newOutput(json)) {
+            output.setPrettyPrint(false);
+            output.write(value);
+        }
+        return json.toString();
+    }
+}
@@ -25,7 +25,7 @@ public class PopupHandler {
             // Try to press ESC key to dismiss
             driver.switchTo().activeElement().sendKeys(org.openqa.selenium.Keys.ESCAPE);
 
-            System.out.println("  🔧 Attempted to dismiss Chrome password popup with ESC key");
+            ConsoleSink.out("  🔧 Attempted to dismiss Chrome password popup with ESC key");
         } catch (Exception e) {
             // Silently ignore - popup may not appear
         }
@@ -55,9 +55,9 @@ public class PopupHandler {
                 }
             }
 
-            System.out.println("  ✅ No blocking overlays detected");
+            ConsoleSink.out("  ✅ No blocking overlays detected");
         } catch (Exception e) {
-            System.out.println("  ⚠️  Could not verify overlay state: " + e.getMessage());
+            ConsoleSink.out("  ⚠️  Could not verify overlay state: " + e.getMessage());
         }
     }
 
@@ -77,9 +77,9 @@ public class PopupHandler {
             try {
                 ((org.openqa.selenium.JavascriptExecutor) driver)
                     .executeScript("arguments[0].click();", element);
-                System.out.println("  🔧 Used JavaScript click as fallback");
+                ConsoleSink.out("  🔧 Used JavaScript click as fallback");
             } catch (Exception je) {
-                System.out.println("  ❌ Could not click element: " + je.getMessage());
+                ConsoleSink.out("  ❌ Could not click element: " + je.getMessage());
                 throw je;
             }
         }
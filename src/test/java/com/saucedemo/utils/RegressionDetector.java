@@ -0,0 +1,473 @@
+package com.saucedemo.utils;
+
+import com.aventstack.extentreports.markuputils.ExtentColor;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.saucedemo.config.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Flags statistically significant slowdowns against earlier runs
+ *
+ * Series come from ResultStore: each test's duration (passed runs) per
+ * browser, and each page transition per browser - the time from the action
+ * to the next page being displayed (login->inventory,
+ * cart->checkout-step-one, finish->complete).
+ *
+ * For each series that has samples in this run, the samples of the last
+ * regression.recent.runs runs are compared with the history.window samples
+ * before them by a one-sided Mann-Whitney U test (exact for small samples
+ * without ties, otherwise the normal approximation with tie and continuity
+ * correction). A series regressed when p is below
+ * regression.alpha AND the Hodges-Lehmann shift (median of all pairwise
+ * differences) is at least regression.min.effect percent of the baseline
+ * median - rank-based, so one slow outlier neither triggers it nor hides it,
+ * and no fixed millisecond threshold is needed.
+ *
+ * With regression.fail.build the runners exit with EXIT_CODE when anything
+ * regressed; other TestNG runs (mvn test) fail with RegressionsFound once
+ * TestNG has written its reports (see ExtentTestListener).
+ */
+public class RegressionDetector {
+
+    public static final String LOGIN_TO_INVENTORY = "login->inventory";
+    public static final String CART_TO_CHECKOUT = "cart->checkout-step-one";
+    public static final String FINISH_TO_COMPLETE = "finish->complete";
+
+    public static final int EXIT_CODE = 3;
+
+    // Exact p-values (no ties) up to this many recent x baseline pairs
+    private static final int EXACT_LIMIT = 2500;
+
+    private static final boolean ENABLED =
+        Boolean.parseBoolean(ConfigReader.getProperty("regression.enabled", "true"));
+    private static final int RECENT_RUNS = Integer.parseInt(ConfigReader.getProperty("regression.recent.runs", "3"));
+    private static final int MIN_RECENT = Integer.parseInt(ConfigReader.getProperty("regression.min.samples", "3"));
+    private static final int MIN_BASELINE =
+        Integer.parseInt(ConfigReader.getProperty("regression.min.baseline", "8"));
+    private static final double ALPHA = Double.parseDouble(ConfigReader.getProperty("regression.alpha", "0.01"));
+    private static final double MIN_EFFECT =
+        Double.parseDouble(ConfigReader.getProperty("regression.min.effect", "10"));
+    private static final boolean FAIL_BUILD =
+        Boolean.parseBoolean(ConfigReader.getProperty("regression.fail.build", "false"));
+
+    // check() result of a series with too few samples, or not part of this run
+    private static final Regression NOT_CHECKED = new Regression("", "", "", 0, 0, 0, 0, 0, 1);
+
+    private static volatile List<Regression> lastResult;
+    private static volatile int lastChecked;
+
+    /**
+     * Thrown at the end of a TestNG run that regressed with
+     * regression.fail.build on
+     */
+    public static final class RegressionsFound extends RuntimeException {
+        RegressionsFound(int regressions) {
+            super(regressions + " performance regression(s) found (regression.fail.build)");
+        }
+    }
+
+    /**
+     * A series whose recent runs are significantly slower than its baseline
+     */
+    public static final class Regression {
+        private final String kind;
+        private final String name;
+        private final String browser;
+        private final int baselineSamples;
+        private final int recentSamples;
+        private final double baselineMedian;
+        private final double recentMedian;
+        private final double shiftMillis;
+        private final double pValue;
+
+        Regression(String kind, String name, String browser, int baselineSamples, int recentSamples,
+                   double baselineMedian, double recentMedian, double shiftMillis, double pValue) {
+            this.kind = kind;
+            this.name = name;
+            this.browser = browser;
+            this.baselineSamples = baselineSamples;
+            this.recentSamples = recentSamples;
+            this.baselineMedian = baselineMedian;
+            this.recentMedian = recentMedian;
+            this.shiftMillis = shiftMillis;
+            this.pValue = pValue;
+        }
+
+        /**
+         * test or transition
+         */
+        public String getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getBrowser() {
+            return browser;
+        }
+
+        public int getBaselineSamples() {
+            return baselineSamples;
+        }
+
+        public int getRecentSamples() {
+            return recentSamples;
+        }
+
+        public double getBaselineMedian() {
+            return baselineMedian;
+        }
+
+        public double getRecentMedian() {
+            return recentMedian;
+        }
+
+        /**
+         * Hodges-Lehmann estimate of the slowdown
+         */
+        public double getShiftMillis() {
+            return shiftMillis;
+        }
+
+        public double getShiftPercent() {
+            return baselineMedian > 0 ? shiftMillis / baselineMedian * 100 : 0;
+        }
+
+        public double getPValue() {
+            return pValue;
+        }
+
+        /**
+         * "median 840ms -> 1210ms (+44%, p=0.0004, 3 vs 47 samples)"
+         */
+        public String summary() {
+            return String.format("median %.0fms -> %.0fms (%+.0f%%, p=%s, %d vs %d samples)", baselineMedian,
+                recentMedian, getShiftPercent(), formatP(pValue), recentSamples, baselineSamples);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED && ResultStore.isEnabled();
+    }
+
+    /**
+     * Record a page transition of the current test (called by the page
+     * objects)
+     */
+    public static void recordTransition(String name, long millis) {
+        TestLogger.logDuration("Transition " + name, millis);
+        String browser = DriverFactory.getBrowser();
+        if (browser == null) {
+            browser = TestContext.current().getBrowser();
+        }
+        ResultStore.recordTiming(name, browser != null ? browser : "unknown", millis);
+    }
+
+    /**
+     * Check every series that ran in this run; the result is kept for
+     * getRegressions() / shouldFailBuild()
+     */
+    public static List<Regression> analyze() {
+        if (!isEnabled()) {
+            lastResult = Collections.emptyList();
+            return lastResult;
+        }
+        String run = ResultStore.getRunId();
+        List<Regression> regressions = new ArrayList<>();
+        int checked = 0;
+
+        for (List<ResultStore.Result> results : ResultStore.allHistory()) {
+            List<String> runs = new ArrayList<>();
+            List<Long> durations = new ArrayList<>();
+            for (ResultStore.Result result : results) {
+                if (result.getStatus().equals("passed")) {
+                    runs.add(result.getRun());
+                    durations.add(result.getDurationMillis());
+                }
+            }
+            ResultStore.Result first = results.get(0);
+            Regression regression = check("test", first.getTest(), first.getBrowser(), runs, durations, run);
+            checked += regression != NOT_CHECKED ? 1 : 0;
+            if (regression != null && regression != NOT_CHECKED) {
+                regressions.add(regression);
+            }
+        }
+        for (List<ResultStore.Sample> samples : ResultStore.allTimings()) {
+            List<String> runs = new ArrayList<>();
+            List<Long> durations = new ArrayList<>();
+            for (ResultStore.Sample sample : samples) {
+                runs.add(sample.getRun());
+                durations.add(sample.getDurationMillis());
+            }
+            ResultStore.Sample first = samples.get(0);
+            Regression regression = check("transition", first.getName(), first.getBrowser(), runs, durations, run);
+            checked += regression != NOT_CHECKED ? 1 : 0;
+            if (regression != null && regression != NOT_CHECKED) {
+                regressions.add(regression);
+            }
+        }
+
+        regressions.sort(Comparator.comparingDouble(Regression::getShiftPercent).reversed());
+        lastChecked = checked;
+        lastResult = Collections.unmodifiableList(regressions);
+        return lastResult;
+    }
+
+    /**
+     * Regressions found by the last analyze() (empty before it ran)
+     */
+    public static List<Regression> getRegressions() {
+        List<Regression> result = lastResult;
+        return result != null ? result : Collections.emptyList();
+    }
+
+    /**
+     * regression.fail.build is on and the last analyze() found regressions
+     */
+    public static boolean shouldFailBuild() {
+        return FAIL_BUILD && !getRegressions().isEmpty();
+    }
+
+    /**
+     * Fail the run if shouldFailBuild()
+     * @throws RegressionsFound
+     */
+    public static void failBuildIfRegressed() {
+        if (shouldFailBuild()) {
+            throw new RegressionsFound(getRegressions().size());
+        }
+    }
+
+    /**
+     * Regression of one series, null if none, NOT_CHECKED if it cannot be
+     * tested
+     */
+    private static Regression check(String kind, String name, String browser, List<String> runs,
+                                    List<Long> durations, String currentRun) {
+        if (runs.isEmpty() || !runs.get(runs.size() - 1).equals(currentRun)) {
+            return NOT_CHECKED;
+        }
+        // The last RECENT_RUNS distinct runs
+        Set<String> recent = new HashSet<>();
+        for (int i = runs.size() - 1; i >= 0; i--) {
+            if (!recent.contains(runs.get(i))) {
+                if (recent.size() == RECENT_RUNS) {
+                    break;
+                }
+                recent.add(runs.get(i));
+            }
+        }
+
+        List<Long> recentValues = new ArrayList<>();
+        List<Long> baselineValues = new ArrayList<>();
+        for (int i = 0; i < runs.size(); i++) {
+            (recent.contains(runs.get(i)) ? recentValues : baselineValues).add(durations.get(i));
+        }
+        int window = ResultStore.getWindow();
+        if (baselineValues.size() > window) {
+            baselineValues = baselineValues.subList(baselineValues.size() - window, baselineValues.size());
+        }
+        if (recentValues.size() < MIN_RECENT || baselineValues.size() < MIN_BASELINE) {
+            return NOT_CHECKED;
+        }
+
+        long[] x = toArray(recentValues);
+        long[] y = toArray(baselineValues);
+        double p = mannWhitneyGreater(x, y);
+        double baselineMedian = median(y);
+        double shift = hodgesLehmann(x, y);
+        if (p < ALPHA && baselineMedian > 0 && shift / baselineMedian * 100 >= MIN_EFFECT) {
+            return new Regression(kind, name, browser, y.length, x.length, baselineMedian, median(x), shift, p);
+        }
+        return null;
+    }
+
+    /**
+     * One-sided p-value that x tends to be larger than y
+     */
+    static double mannWhitneyGreater(long[] x, long[] y) {
+        int n1 = x.length;
+        int n2 = y.length;
+        int n = n1 + n2;
+        long[][] all = new long[n][];
+        for (int i = 0; i < n1; i++) {
+            all[i] = new long[]{x[i], 1};
+        }
+        for (int i = 0; i < n2; i++) {
+            all[n1 + i] = new long[]{y[i], 0};
+        }
+        Arrays.sort(all, Comparator.comparingLong(a -> a[0]));
+
+        // Average ranks for ties; sum of t^3 - t for the variance correction
+        double rankSumX = 0;
+        double tieTerm = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j + 1 < n && all[j + 1][0] == all[i][0]) {
+                j++;
+            }
+            double rank = (i + j + 2) / 2.0;
+            for (int k = i; k <= j; k++) {
+                if (all[k][1] == 1) {
+                    rankSumX += rank;
+                }
+            }
+            double t = j - i + 1;
+            tieTerm += t * t * t - t;
+            i = j + 1;
+        }
+
+        double u = rankSumX - n1 * (n1 + 1) / 2.0;
+        if (tieTerm == 0 && (long) n1 * n2 <= EXACT_LIMIT) {
+            return exactUpperTail(n1, n2, (int) Math.round(u));
+        }
+        double mean = n1 * (double) n2 / 2.0;
+        double variance = n1 * (double) n2 / 12.0 * ((n + 1) - tieTerm / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            // Every value identical
+            return 1;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 0.5 * erfc(z / Math.sqrt(2));
+    }
+
+    /**
+     * P(U >= u) with no ties: the number of rank arrangements for each U is
+     * the q-binomial coefficient [n1 + n2 choose n1], built as the product
+     * of (1 - q^(n2 + i)) / (1 - q^i)
+     */
+    private static double exactUpperTail(int n1, int n2, int u) {
+        int max = n1 * n2;
+        double[] counts = new double[max + 1];
+        counts[0] = 1;
+        for (int i = 1; i <= n1; i++) {
+            for (int k = max; k >= n2 + i; k--) {
+                counts[k] -= counts[k - n2 - i];
+            }
+            for (int k = i; k <= max; k++) {
+                counts[k] += counts[k - i];
+            }
+        }
+        double total = 0;
+        double tail = 0;
+        for (int k = 0; k <= max; k++) {
+            total += counts[k];
+            if (k >= u) {
+                tail += counts[k];
+            }
+        }
+        return tail / total;
+    }
+
+    /**
+     * Median of all pairwise differences x[i] - y[j]
+     */
+    static double hodgesLehmann(long[] x, long[] y) {
+        long[] differences = new long[x.length * y.length];
+        int k = 0;
+        for (long a : x) {
+            for (long b : y) {
+                differences[k++] = a - b;
+            }
+        }
+        return median(differences);
+    }
+
+    /**
+     * Complementary error function (Chebyshev fit, relative error below
+     * 1.2e-7)
+     */
+    private static double erfc(double value) {
+        double z = Math.abs(value);
+        double t = 1 / (1 + 0.5 * z);
+        double r = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+            + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+            + t * (-0.82215223 + t * 0.17087277)))))))));
+        return value >= 0 ? r : 2 - r;
+    }
+
+    private static double median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+
+    private static long[] toArray(List<Long> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    private static String formatP(double p) {
+        return p < 0.0001 ? "<0.0001" : String.format("%.4f", p);
+    }
+
+    /**
+     * Print the regressions found by the last analyze() (end of the suite)
+     */
+    public static void printSummary() {
+        if (!isEnabled() || lastResult == null) {
+            return;
+        }
+        List<Regression> regressions = getRegressions();
+        if (regressions.isEmpty()) {
+            System.out.println("\n📈 Performance: no significant slowdowns (" + lastChecked
+                + " series checked against history)");
+            return;
+        }
+        System.out.println("\n╔═══════════════════════════════════════════════════════════╗");
+        System.out.println("║  📉 Performance Regressions                               ║");
+        System.out.println("╚═══════════════════════════════════════════════════════════╝");
+        for (Regression regression : regressions) {
+            System.out.println("   🐌 " + regression.getKind() + " " + regression.getName() + " ["
+                + regression.getBrowser() + "] " + regression.summary());
+        }
+        System.out.println("   " + regressions.size() + " of " + lastChecked + " series regressed (p < " + ALPHA
+            + ", shift >= " + String.format("%.0f", MIN_EFFECT) + "%)"
+            + (FAIL_BUILD ? " - the build will fail" : ""));
+    }
+
+    /**
+     * Regression section of the report (call before the report is flushed)
+     */
+    public static void report() {
+        if (!isEnabled() || lastResult == null) {
+            return;
+        }
+        List<Regression> regressions = getRegressions();
+        String title = "📉 Performance regressions";
+        String description = "Recent runs compared with history (Mann-Whitney U, p < " + ALPHA + ", shift >= "
+            + String.format("%.0f", MIN_EFFECT) + "%)";
+        if (regressions.isEmpty()) {
+            ExtentReportManager.addSection(title, description, MarkupHelper.createLabel(
+                "No significant slowdowns (" + lastChecked + " series checked)", ExtentColor.GREEN).getMarkup());
+            return;
+        }
+        String[][] rows = new String[regressions.size() + 1][];
+        rows[0] = new String[]{"Kind", "Name", "Browser", "Baseline median", "Recent median", "Shift", "p",
+            "Samples (recent / baseline)"};
+        for (int i = 0; i < regressions.size(); i++) {
+            Regression r = regressions.get(i);
+            rows[i + 1] = new String[]{r.getKind(), r.getName(), r.getBrowser(),
+                String.format("%.0fms", r.getBaselineMedian()), String.format("%.0fms", r.getRecentMedian()),
+                String.format("%+.0fms (%+.0f%%)", r.getShiftMillis(), r.getShiftPercent()), formatP(r.getPValue()),
+                r.getRecentSamples() + " / " + r.getBaselineSamples()};
+        }
+        ExtentReportManager.addSection(title, description,
+            MarkupHelper.createLabel(regressions.size() + " of " + lastChecked
+                + " series slowed down significantly", ExtentColor.ORANGE).getMarkup(),
+            "<b>Regressions</b>" + MarkupHelper.createTable(rows).getMarkup());
+    }
+}
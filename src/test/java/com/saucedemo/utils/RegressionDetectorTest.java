@@ -0,0 +1,69 @@
+package com.saucedemo.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Mann-Whitney U and Hodges-Lehmann against hand-computed values (no
+ * browser; mvn test -Punit)
+ */
+public class RegressionDetectorTest {
+
+    private static final double DELTA = 1e-6;
+
+    @Test(description = "Exact tail: complete separation is the single most extreme arrangement")
+    public void testExactTailCompleteSeparation() {
+        // 1 / C(6, 3) and 1 / C(8, 4)
+        Assert.assertEquals(RegressionDetector.mannWhitneyGreater(new long[]{4, 5, 6}, new long[]{1, 2, 3}),
+            1 / 20.0, DELTA);
+        Assert.assertEquals(RegressionDetector.mannWhitneyGreater(new long[]{5, 6, 7, 8}, new long[]{1, 2, 3, 4}),
+            1 / 70.0, DELTA);
+    }
+
+    @Test(description = "Exact tail matches the U table for n1 = n2 = 3")
+    public void testExactTailTable() {
+        // U frequencies for n1 = n2 = 3: 1 1 2 3 3 3 3 2 1 1 (of 20)
+        // U = 8: P(U >= 8) = 2 / 20
+        Assert.assertEquals(RegressionDetector.mannWhitneyGreater(new long[]{3, 5, 6}, new long[]{1, 2, 4}),
+            2 / 20.0, DELTA);
+        // U = 3: P(U >= 3) = 16 / 20
+        Assert.assertEquals(RegressionDetector.mannWhitneyGreater(new long[]{1, 3, 5}, new long[]{2, 4, 6}),
+            16 / 20.0, DELTA);
+        // U = 0: every arrangement
+        Assert.assertEquals(RegressionDetector.mannWhitneyGreater(new long[]{1, 2, 3}, new long[]{4, 5, 6}),
+            1.0, DELTA);
+    }
+
+    @Test(description = "Ties use the tie-corrected normal approximation with continuity correction")
+    public void testNormalApproximationWithTies() {
+        // Average ranks 4.5, 4.5, 7.5, 7.5: U = 14, mean 8, variance 16 / 12 * (9 - 72 / 56)
+        Assert.assertEquals(RegressionDetector.mannWhitneyGreater(new long[]{2, 2, 3, 3}, new long[]{1, 1, 2, 2}),
+            0.0431794, 1e-5);
+    }
+
+    @Test(description = "Large samples use the normal approximation")
+    public void testNormalApproximationLargeSamples() {
+        long[] x = new long[60];
+        long[] y = new long[60];
+        for (int i = 0; i < 60; i++) {
+            x[i] = 2 * i + 2;
+            y[i] = 2 * i + 1;
+        }
+        // U = 1830, mean 1800, variance 3600 / 12 * 121
+        Assert.assertEquals(RegressionDetector.mannWhitneyGreater(x, y), 0.4384758, 1e-5);
+    }
+
+    @Test(description = "Identical samples are never a regression")
+    public void testIdenticalValues() {
+        Assert.assertEquals(RegressionDetector.mannWhitneyGreater(new long[]{7, 7, 7}, new long[]{7, 7, 7, 7}),
+            1.0, DELTA);
+    }
+
+    @Test(description = "Hodges-Lehmann shift is the median of pairwise differences")
+    public void testHodgesLehmann() {
+        // Differences 4 3 5 4 6 5
+        Assert.assertEquals(RegressionDetector.hodgesLehmann(new long[]{5, 6, 7}, new long[]{1, 2}), 4.5, DELTA);
+        Assert.assertEquals(RegressionDetector.hodgesLehmann(new long[]{110, 120, 130}, new long[]{100, 100, 100}),
+            20.0, DELTA);
+    }
+}
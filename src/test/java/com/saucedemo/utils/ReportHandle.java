@@ -0,0 +1,96 @@
+package com.saucedemo.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+
+/**
+ * A test or step node in the report, as seen by test threads
+ *
+ * Handles are returned right away by ReportQueue; the ExtentTest behind one
+ * is created later by the report writer thread, so a test thread never
+ * waits for the writer. Only the queue touches the ExtentTest itself: the
+ * log methods here enqueue through ReportQueue, in the order they are
+ * called.
+ */
+public final class ReportHandle {
+
+    private final String name;
+    // Report a top-level test is created in (null for nodes)
+    private final ExtentReports reports;
+    private volatile ExtentTest test;
+
+    ReportHandle(String name) {
+        this(name, null);
+    }
+
+    ReportHandle(String name, ExtentReports reports) {
+        this.name = name;
+        this.reports = reports;
+    }
+
+    /**
+     * Handle for an already created test or node (journal replay)
+     */
+    static ReportHandle of(ExtentTest test) {
+        ReportHandle handle = new ReportHandle(test.getModel().getName());
+        handle.test = test;
+        return handle;
+    }
+
+    /**
+     * Name the test or node was created with
+     */
+    public String getName() {
+        return name;
+    }
+
+    public ReportHandle log(Status status, String details) {
+        ReportQueue.log(this, status, details);
+        return this;
+    }
+
+    public ReportHandle info(String details) {
+        return log(Status.INFO, details);
+    }
+
+    public ReportHandle pass(String details) {
+        return log(Status.PASS, details);
+    }
+
+    public ReportHandle fail(String details) {
+        return log(Status.FAIL, details);
+    }
+
+    public ReportHandle warning(String details) {
+        return log(Status.WARNING, details);
+    }
+
+    public ReportHandle skip(String details) {
+        return log(Status.SKIP, details);
+    }
+
+    /**
+     * Exception with its stack trace
+     */
+    public ReportHandle fail(Throwable throwable) {
+        ReportQueue.throwable(this, Status.FAIL, throwable);
+        return this;
+    }
+
+    ExtentReports getReports() {
+        return reports;
+    }
+
+    ExtentTest get() {
+        return test;
+    }
+
+    boolean isResolved() {
+        return test != null;
+    }
+
+    void resolve(ExtentTest extentTest) {
+        test = extentTest;
+    }
+}
@@ -0,0 +1,257 @@
+package com.saucedemo.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.ExtentColor;
+import com.aventstack.extentreports.model.Log;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Append-only journal of every report event (one JSON object per line)
+ *
+ * Tests and nodes are referred to by their Extent model ids, so the journal
+ * is enough to rebuild the whole HTML report after a crash (see
+ * ReportRebuilder) or at the end of a run whose completed tests were
+ * released from memory. Lines are buffered and pushed to the OS whenever the
+ * report queue goes idle; sync() also forces them to disk.
+ */
+public class ReportJournal {
+
+    private static final Json JSON = new Json();
+
+    private static Path path;
+    private static FileOutputStream stream;
+    private static BufferedWriter writer;
+    private static long sequence;
+
+    /**
+     * Start journaling to path (appends if it exists)
+     */
+    public static synchronized void open(Path journalPath) {
+        try {
+            Files.createDirectories(journalPath.toAbsolutePath().getParent());
+            stream = new FileOutputStream(journalPath.toFile(), true);
+            writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+            path = journalPath;
+        } catch (IOException e) {
+            System.err.println("Report journal disabled - cannot open " + journalPath + ": " + e.getMessage());
+        }
+    }
+
+    public static synchronized Path getPath() {
+        return path;
+    }
+
+    static synchronized void append(ReportQueue.ReportEvent event, ExtentTest node) {
+        if (writer == null) {
+            return;
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("seq", ++sequence);
+        line.put("ts", event.timestamp);
+        line.put("kind", event.kind.name());
+        line.put("test", event.test.get().getModel().getId());
+        if (node != null) {
+            line.put("node", node.getModel().getId());
+        }
+        line.put("status", event.status.name());
+        if (event.text != null) {
+            line.put("text", event.text);
+        }
+        if (event.body != null) {
+            line.put("body", event.body);
+        }
+        if (event.color != null) {
+            line.put("color", event.color.name());
+        }
+        if (event.rows != null) {
+            line.put("rows", event.rows);
+        }
+        if (event.throwable != null) {
+            StringWriter trace = new StringWriter();
+            event.throwable.printStackTrace(new PrintWriter(trace));
+            line.put("body", trace.toString());
+        }
+
+        try {
+            StringBuilder json = new StringBuilder();
+            try (JsonOutput output = JSON.newOutput(json)) {
+                output.setPrettyPrint(false);
+                output.write(line);
+            }
+            writer.write(json.append('\n').toString());
+        } catch (IOException | RuntimeException e) {
+            ConsoleSink.err("Failed to journal report event: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hand buffered lines to the OS (survives a JVM crash)
+     */
+    static synchronized void flush() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            ConsoleSink.err("Failed to flush report journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Flush and force to disk (survives a machine crash)
+     */
+    public static synchronized void sync() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+            stream.getChannel().force(false);
+        } catch (IOException e) {
+            ConsoleSink.err("Failed to sync report journal: " + e.getMessage());
+        }
+    }
+
+    public static synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        sync();
+        try {
+            writer.close();
+        } catch (IOException e) {
+            // Already synced
+        }
+        writer = null;
+        stream = null;
+    }
+
+    /**
+     * Replay a journal into a fresh ExtentReports (log timestamps are kept)
+     * @return number of tests rebuilt
+     */
+    public static int replay(Path journal, ExtentReports extent) throws IOException {
+        Map<Long, ReportHandle> tests = new HashMap<>();
+        int[] rebuilt = {0};
+        forEach(journal, entry -> {
+            ReportQueue.Kind kind = ReportQueue.Kind.valueOf((String) entry.get("kind"));
+            long id = ((Number) entry.get("test")).longValue();
+            Date timestamp = new Date(((Number) entry.get("ts")).longValue());
+
+            if (kind == ReportQueue.Kind.TEST) {
+                ExtentTest test = extent.createTest((String) entry.get("text"), (String) entry.get("body"));
+                test.getModel().setStartTime(timestamp);
+                tests.put(id, ReportHandle.of(test));
+                rebuilt[0]++;
+                return;
+            }
+            ReportHandle test = tests.get(id);
+            if (test == null) {
+                return;
+            }
+
+            ExtentTest node = ReportQueue.apply(toEvent(entry, test));
+            if (node != null && entry.get("node") != null) {
+                tests.put(((Number) entry.get("node")).longValue(), ReportHandle.of(node));
+            }
+            List<Log> logs = (node != null ? node : test.get()).getModel().getLogs();
+            if (!logs.isEmpty()) {
+                logs.get(logs.size() - 1).setTimestamp(timestamp);
+            }
+            test.get().getModel().setEndTime(timestamp);
+        });
+        return rebuilt[0];
+    }
+
+    /**
+     * Read a journal line by line, skipping unreadable lines
+     */
+    public static void forEach(Path journal, Consumer<Map<String, Object>> action) throws IOException {
+        int line = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String json;
+            while ((json = reader.readLine()) != null) {
+                line++;
+                if (json.trim().isEmpty()) {
+                    continue;
+                }
+                Map<String, Object> entry;
+                try {
+                    entry = JSON.toType(json, Json.MAP_TYPE);
+                } catch (RuntimeException e) {
+                    // Torn last line from a crash
+                    System.err.println("Skipping unreadable journal line " + line);
+                    continue;
+                }
+                action.accept(entry);
+            }
+        }
+    }
+
+    /**
+     * Event for a journal entry, applied to test (may be null when only
+     * rendering)
+     */
+    static ReportQueue.ReportEvent toEvent(Map<String, Object> entry, ReportHandle test) {
+        ReportQueue.Kind kind = ReportQueue.Kind.valueOf((String) entry.get("kind"));
+        if (kind == ReportQueue.Kind.THROWABLE) {
+            // The original exception object is gone - show its stack trace
+            return new ReportQueue.ReportEvent(test, status(entry), ReportQueue.Kind.TEXT,
+                "<pre>" + escape((String) entry.get("body")) + "</pre>", null, null, null, null, null);
+        }
+        String color = (String) entry.get("color");
+        return new ReportQueue.ReportEvent(test, status(entry), kind, (String) entry.get("text"),
+            (String) entry.get("body"), color != null ? ExtentColor.valueOf(color) : null, rows(entry.get("rows")),
+            null, null);
+    }
+
+    static Status status(Map<String, Object> entry) {
+        return Status.valueOf((String) entry.get("status"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String[][] rows(Object value) {
+        if (value == null) {
+            return null;
+        }
+        List<List<Object>> rows = (List<List<Object>>) value;
+        String[][] result = new String[rows.size()][];
+        for (int i = 0; i < rows.size(); i++) {
+            List<Object> row = rows.get(i);
+            result[i] = new String[row.size()];
+            for (int j = 0; j < row.size(); j++) {
+                result[i][j] = String.valueOf(row.get(j));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Escape text for HTML content and quoted attribute values
+     */
+    static String escape(String text) {
+        return text == null ? "" : text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+            .replace("'", "&#39;").replace("\"", "&quot;");
+    }
+}
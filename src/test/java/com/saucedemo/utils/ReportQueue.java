@@ -0,0 +1,411 @@
+package com.saucedemo.utils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.ExtentColor;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.saucedemo.config.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-writer queue between test threads and ExtentReports
+ *
+ * Test threads only enqueue small immutable events holding raw data (status,
+ * text, table cells, throwable); one "report-writer" thread builds the
+ * markup and applies them to the ExtentTest, so test threads never contend
+ * on the report. Tests and nodes are referred to by ReportHandles, which the
+ * writer resolves to the ExtentTest it creates - a test thread never waits
+ * for it and never touches the Extent model while the writer flushes it.
+ * Events for one test are applied in the order they were logged.
+ * Every applied event is also appended to the ReportJournal.
+ *
+ * The queue holds report.queue.size events. When it is full:
+ * - report.queue.policy=block: the test thread waits for space (default)
+ * - report.queue.policy=caller-runs: the test thread applies the event
+ *   itself under the same lock as the periodic flush (no waiting for space,
+ *   but that event may appear out of order); events for a test or node the
+ *   writer has not created yet still wait
+ * report.async=false applies every event on the calling thread, as before.
+ *
+ * Every report.flush.interval.seconds the writer thread also flushes the
+ * HTML report, so a killed run still leaves a recent report behind.
+ * drain() must be called before the final flush.
+ */
+public class ReportQueue {
+
+    private static final boolean ASYNC =
+        Boolean.parseBoolean(ConfigReader.getProperty("report.async", "true"));
+    private static final int QUEUE_SIZE =
+        Integer.parseInt(ConfigReader.getProperty("report.queue.size", "10000"));
+    private static final boolean CALLER_RUNS =
+        ConfigReader.getProperty("report.queue.policy", "block").equalsIgnoreCase("caller-runs");
+    private static final long FLUSH_INTERVAL_MILLIS =
+        Long.parseLong(ConfigReader.getProperty("report.flush.interval.seconds", "30")) * 1000;
+
+    private static final BlockingQueue<ReportEvent> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private static final Object pendingLock = new Object();
+    // Held while the Extent model is changed or flushed
+    private static final Object modelLock = new Object();
+    private static long pending = 0;
+
+    // Tests that finished since the last periodic flush
+    private static final List<ExtentTest> finished = new ArrayList<>();
+
+    private static final AtomicLong enqueued = new AtomicLong();
+    private static final AtomicLong callerRuns = new AtomicLong();
+    private static final AtomicLong blockedNanos = new AtomicLong();
+    private static final AtomicInteger maxDepth = new AtomicInteger();
+
+    private static volatile Thread consumer;
+
+    enum Kind { TEST, CATEGORY, TEXT, LABEL, VARIABLE, LIST, KEY_VALUES, TABLE, CODE, THROWABLE, MEDIA, NODE, FINISH }
+
+    /**
+     * One report operation, holding only raw data - markup is built when it
+     * is applied
+     */
+    static final class ReportEvent {
+        final long timestamp = System.currentTimeMillis();
+        final ReportHandle test;
+        final Status status;
+        final Kind kind;
+        final String text;
+        final String body;
+        final ExtentColor color;
+        final String[][] rows;
+        final Throwable throwable;
+        final ReportHandle node;
+
+        ReportEvent(ReportHandle test, Status status, Kind kind, String text, String body, ExtentColor color,
+                    String[][] rows, Throwable throwable, ReportHandle node) {
+            this.test = test;
+            this.status = status;
+            this.kind = kind;
+            this.text = text;
+            this.body = body;
+            this.color = color;
+            this.rows = rows;
+            this.throwable = throwable;
+            this.node = node;
+        }
+    }
+
+    /**
+     * Create a top-level test. Like a node, the handle is returned right away
+     * and the writer creates the test in extent.
+     */
+    public static ReportHandle createTest(ExtentReports extent, String name, String description) {
+        ReportHandle test = new ReportHandle(name, extent);
+        submit(new ReportEvent(test, Status.INFO, Kind.TEST, name, description, null, null, null, null));
+        return test;
+    }
+
+    public static void category(ReportHandle test, String category) {
+        submit(new ReportEvent(test, Status.INFO, Kind.CATEGORY, category, null, null, null, null, null));
+    }
+
+    public static void log(ReportHandle test, Status status, String text) {
+        submit(new ReportEvent(test, status, Kind.TEXT, text, null, null, null, null, null));
+    }
+
+    /**
+     * Colored label (MarkupHelper.createLabel)
+     */
+    public static void label(ReportHandle test, Status status, String text, ExtentColor color) {
+        submit(new ReportEvent(test, status, Kind.LABEL, text, null, color, null, null, null));
+    }
+
+    /**
+     * "<b>name</b> = <code>value</code>"
+     */
+    public static void variable(ReportHandle test, String name, String value) {
+        submit(new ReportEvent(test, Status.INFO, Kind.VARIABLE, name, value, null, null, null, null));
+    }
+
+    /**
+     * Title followed by a numbered bullet list of items
+     */
+    public static void list(ReportHandle test, String title, String[] items) {
+        String[][] rows = new String[items.length][];
+        for (int i = 0; i < items.length; i++) {
+            rows[i] = new String[]{String.valueOf(i), items[i]};
+        }
+        submit(new ReportEvent(test, Status.INFO, Kind.LIST, title, null, null, rows, null, null));
+    }
+
+    /**
+     * Title followed by a bullet list of bold keys and values
+     */
+    public static void keyValues(ReportHandle test, String title, String[][] entries) {
+        submit(new ReportEvent(test, Status.INFO, Kind.KEY_VALUES, title, null, null, entries, null, null));
+    }
+
+    public static void table(ReportHandle test, String title, String[][] data) {
+        submit(new ReportEvent(test, Status.INFO, Kind.TABLE, title, null, null, data, null, null));
+    }
+
+    public static void code(ReportHandle test, String title, String code, String language) {
+        submit(new ReportEvent(test, Status.INFO, Kind.CODE, title, code, null, new String[][]{{language}},
+            null, null));
+    }
+
+    public static void throwable(ReportHandle test, Status status, Throwable throwable) {
+        submit(new ReportEvent(test, status, Kind.THROWABLE, null, null, null, null, throwable, null));
+    }
+
+    /**
+     * Screenshot embedded as Base64
+     */
+    public static void media(ReportHandle test, String base64, String title) {
+        submit(new ReportEvent(test, Status.INFO, Kind.MEDIA, title, base64, null, null, null, null));
+    }
+
+    /**
+     * Create a child node (optionally with a first info line). The handle is
+     * returned right away and can be logged to at once; the writer creates
+     * the node before applying anything logged to it.
+     * @return null without a parent
+     */
+    public static ReportHandle createNode(ReportHandle parent, String name, String firstInfo) {
+        if (parent == null) {
+            return null;
+        }
+        ReportHandle node = new ReportHandle(name);
+        submit(new ReportEvent(parent, Status.INFO, Kind.NODE, name, firstInfo, null, null, null, node));
+        return node;
+    }
+
+    /**
+     * The test has a final status - its heap may be released after the next
+     * periodic flush (report.release.completed)
+     */
+    public static void finishTest(ReportHandle test) {
+        submit(new ReportEvent(test, Status.INFO, Kind.FINISH, null, null, null, null, null, null));
+    }
+
+    private static void submit(ReportEvent event) {
+        if (event.test == null) {
+            return;
+        }
+        if (!ASYNC) {
+            applyAndJournal(event);
+            return;
+        }
+
+        startConsumer();
+        synchronized (pendingLock) {
+            pending++;
+        }
+        enqueued.incrementAndGet();
+
+        if (!queue.offer(event)) {
+            if (CALLER_RUNS && (event.kind == Kind.TEST || event.test.isResolved())) {
+                callerRuns.incrementAndGet();
+                applyAndComplete(event);
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                queue.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                applyAndComplete(event);
+                return;
+            } finally {
+                blockedNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+        maxDepth.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    private static synchronized void startConsumer() {
+        if (consumer != null) {
+            return;
+        }
+        consumer = new Thread(ReportQueue::consume, "report-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    private static void consume() {
+        long nextFlush = System.currentTimeMillis() + FLUSH_INTERVAL_MILLIS;
+        while (true) {
+            try {
+                long wait = FLUSH_INTERVAL_MILLIS > 0
+                    ? Math.max(1, nextFlush - System.currentTimeMillis())
+                    : Long.MAX_VALUE;
+                ReportEvent event = queue.poll(wait, TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    applyAndComplete(event);
+                }
+                if (queue.isEmpty()) {
+                    // Idle - push buffered journal lines to the OS
+                    ReportJournal.flush();
+                }
+                if (FLUSH_INTERVAL_MILLIS > 0 && System.currentTimeMillis() >= nextFlush) {
+                    nextFlush = System.currentTimeMillis() + FLUSH_INTERVAL_MILLIS;
+                    flushPeriodic();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // A failed journal or report flush must not stop the writer - drain() waits for it
+                ConsoleSink.err("⚠️ Report writer: " + e);
+            }
+        }
+    }
+
+    private static void flushPeriodic() {
+        List<ExtentTest> completed;
+        synchronized (finished) {
+            completed = new ArrayList<>(finished);
+            finished.clear();
+        }
+        synchronized (modelLock) {
+            ExtentReportManager.flushIncremental(completed);
+        }
+    }
+
+    private static void applyAndComplete(ReportEvent event) {
+        try {
+            applyAndJournal(event);
+        } finally {
+            synchronized (pendingLock) {
+                pending--;
+                pendingLock.notifyAll();
+            }
+        }
+    }
+
+    private static void applyAndJournal(ReportEvent event) {
+        try {
+            synchronized (modelLock) {
+                ExtentTest node = apply(event);
+                ReportJournal.append(event, node);
+            }
+            if (event.kind == Kind.FINISH) {
+                synchronized (finished) {
+                    finished.add(event.test.get());
+                }
+            }
+        } catch (RuntimeException e) {
+            ConsoleSink.err("Report event failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply one event to its test
+     * @return the created node for NODE events, otherwise null
+     */
+    static ExtentTest apply(ReportEvent event) {
+        if (event.kind == Kind.TEST) {
+            ExtentTest created = event.test.getReports().createTest(event.text, event.body);
+            // Started when the test thread created the handle, not when the writer got to it
+            created.getModel().setStartTime(new Date(event.timestamp));
+            event.test.resolve(created);
+            return null;
+        }
+        ExtentTest test = event.test.get();
+        if (test == null) {
+            throw new IllegalStateException("'" + event.test.getName() + "' was never created");
+        }
+        switch (event.kind) {
+            case FINISH:
+                // Nothing to render
+                return null;
+            case CATEGORY:
+                test.assignCategory(event.text);
+                return null;
+            case THROWABLE:
+                test.log(event.status, event.throwable);
+                return null;
+            case MEDIA:
+                test.addScreenCaptureFromBase64String(event.body, event.text);
+                return null;
+            case NODE:
+                ExtentTest node = test.createNode(event.text);
+                if (event.body != null) {
+                    node.info(event.body);
+                }
+                if (event.node != null) {
+                    event.node.resolve(node);
+                }
+                return node;
+            default:
+                test.log(event.status, render(event));
+                return null;
+        }
+    }
+
+    /**
+     * HTML for a log event (TEXT, LABEL, VARIABLE, LIST, KEY_VALUES, TABLE, CODE)
+     */
+    static String render(ReportEvent event) {
+        switch (event.kind) {
+            case TEXT:
+                return event.text;
+            case LABEL:
+                return MarkupHelper.createLabel(event.text, event.color).getMarkup();
+            case VARIABLE:
+                return "<b>" + event.text + "</b> = <code>" + event.body + "</code>";
+            case LIST:
+                StringBuilder list = new StringBuilder(event.text).append("<ul>");
+                for (String[] row : event.rows) {
+                    list.append("<li>").append(row[0]).append(": ").append(row[1]).append("</li>");
+                }
+                return list.append("</ul>").toString();
+            case KEY_VALUES:
+                StringBuilder entries = new StringBuilder(event.text).append("<ul>");
+                for (String[] row : event.rows) {
+                    entries.append("<li><b>").append(row[0]).append("</b>: ").append(row[1]).append("</li>");
+                }
+                return entries.append("</ul>").toString();
+            case TABLE:
+                return "<b>" + event.text + "</b>" + MarkupHelper.createTable(event.rows).getMarkup();
+            case CODE:
+                return "<b>" + event.text + "</b><pre><code class='language-" + event.rows[0][0] + "'>"
+                    + event.body + "</code></pre>";
+            default:
+                throw new IllegalStateException("Not a log event: " + event.kind);
+        }
+    }
+
+    /**
+     * Block until every queued event has been applied, or the writer thread
+     * has died (the events left are then lost)
+     */
+    public static void drain() {
+        long start = System.currentTimeMillis();
+        synchronized (pendingLock) {
+            while (pending > 0) {
+                Thread writer = consumer;
+                if (writer != null && !writer.isAlive()) {
+                    System.err.println("⚠️ Report writer thread died - " + pending + " events not applied");
+                    return;
+                }
+                try {
+                    pendingLock.wait(TimeUnit.SECONDS.toMillis(1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.err.println("Interrupted while draining report queue - " + pending + " events pending");
+                    return;
+                }
+            }
+        }
+        if (enqueued.get() > 0) {
+            System.out.println(String.format("📨 Report queue: %d events (max depth %d/%d), "
+                    + "%d applied by test threads, %dms blocked, drained in %dms",
+                enqueued.get(), maxDepth.get(), QUEUE_SIZE, callerRuns.get(),
+                TimeUnit.NANOSECONDS.toMillis(blockedNanos.get()), System.currentTimeMillis() - start));
+        }
+    }
+}
@@ -0,0 +1,648 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of every run, kept across runs (history.dir/results.jsonl)
+ *
+ * One line per finished test: run, time, test (Class#method), browser,
+ * status, duration, retries, failure signature and Jira key. The file is
+ * only ever appended to; the first query reads it once into an index by
+ * test + browser, and results recorded later in the run are added to that
+ * index too.
+ *
+ * stats() gives p50/p95 duration (passed runs), failure and flake rate
+ * and the duration trend over the last history.window runs - used by
+ * HistoryOrderInterceptor to order tests, by the listener for the report,
+ * and by the HistoryQuery runner.
+ *
+ * Timings inside tests (page transitions such as "login->inventory") go to
+ * timings.jsonl next to it, one sample per line; RegressionDetector reads
+ * both.
+ */
+public class ResultStore {
+
+    private static final boolean ENABLED =
+        Boolean.parseBoolean(ConfigReader.getProperty("history.enabled", "true"));
+    private static final Path FILE =
+        Paths.get(ConfigReader.getProperty("history.dir", "test-history/"), "results.jsonl");
+    private static final Path TIMINGS_FILE = FILE.resolveSibling("timings.jsonl");
+    private static final int WINDOW = Integer.parseInt(ConfigReader.getProperty("history.window", "50"));
+
+    private static final String RUN_ID = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+
+    // test|browser -> results, oldest first
+    private static Map<String, List<Result>> index;
+    private static BufferedWriter writer;
+    // name|browser -> samples, oldest first
+    private static Map<String, List<Sample>> timingIndex;
+    private static BufferedWriter timingWriter;
+
+    /**
+     * One test's outcome in one run
+     */
+    public static final class Result {
+        private final String run;
+        private final long timestamp;
+        private final String test;
+        private final String browser;
+        private final String status;
+        private final long durationMillis;
+        private final int retries;
+        private final String failure;
+        private final String jiraKey;
+
+        Result(String run, long timestamp, String test, String browser, String status, long durationMillis,
+               int retries, String failure, String jiraKey) {
+            this.run = run;
+            this.timestamp = timestamp;
+            this.test = test;
+            this.browser = browser;
+            this.status = status;
+            this.durationMillis = durationMillis;
+            this.retries = retries;
+            this.failure = failure;
+            this.jiraKey = jiraKey;
+        }
+
+        public String getRun() {
+            return run;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getTest() {
+            return test;
+        }
+
+        public String getBrowser() {
+            return browser;
+        }
+
+        /**
+         * passed, failed or skipped
+         */
+        public String getStatus() {
+            return status;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public int getRetries() {
+            return retries;
+        }
+
+        /**
+         * Failure signature (see signature()), null unless failed
+         */
+        public String getFailure() {
+            return failure;
+        }
+
+        public String getJiraKey() {
+            return jiraKey;
+        }
+    }
+
+    /**
+     * One timing sample (e.g. a page transition) in one run
+     */
+    public static final class Sample {
+        private final String run;
+        private final long timestamp;
+        private final String name;
+        private final String browser;
+        private final long durationMillis;
+
+        Sample(String run, long timestamp, String name, String browser, long durationMillis) {
+            this.run = run;
+            this.timestamp = timestamp;
+            this.name = name;
+            this.browser = browser;
+            this.durationMillis = durationMillis;
+        }
+
+        public String getRun() {
+            return run;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getBrowser() {
+            return browser;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+    }
+
+    /**
+     * Aggregates over a test's last history.window runs on one browser
+     */
+    public static final class TestStats {
+        private final String test;
+        private final String browser;
+        private final int runs;
+        private final int failures;
+        private final long p50;
+        private final long p95;
+        private final double flakeRate;
+        private final double trendPercent;
+        private final String lastStatus;
+        private final String topFailure;
+
+        TestStats(String test, String browser, int runs, int failures, long p50, long p95, double flakeRate,
+                  double trendPercent, String lastStatus, String topFailure) {
+            this.test = test;
+            this.browser = browser;
+            this.runs = runs;
+            this.failures = failures;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.flakeRate = flakeRate;
+            this.trendPercent = trendPercent;
+            this.lastStatus = lastStatus;
+            this.topFailure = topFailure;
+        }
+
+        public String getTest() {
+            return test;
+        }
+
+        public String getBrowser() {
+            return browser;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public double getFailureRate() {
+            return runs == 0 ? 0 : (double) failures / runs;
+        }
+
+        /**
+         * Median duration of passed runs (ms), -1 without any
+         */
+        public long getP50() {
+            return p50;
+        }
+
+        /**
+         * 95th percentile duration of passed runs (ms), -1 without any
+         */
+        public long getP95() {
+            return p95;
+        }
+
+        /**
+         * Share of runs that passed only after a retry or whose outcome
+         * flipped (pass/fail) from the run before
+         */
+        public double getFlakeRate() {
+            return flakeRate;
+        }
+
+        /**
+         * Median duration of the newer half of passed runs against the older
+         * half, in percent (+20 = 20% slower); NaN with fewer than 4
+         */
+        public double getTrendPercent() {
+            return trendPercent;
+        }
+
+        public String getLastStatus() {
+            return lastStatus;
+        }
+
+        /**
+         * Most frequent failure signature, or null
+         */
+        public String getTopFailure() {
+            return topFailure;
+        }
+
+        /**
+         * "12 runs: p50 1.2s, p95 2.0s, 8% failed, 17% flaky, trend +5%"
+         */
+        public String summary() {
+            StringBuilder text = new StringBuilder().append(runs).append(runs == 1 ? " run" : " runs");
+            if (p50 >= 0) {
+                text.append(": p50 ").append(seconds(p50)).append(", p95 ").append(seconds(p95)).append(',');
+            } else {
+                text.append(':');
+            }
+            text.append(String.format(" %.0f%% failed, %.0f%% flaky", getFailureRate() * 100, flakeRate * 100));
+            if (!Double.isNaN(trendPercent)) {
+                text.append(String.format(", trend %+.0f%%", trendPercent));
+            }
+            return text.toString();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static String getRunId() {
+        return RUN_ID;
+    }
+
+    /**
+     * Runs per series that the stats (and the regression baseline) look at
+     */
+    public static int getWindow() {
+        return WINDOW;
+    }
+
+    /**
+     * Append a finished test (final attempt only; retries is how many
+     * attempts before it were retried)
+     */
+    public static void record(String test, String browser, String status, long durationMillis, int retries,
+                              Throwable failure, String jiraKey) {
+        if (!ENABLED) {
+            return;
+        }
+        Result result = new Result(RUN_ID, System.currentTimeMillis(), test, browser, status, durationMillis, retries,
+            failure != null ? signature(failure) : null, jiraKey);
+
+        StringBuilder line = new StringBuilder(256);
+        line.append("{\"run\":\"").append(result.run).append("\",\"ts\":").append(result.timestamp)
+            .append(",\"test\":");
+        JsonText.quote(line, test).append(",\"browser\":");
+        JsonText.quote(line, browser).append(",\"status\":\"").append(status)
+            .append("\",\"duration\":").append(durationMillis).append(",\"retries\":").append(retries);
+        if (result.failure != null) {
+            JsonText.quote(line.append(",\"failure\":"), result.failure);
+        }
+        if (jiraKey != null) {
+            JsonText.quote(line.append(",\"jira\":"), jiraKey);
+        }
+        line.append("}\n");
+
+        synchronized (ResultStore.class) {
+            try {
+                if (writer == null) {
+                    writer = open(FILE);
+                }
+                writer.write(line.toString());
+                // One line per test - cheap enough to survive a killed run
+                writer.flush();
+            } catch (IOException e) {
+                ConsoleSink.err("Result store write failed: " + e.getMessage());
+            }
+            if (index != null) {
+                index.computeIfAbsent(key(test, browser), k -> new ArrayList<>()).add(result);
+            }
+        }
+    }
+
+    /**
+     * Append a timing sample of the current run (name such as
+     * "login->inventory")
+     */
+    public static void recordTiming(String name, String browser, long durationMillis) {
+        if (!ENABLED) {
+            return;
+        }
+        Sample sample = new Sample(RUN_ID, System.currentTimeMillis(), name, browser, durationMillis);
+
+        StringBuilder line = new StringBuilder(128);
+        line.append("{\"run\":\"").append(sample.run).append("\",\"ts\":").append(sample.timestamp)
+            .append(",\"name\":");
+        JsonText.quote(line, name).append(",\"browser\":");
+        JsonText.quote(line, browser).append(",\"duration\":").append(durationMillis).append("}\n");
+
+        synchronized (ResultStore.class) {
+            try {
+                if (timingWriter == null) {
+                    timingWriter = open(TIMINGS_FILE);
+                }
+                timingWriter.write(line.toString());
+                timingWriter.flush();
+            } catch (IOException e) {
+                ConsoleSink.err("Result store write failed: " + e.getMessage());
+            }
+            if (timingIndex != null) {
+                timingIndex.computeIfAbsent(key(name, browser), k -> new ArrayList<>()).add(sample);
+            }
+        }
+    }
+
+    /**
+     * Every timing series in the store (one list per name + browser, oldest
+     * first)
+     */
+    public static List<List<Sample>> allTimings() {
+        List<List<Sample>> series = new ArrayList<>();
+        synchronized (ResultStore.class) {
+            for (List<Sample> samples : timingIndex().values()) {
+                series.add(new ArrayList<>(samples));
+            }
+        }
+        return series;
+    }
+
+    /**
+     * Every test's results in the store (one list per test + browser, oldest
+     * first)
+     */
+    public static List<List<Result>> allHistory() {
+        List<List<Result>> histories = new ArrayList<>();
+        synchronized (ResultStore.class) {
+            for (List<Result> results : index().values()) {
+                histories.add(new ArrayList<>(results));
+            }
+        }
+        return histories;
+    }
+
+    /**
+     * Results of test on browser, oldest first
+     */
+    public static List<Result> history(String test, String browser) {
+        synchronized (ResultStore.class) {
+            List<Result> results = index().get(key(test, browser));
+            return results != null ? new ArrayList<>(results) : Collections.emptyList();
+        }
+    }
+
+    /**
+     * Stats of test on browser, or null if it never ran there
+     */
+    public static TestStats stats(String test, String browser) {
+        List<Result> results = history(test, browser);
+        return results.isEmpty() ? null : compute(test, browser, results);
+    }
+
+    /**
+     * Stats of every test + browser in the store
+     */
+    public static List<TestStats> allStats() {
+        List<TestStats> stats = new ArrayList<>();
+        synchronized (ResultStore.class) {
+            for (List<Result> results : index().values()) {
+                Result first = results.get(0);
+                stats.add(compute(first.test, first.browser, new ArrayList<>(results)));
+            }
+        }
+        stats.sort(Comparator.comparing(TestStats::getTest).thenComparing(TestStats::getBrowser));
+        return stats;
+    }
+
+    /**
+     * Stats of test over every browser it ran on, or null
+     */
+    public static TestStats stats(String test) {
+        List<Result> results = new ArrayList<>();
+        synchronized (ResultStore.class) {
+            for (List<Result> perBrowser : index().values()) {
+                if (perBrowser.get(0).test.equals(test)) {
+                    results.addAll(perBrowser);
+                }
+            }
+        }
+        if (results.isEmpty()) {
+            return null;
+        }
+        results.sort(Comparator.comparingLong(Result::getTimestamp));
+        return compute(test, "*", results);
+    }
+
+    /**
+     * "AssertionError: expected [#] but found [#] @ CartTest.testCheckout" -
+     * exception type, message with numbers masked, and the innermost
+     * com.saucedemo frame, so the same failure groups across runs
+     */
+    public static String signature(Throwable failure) {
+        Throwable root = failure;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String message = root.getMessage() != null ? root.getMessage().split("\\R", 2)[0] : "";
+        message = message.replaceAll("\\d+", "#");
+        if (message.length() > 120) {
+            message = message.substring(0, 120);
+        }
+        StringBuilder signature = new StringBuilder(root.getClass().getSimpleName());
+        if (!message.isEmpty()) {
+            signature.append(": ").append(message);
+        }
+        for (StackTraceElement frame : root.getStackTrace()) {
+            if (frame.getClassName().startsWith("com.saucedemo.")) {
+                String className = frame.getClassName();
+                signature.append(" @ ").append(className.substring(className.lastIndexOf('.') + 1))
+                    .append('.').append(frame.getMethodName());
+                break;
+            }
+        }
+        return signature.toString();
+    }
+
+    /**
+     * Print the slowest and flakiest tests (end of the suite)
+     */
+    public static void printSummary() {
+        if (!ENABLED) {
+            return;
+        }
+        List<TestStats> stats = allStats();
+        if (stats.isEmpty()) {
+            return;
+        }
+        System.out.println("\n📚 Test history (" + FILE.toAbsolutePath() + "):");
+        stats.stream()
+            .filter(s -> s.getP95() >= 0)
+            .sorted(Comparator.comparingLong(TestStats::getP95).reversed())
+            .limit(5)
+            .forEach(s -> System.out.println("   🐢 " + s.getTest() + " [" + s.getBrowser() + "] " + s.summary()));
+        stats.stream()
+            .filter(s -> s.getFlakeRate() > 0)
+            .sorted(Comparator.comparingDouble(TestStats::getFlakeRate).reversed())
+            .limit(5)
+            .forEach(s -> System.out.println("   🎲 " + s.getTest() + " [" + s.getBrowser() + "] " + s.summary()));
+    }
+
+    private static BufferedWriter open(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        boolean torn = endsMidLine(path);
+        BufferedWriter opened = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (torn) {
+            // Last line of a killed run - keep ours on a line of its own
+            opened.write('\n');
+        }
+        return opened;
+    }
+
+    private static boolean endsMidLine(Path path) throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            return false;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            file.seek(file.length() - 1);
+            return file.read() != '\n';
+        }
+    }
+
+    private static String key(String test, String browser) {
+        return test + '|' + browser;
+    }
+
+    /**
+     * Load the store on first use (caller holds the class lock)
+     */
+    private static Map<String, List<Result>> index() {
+        if (index != null) {
+            return index;
+        }
+        index = new HashMap<>();
+        if (!ENABLED || !Files.exists(FILE)) {
+            return index;
+        }
+        try {
+            ReportJournal.forEach(FILE, entry -> {
+                Result result = new Result((String) entry.get("run"), number(entry.get("ts")),
+                    (String) entry.get("test"), (String) entry.get("browser"), (String) entry.get("status"),
+                    number(entry.get("duration")), (int) number(entry.get("retries")),
+                    (String) entry.get("failure"), (String) entry.get("jira"));
+                index.computeIfAbsent(key(result.test, result.browser), k -> new ArrayList<>()).add(result);
+            });
+        } catch (IOException e) {
+            System.err.println("Result store unreadable: " + e.getMessage());
+        }
+        for (List<Result> results : index.values()) {
+            results.sort(Comparator.comparingLong(Result::getTimestamp));
+        }
+        return index;
+    }
+
+    /**
+     * Load the timing samples on first use (caller holds the class lock)
+     */
+    private static Map<String, List<Sample>> timingIndex() {
+        if (timingIndex != null) {
+            return timingIndex;
+        }
+        timingIndex = new HashMap<>();
+        if (!ENABLED || !Files.exists(TIMINGS_FILE)) {
+            return timingIndex;
+        }
+        try {
+            ReportJournal.forEach(TIMINGS_FILE, entry -> {
+                Sample sample = new Sample((String) entry.get("run"), number(entry.get("ts")),
+                    (String) entry.get("name"), (String) entry.get("browser"), number(entry.get("duration")));
+                timingIndex.computeIfAbsent(key(sample.name, sample.browser), k -> new ArrayList<>()).add(sample);
+            });
+        } catch (IOException e) {
+            System.err.println("Result store unreadable: " + e.getMessage());
+        }
+        for (List<Sample> samples : timingIndex.values()) {
+            samples.sort(Comparator.comparingLong(Sample::getTimestamp));
+        }
+        return timingIndex;
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private static TestStats compute(String test, String browser, List<Result> all) {
+        List<Result> results = all.size() > WINDOW ? all.subList(all.size() - WINDOW, all.size()) : all;
+
+        long[] passed = results.stream()
+            .filter(r -> r.status.equals("passed"))
+            .mapToLong(Result::getDurationMillis)
+            .toArray();
+        long[] sorted = passed.clone();
+        Arrays.sort(sorted);
+
+        int failures = 0;
+        int flaky = 0;
+        String previous = null;
+        Map<String, Integer> signatures = new HashMap<>();
+        for (Result result : results) {
+            if (result.status.equals("failed")) {
+                failures++;
+                if (result.failure != null) {
+                    signatures.merge(result.failure, 1, Integer::sum);
+                }
+            }
+            boolean decided = !result.status.equals("skipped");
+            if ((result.status.equals("passed") && result.retries > 0)
+                || (decided && previous != null && !previous.equals(result.status))) {
+                flaky++;
+            }
+            if (decided) {
+                previous = result.status;
+            }
+        }
+
+        double trend = Double.NaN;
+        if (passed.length >= 4) {
+            int half = passed.length / 2;
+            double older = median(Arrays.copyOfRange(passed, 0, half));
+            double newer = median(Arrays.copyOfRange(passed, passed.length - half, passed.length));
+            if (older > 0) {
+                trend = (newer - older) / older * 100;
+            }
+        }
+
+        String topFailure = signatures.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(Map.Entry::getKey)
+            .orElse(null);
+        return new TestStats(test, browser, results.size(), failures,
+            sorted.length > 0 ? percentile(sorted, 50) : -1, sorted.length > 0 ? percentile(sorted, 95) : -1,
+            (double) flaky / results.size(), trend, results.get(results.size() - 1).status, topFailure);
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values
+     */
+    private static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+
+    private static String seconds(long millis) {
+        return millis < 1000 ? millis + "ms" : String.format("%.1fs", millis / 1000.0);
+    }
+}
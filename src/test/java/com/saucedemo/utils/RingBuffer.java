@@ -0,0 +1,87 @@
+package com.saucedemo.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded, thread-safe FIFO that keeps only the newest items
+ *
+ * Bounded both by item count and by total size (as measured by the sizer),
+ * so memory use stays under a fixed cap no matter how long a test runs.
+ * Adding an item evicts the oldest ones until both limits hold again.
+ */
+public class RingBuffer<T> {
+
+    private final ArrayDeque<T> items = new ArrayDeque<>();
+    private final int maxItems;
+    private final long maxBytes;
+    private final ToLongFunction<T> sizer;
+
+    private long bytes;
+    private long dropped;
+
+    /**
+     * @param maxItems maximum number of items kept
+     * @param maxBytes maximum total size of the items kept
+     * @param sizer size of one item in bytes
+     */
+    public RingBuffer(int maxItems, long maxBytes, ToLongFunction<T> sizer) {
+        this.maxItems = Math.max(1, maxItems);
+        this.maxBytes = maxBytes;
+        this.sizer = sizer;
+    }
+
+    public synchronized void add(T item) {
+        long size = sizer.applyAsLong(item);
+        if (size > maxBytes) {
+            // Would evict everything else and still not fit
+            dropped++;
+            return;
+        }
+
+        items.addLast(item);
+        bytes += size;
+        while (items.size() > maxItems || bytes > maxBytes) {
+            bytes -= sizer.applyAsLong(items.removeFirst());
+            dropped++;
+        }
+    }
+
+    /**
+     * Copy of the current items, oldest first
+     */
+    public synchronized List<T> snapshot() {
+        return new ArrayList<>(items);
+    }
+
+    /**
+     * Remove and return every item, oldest first
+     */
+    public synchronized List<T> drain() {
+        List<T> drained = new ArrayList<>(items);
+        clear();
+        return drained;
+    }
+
+    public synchronized void clear() {
+        items.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return items.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Items evicted (or rejected) so far to stay within the limits
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,349 @@
+package com.saucedemo.utils;
+
+import com.aventstack.extentreports.Status;
+import com.saucedemo.config.ConfigReader;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rolling screencast of each browser session, kept only for failures
+ *
+ * While screencast.enabled is on, every session streams JPEG frames over
+ * its DevTools connection (Page.startScreencast / Page.screencastFrame),
+ * never over the WebDriver command channel the test thread is using. The
+ * browser sends a frame when the page repaints; at most one frame per
+ * screencast.interval.ms is kept, plus the newest one. Frames go into a
+ * per-session RingBuffer holding the last screencast.seconds, capped at
+ * screencast.max.mb. Nothing touches the disk unless the test fails - then
+ * the frames are encoded to an animated GIF in the ArtifactStore and linked
+ * from the report.
+ *
+ * Browsers without a DevTools connection (e.g. Firefox) are not recorded.
+ */
+public class ScreencastRecorder {
+
+    private static final boolean ENABLED =
+        Boolean.parseBoolean(ConfigReader.getProperty("screencast.enabled", "false"));
+    private static final long INTERVAL_MILLIS =
+        Long.parseLong(ConfigReader.getProperty("screencast.interval.ms", "500"));
+    private static final int SECONDS =
+        Integer.parseInt(ConfigReader.getProperty("screencast.seconds", "15"));
+    private static final long MAX_BYTES =
+        Long.parseLong(ConfigReader.getProperty("screencast.max.mb", "16")) * 1024 * 1024;
+    private static final int JPEG_QUALITY =
+        Integer.parseInt(ConfigReader.getProperty("screencast.quality", "50"));
+    private static final int WIDTH =
+        Integer.parseInt(ConfigReader.getProperty("screencast.width", "800"));
+
+    private static final Map<WebDriver, Recording> recordings = new IdentityHashMap<>();
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final AtomicInteger saved = new AtomicInteger();
+
+    // Frame acks are sent from here, not from the DevTools event thread
+    private static ExecutorService acknowledger;
+
+    private static class Frame {
+        final long timestamp;
+        final byte[] image;
+
+        Frame(long timestamp, byte[] image) {
+            this.timestamp = timestamp;
+            this.image = image;
+        }
+    }
+
+    private static class Recording {
+        final RingBuffer<Frame> frames = new RingBuffer<>(
+            (int) Math.max(1, SECONDS * 1000L / INTERVAL_MILLIS), MAX_BYTES, frame -> frame.image.length);
+        DevTools devTools;
+        volatile boolean stopped;
+        // Newest frame, when it came within screencast.interval.ms of the last kept one
+        Frame latest;
+        long lastKept;
+
+        synchronized void add(Frame frame) {
+            if (frame.timestamp - lastKept >= INTERVAL_MILLIS) {
+                frames.add(frame);
+                lastKept = frame.timestamp;
+                latest = null;
+            } else {
+                latest = frame;
+            }
+        }
+
+        synchronized List<Frame> drain() {
+            List<Frame> drained = frames.drain();
+            if (latest != null) {
+                drained.add(latest);
+                latest = null;
+            }
+            return drained;
+        }
+
+        synchronized void clear() {
+            frames.clear();
+            latest = null;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Start the session's screencast (no-op unless screencast.enabled)
+     */
+    public static void start(WebDriver webDriver) {
+        if (!ENABLED || webDriver == null) {
+            return;
+        }
+        if (!(webDriver instanceof HasDevTools)) {
+            ConsoleSink.err("Screencast needs a DevTools connection - this session is not recorded");
+            return;
+        }
+        Recording recording = new Recording();
+        synchronized (recordings) {
+            if (recordings.containsKey(webDriver)) {
+                return;
+            }
+            recordings.put(webDriver, recording);
+        }
+        try {
+            DevTools devTools = ((HasDevTools) webDriver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.addListener(new Event<Map<String, Object>>("Page.screencastFrame",
+                input -> input.read(Json.MAP_TYPE)), frame -> onFrame(devTools, recording, frame));
+            devTools.send(new Command<>("Page.enable", Collections.emptyMap()));
+
+            Map<String, Object> params = new HashMap<>();
+            params.put("format", "jpeg");
+            params.put("quality", JPEG_QUALITY);
+            if (WIDTH > 0) {
+                params.put("maxWidth", WIDTH);
+            }
+            devTools.send(new Command<>("Page.startScreencast", params));
+            recording.devTools = devTools;
+        } catch (RuntimeException e) {
+            // No matching DevTools version
+            ConsoleSink.err("Screencast unavailable: " + e.getMessage());
+            recording.stopped = true;
+        }
+    }
+
+    /**
+     * Stop the session's screencast and free its frames (call before
+     * quitting it)
+     */
+    public static void stop(WebDriver webDriver) {
+        Recording recording;
+        synchronized (recordings) {
+            recording = recordings.remove(webDriver);
+        }
+        if (recording == null) {
+            return;
+        }
+        recording.stopped = true;
+        recording.clear();
+        if (recording.devTools != null) {
+            try {
+                recording.devTools.send(new Command<>("Page.stopScreencast", Collections.emptyMap()));
+            } catch (RuntimeException e) {
+                // Connection already closed
+            }
+        }
+    }
+
+    /**
+     * Drop the frames recorded so far - the test passed
+     */
+    public static void discard(WebDriver webDriver) {
+        Recording recording = recording(webDriver);
+        if (recording != null) {
+            recording.clear();
+        }
+    }
+
+    /**
+     * Encode the frames recorded so far to an animated GIF (in the
+     * background) and link it from the report
+     */
+    public static void saveAsync(WebDriver webDriver, String name, ReportHandle test) {
+        Recording recording = recording(webDriver);
+        if (recording == null) {
+            return;
+        }
+        List<Frame> frames = recording.drain();
+        if (frames.isEmpty()) {
+            return;
+        }
+
+        ScreenshotWriter.submit(() -> {
+            try {
+                byte[] gif = encodeGif(frames);
+                Path stored = ArtifactStore.put(gif, "gif");
+                saved.incrementAndGet();
+                String message = "🎞️ Screencast of the last " + seconds(frames) + "s ("
+                    + frames.size() + " frames, " + gif.length / 1024 + " KB): " + stored;
+                ConsoleSink.out(message + " [" + name + "]");
+                if (test != null) {
+                    String link = Paths.get(ExtentReportManager.getReportDir()).toAbsolutePath()
+                        .relativize(stored.toAbsolutePath()).toString().replace('\\', '/');
+                    ReportQueue.log(test, Status.INFO, "🎞️ <a href='" + link + "' target='_blank'>"
+                        + "Screencast of the last " + seconds(frames) + "s</a> (" + frames.size() + " frames, "
+                        + gif.length / 1024 + " KB)");
+                }
+            } catch (IOException e) {
+                ConsoleSink.err("Failed to encode screencast for " + name + ": " + e.getMessage());
+            }
+        });
+    }
+
+    public static int getSavedCount() {
+        return saved.get();
+    }
+
+    /**
+     * Keep a frame and ack it - the browser sends the next one only after
+     * the ack
+     */
+    private static void onFrame(DevTools devTools, Recording recording, Map<String, Object> frame) {
+        if (recording.stopped) {
+            return;
+        }
+        try {
+            recording.add(new Frame(System.currentTimeMillis(),
+                Base64.getDecoder().decode((String) frame.get("data"))));
+        } catch (RuntimeException e) {
+            // Unexpected frame shape - still ack so the stream keeps going
+        }
+        Object sessionId = frame.get("sessionId");
+        acknowledger().execute(() -> {
+            try {
+                devTools.send(new Command<>("Page.screencastFrameAck",
+                    Collections.singletonMap("sessionId", sessionId)));
+            } catch (RuntimeException e) {
+                // Session is being quit
+            }
+        });
+    }
+
+    private static byte[] encodeGif(List<Frame> frames) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.prepareWriteSequence(null);
+            for (int i = 0; i < frames.size(); i++) {
+                BufferedImage image = scale(ImageIO.read(new ByteArrayInputStream(frames.get(i).image)));
+                if (image == null) {
+                    continue;
+                }
+                long delay = i + 1 < frames.size()
+                    ? frames.get(i + 1).timestamp - frames.get(i).timestamp
+                    : INTERVAL_MILLIS;
+                writer.writeToSequence(new IIOImage(image, null, frameMetadata(writer, image, delay, i == 0)), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static IIOMetadata frameMetadata(ImageWriter writer, BufferedImage image, long delayMillis,
+                                             boolean first) throws IOException {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), null);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        IIOMetadataNode control = new IIOMetadataNode("GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", String.valueOf(Math.max(1, delayMillis / 10)));
+        control.setAttribute("transparentColorIndex", "0");
+        root.appendChild(control);
+
+        if (first) {
+            // Loop forever
+            IIOMetadataNode extensions = new IIOMetadataNode("ApplicationExtensions");
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[]{1, 0, 0});
+            extensions.appendChild(loop);
+            root.appendChild(extensions);
+        }
+
+        metadata.setFromTree(format, root);
+        return metadata;
+    }
+
+    private static BufferedImage scale(BufferedImage image) {
+        if (image == null) {
+            return null;
+        }
+        int width = WIDTH > 0 ? Math.min(WIDTH, image.getWidth()) : image.getWidth();
+        int height = Math.max(1, image.getHeight() * width / image.getWidth());
+        BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = output.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+        return output;
+    }
+
+    private static long seconds(List<Frame> frames) {
+        return Math.max(1, (frames.get(frames.size() - 1).timestamp - frames.get(0).timestamp) / 1000);
+    }
+
+    private static Recording recording(WebDriver webDriver) {
+        if (webDriver == null) {
+            return null;
+        }
+        synchronized (recordings) {
+            return recordings.get(webDriver);
+        }
+    }
+
+    private static synchronized ExecutorService acknowledger() {
+        if (acknowledger == null) {
+            int threads = Integer.parseInt(ConfigReader.getProperty("screencast.threads", "2"));
+            acknowledger = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "screencast-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return acknowledger;
+    }
+}
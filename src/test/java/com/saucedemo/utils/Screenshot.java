@@ -0,0 +1,162 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigReader;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A single captured screenshot (raw PNG bytes)
+ *
+ * Every output - file on disk, Base64 for the HTML report, thumbnail - is
+ * derived from the same buffer, so one failure costs one driver round trip.
+ * The file is stored in the ArtifactStore at most once.
+ */
+public class Screenshot {
+
+    private static final int MAX_WIDTH = ConfigReader.getScreenshotMaxWidth();
+    private static final int MAX_HEIGHT = ConfigReader.getScreenshotMaxHeight();
+
+    private final byte[] png;
+    private final String name;
+
+    private CompletableFuture<String> saved;
+
+    public Screenshot(byte[] png, String name) {
+        this.png = png;
+        this.name = name;
+    }
+
+    public byte[] getBytes() {
+        return png;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Pixel width/height, read from the PNG header without decoding
+     * (-1 if the bytes are not a PNG)
+     */
+    public int getWidth() {
+        return headerInt(16);
+    }
+
+    public int getHeight() {
+        return headerInt(20);
+    }
+
+    /**
+     * The PNG, downscaled if it is larger than screenshot.max.width /
+     * screenshot.max.height. Stored and embedded copies use this.
+     */
+    public byte[] limitedPng() throws IOException {
+        boolean tooWide = MAX_WIDTH > 0 && getWidth() > MAX_WIDTH;
+        boolean tooTall = MAX_HEIGHT > 0 && getHeight() > MAX_HEIGHT;
+        return tooWide || tooTall ? encode("png", 0.8f, MAX_WIDTH, MAX_HEIGHT) : png;
+    }
+
+    /**
+     * Base64 of the (size-limited) PNG, for embedding in the report. Not
+     * cached - the encoded string is ~1.3x the PNG and only needed until it
+     * is embedded.
+     */
+    public String toBase64() {
+        try {
+            return Base64.getEncoder().encodeToString(limitedPng());
+        } catch (IOException e) {
+            return Base64.getEncoder().encodeToString(png);
+        }
+    }
+
+    /**
+     * Store the PNG in the ArtifactStore (once) on the ScreenshotWriter
+     * executor. The path depends on the content hash, so it is only known
+     * when the returned future completes.
+     */
+    public synchronized CompletableFuture<String> saveToFile() {
+        if (saved == null) {
+            saved = ScreenshotWriter.supplyAsync(() -> ArtifactStore.putImage(limitedPng(), "png", png).toString());
+        }
+        return saved;
+    }
+
+    /**
+     * Small JPEG thumbnail no wider than maxWidth, for inline report previews
+     */
+    public byte[] thumbnail(int maxWidth) throws IOException {
+        return encode("jpg", 0.6f, maxWidth, 0);
+    }
+
+    /**
+     * Re-encode the screenshot
+     * @param format "png" (re-compressed) or "jpg"
+     * @param quality 0.0 - 1.0; JPEG quality, or PNG compression effort
+     * @param maxWidth downscale to fit this width (0 = no limit)
+     * @param maxHeight downscale to fit this height (0 = no limit)
+     */
+    public byte[] encode(String format, float quality, int maxWidth, int maxHeight) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            return png;
+        }
+
+        boolean jpeg = format.equalsIgnoreCase("jpg") || format.equalsIgnoreCase("jpeg");
+        double scale = 1.0;
+        if (maxWidth > 0) {
+            scale = Math.min(scale, (double) maxWidth / image.getWidth());
+        }
+        if (maxHeight > 0) {
+            scale = Math.min(scale, (double) maxHeight / image.getHeight());
+        }
+        int width = Math.max(1, (int) (image.getWidth() * scale));
+        int height = Math.max(1, (int) (image.getHeight() * scale));
+
+        // JPEG has no alpha channel - always draw onto an RGB canvas
+        BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = output.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(jpeg ? "jpg" : "png").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                param.setCompressionType(param.getCompressionTypes()[0]);
+            }
+            // PNG: lower "quality" = more deflate effort; JPEG: usual quality
+            param.setCompressionQuality(jpeg ? quality : 1.0f - quality);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(output, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private int headerInt(int offset) {
+        if (png.length < 24 || png[1] != 'P' || png[2] != 'N' || png[3] != 'G') {
+            return -1;
+        }
+        return ((png[offset] & 0xff) << 24) | ((png[offset + 1] & 0xff) << 16)
+            | ((png[offset + 2] & 0xff) << 8) | (png[offset + 3] & 0xff);
+    }
+}
@@ -1,77 +1,101 @@
 package com.saucedemo.utils;
 
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import com.saucedemo.config.ConfigReader;
 
-import java.io.File;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Base64;
-import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class ScreenshotUtil {
 
-    public static String captureScreenshot(WebDriver driver, String testName) {
-        if (!ConfigReader.isScreenshotEnabled()) {
-            return null;
-        }
+    // One capture per failure event, shared by the listener and BaseTest.tearDown
+    private static ThreadLocal<Screenshot> failureCapture = new ThreadLocal<>();
 
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String screenshotName = testName + "_" + timestamp + ".png";
-        String screenshotDir = ConfigReader.getScreenshotDir();
-
-        // Create screenshots directory if it doesn't exist
-        File directory = new File(screenshotDir);
-        if (!directory.exists()) {
-            directory.mkdirs();
+    /**
+     * Capture the screen as raw PNG bytes - the only driver round trip
+     * @param driver WebDriver instance
+     * @return PNG bytes, or null if the capture failed
+     */
+    public static byte[] captureBytes(WebDriver driver) {
+        try {
+            return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } catch (Exception e) {
+            ConsoleSink.err("Failed to capture screenshot: " + e.getMessage());
+            return null;
         }
+    }
 
-        String screenshotPath = screenshotDir + screenshotName;
+    /**
+     * Capture a screenshot
+     * @param driver WebDriver instance
+     * @param name Base file name
+     * @return Screenshot, or null if the capture failed
+     */
+    public static Screenshot capture(WebDriver driver, String name) {
+        byte[] png = captureBytes(driver);
+        return png != null ? new Screenshot(png, name) : null;
+    }
 
+    /**
+     * Capture only one element (e.g. the cart list) - a fraction of the
+     * pixels of a full-window capture
+     * @param element Element to capture
+     * @param name Base file name
+     * @return Screenshot, or null if the capture failed
+     */
+    public static Screenshot captureElement(WebElement element, String name) {
         try {
-            TakesScreenshot screenshot = (TakesScreenshot) driver;
-            File source = screenshot.getScreenshotAs(OutputType.FILE);
-            File destination = new File(screenshotPath);
-            FileUtils.copyFile(source, destination);
-            System.out.println("Screenshot captured: " + screenshotPath);
-            return screenshotPath;
-        } catch (IOException e) {
-            System.err.println("Failed to capture screenshot: " + e.getMessage());
+            return new Screenshot(element.getScreenshotAs(OutputType.BYTES), name);
+        } catch (Exception e) {
+            ConsoleSink.err("Failed to capture element screenshot: " + e.getMessage());
             return null;
         }
     }
 
-    public static String captureScreenshot(WebDriver driver, String testName, String browser) {
-        if (!ConfigReader.isScreenshotEnabled()) {
-            return null;
+    /**
+     * Screenshot for the current thread's failing test. The first caller
+     * captures; later callers for the same test reuse that capture.
+     * @param driver WebDriver instance
+     * @param testName Test name
+     * @param browser Browser name
+     * @return Screenshot, or null if the capture failed
+     */
+    public static Screenshot captureFailure(WebDriver driver, String testName, String browser) {
+        String name = testName + "_" + browser;
+        Screenshot cached = failureCapture.get();
+        if (cached != null && cached.getName().equals(name)) {
+            return cached;
         }
 
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String screenshotName = testName + "_" + browser + "_" + timestamp + ".png";
-        String screenshotDir = ConfigReader.getScreenshotDir();
-
-        // Create screenshots directory if it doesn't exist
-        File directory = new File(screenshotDir);
-        if (!directory.exists()) {
-            directory.mkdirs();
+        Screenshot screenshot = capture(driver, name);
+        if (screenshot != null) {
+            failureCapture.set(screenshot);
         }
+        return screenshot;
+    }
 
-        String screenshotPath = screenshotDir + screenshotName;
+    /**
+     * Forget the current thread's failure capture (call when a test starts)
+     */
+    public static void clearFailureCapture() {
+        failureCapture.remove();
+    }
 
-        try {
-            TakesScreenshot screenshot = (TakesScreenshot) driver;
-            File source = screenshot.getScreenshotAs(OutputType.FILE);
-            File destination = new File(screenshotPath);
-            FileUtils.copyFile(source, destination);
-            System.out.println("Screenshot captured: " + screenshotPath);
-            return screenshotPath;
-        } catch (IOException e) {
-            System.err.println("Failed to capture screenshot: " + e.getMessage());
+    public static String captureScreenshot(WebDriver driver, String testName) {
+        if (!ConfigReader.isScreenshotEnabled()) {
             return null;
         }
+        return saveAndWait(capture(driver, testName));
+    }
+
+    public static String captureScreenshot(WebDriver driver, String testName, String browser) {
+        if (!ConfigReader.isScreenshotEnabled()) {
+            return null;
+        }
+        return saveAndWait(capture(driver, testName + "_" + browser));
     }
 
     /**
@@ -80,29 +104,55 @@ public class ScreenshotUtil {
      * @return Base64 encoded screenshot string
      */
     public static String captureScreenshotAsBase64(WebDriver driver) {
-        try {
-            TakesScreenshot screenshot = (TakesScreenshot) driver;
-            String base64 = screenshot.getScreenshotAs(OutputType.BASE64);
-            System.out.println("📸 Screenshot captured as Base64 (embedded in report)");
-            return base64;
-        } catch (Exception e) {
-            System.err.println("Failed to capture Base64 screenshot: " + e.getMessage());
+        Screenshot screenshot = capture(driver, "screenshot");
+        if (screenshot == null) {
             return null;
         }
+        ConsoleSink.out("📸 Screenshot captured as Base64 (embedded in report)");
+        return screenshot.toBase64();
     }
 
     /**
-     * Capture screenshot as Base64 and also save to file
+     * Capture screenshot as Base64 and also save to file (single capture)
      * @param driver WebDriver instance
      * @param testName Test name
      * @param browser Browser name
      * @return Base64 encoded screenshot string
      */
     public static String captureScreenshotAsBase64AndSave(WebDriver driver, String testName, String browser) {
-        // Save to file first
-        captureScreenshot(driver, testName, browser);
+        Screenshot screenshot = capture(driver, testName + "_" + browser);
+        if (screenshot == null) {
+            return null;
+        }
+        if (ConfigReader.isScreenshotEnabled()) {
+            save(screenshot);
+        }
+        return screenshot.toBase64();
+    }
 
-        // Return base64 for embedding
-        return captureScreenshotAsBase64(driver);
+    /**
+     * Store a captured screenshot in the ArtifactStore under screenshot.dir
+     * (in the background - ScreenshotWriter.flush() waits for it)
+     * @return future saved path; completes with null if nothing was saved
+     */
+    public static CompletableFuture<String> save(Screenshot screenshot) {
+        if (screenshot == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return screenshot.saveToFile().whenComplete((screenshotPath, error) -> {
+            if (error != null) {
+                ConsoleSink.err("Failed to save screenshot " + screenshot.getName() + ": " + error.getMessage());
+            } else {
+                ConsoleSink.out("Screenshot captured: " + screenshotPath);
+            }
+        });
+    }
+
+    private static String saveAndWait(Screenshot screenshot) {
+        try {
+            return save(screenshot).join();
+        } catch (CompletionException e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,223 @@
+package com.saucedemo.utils;
+
+import com.aventstack.extentreports.Status;
+import com.saucedemo.config.ConfigReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded background executor for screenshot persistence
+ *
+ * Test threads only do the driver capture; Base64 encoding, report
+ * embedding and disk writes (NIO FileChannel) run here. When the queue is
+ * full the submitting thread runs the task itself, so nothing is dropped.
+ * flush() is the barrier that guarantees every artifact is written - call it
+ * before the report is flushed.
+ */
+public class ScreenshotWriter {
+
+    private static final int THREADS =
+        Integer.parseInt(ConfigReader.getProperty("screenshot.writer.threads", "2"));
+    private static final int QUEUE_SIZE =
+        Integer.parseInt(ConfigReader.getProperty("screenshot.writer.queue", "32"));
+
+    private static final String STORAGE = ConfigReader.getProperty("screenshot.storage", "embedded");
+    private static final String FORMAT = resolveFormat(ConfigReader.getProperty("screenshot.format", "png"));
+    private static final float QUALITY =
+        Float.parseFloat(ConfigReader.getProperty("screenshot.quality", "0.8"));
+    private static final int THUMBNAIL_WIDTH =
+        Integer.parseInt(ConfigReader.getProperty("screenshot.thumbnail.width", "240"));
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final Object pendingLock = new Object();
+    private static int pending = 0;
+
+    // Distinct screenshot files the report links to (external storage)
+    private static final Set<Path> referenced = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong referencedBytes = new AtomicLong();
+
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        THREADS, THREADS, 30, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(QUEUE_SIZE),
+        runnable -> {
+            Thread thread = new Thread(runnable, "screenshot-writer-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy()
+    );
+
+    static {
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Run a persistence task in the background
+     */
+    public static void submit(Runnable task) {
+        synchronized (pendingLock) {
+            pending++;
+        }
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                ConsoleSink.err("Screenshot task failed: " + e.getMessage());
+            } finally {
+                synchronized (pendingLock) {
+                    pending--;
+                    pendingLock.notifyAll();
+                }
+            }
+        });
+    }
+
+    /**
+     * Run a persistence task in the background and complete the returned
+     * future with its result (or its exception)
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        submit(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Write bytes to a file in the background
+     */
+    public static void writeAsync(Path path, byte[] bytes) {
+        submit(() -> {
+            try {
+                write(path, bytes);
+            } catch (IOException e) {
+                ConsoleSink.err("Failed to write " + path + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Attach a screenshot to the report in the background, according to
+     * screenshot.storage:
+     * - embedded: PNG as Base64 inside the HTML
+     * - external: re-encoded file in the ArtifactStore (screenshot.format /
+     *   screenshot.quality), with a small inline thumbnail linking to it
+     */
+    public static void attachAsync(ReportHandle test, Screenshot screenshot, String title) {
+        if (test == null || screenshot == null) {
+            return;
+        }
+        if (isExternalStorage()) {
+            submit(() -> attachExternal(test, screenshot, title));
+        } else {
+            submit(() -> ReportQueue.media(test, screenshot.toBase64(), title));
+        }
+    }
+
+    /**
+     * Size of the distinct screenshot files the report links to. Embedded
+     * screenshots are part of the HTML, so this is 0 in embedded mode.
+     */
+    public static long getReferencedBytes() {
+        return referencedBytes.get();
+    }
+
+    public static boolean isExternalStorage() {
+        return STORAGE.equalsIgnoreCase("external");
+    }
+
+    private static void attachExternal(ReportHandle test, Screenshot screenshot, String title) {
+        try {
+            byte[] full = screenshot.encode(FORMAT, QUALITY,
+                ConfigReader.getScreenshotMaxWidth(), ConfigReader.getScreenshotMaxHeight());
+            // Identical screens (e.g. the same page failing on two browsers) share one file
+            Path stored = ArtifactStore.putImage(full, FORMAT, screenshot.getBytes());
+            String link = Paths.get(ExtentReportManager.getReportDir()).toAbsolutePath()
+                .relativize(stored.toAbsolutePath()).toString().replace('\\', '/');
+            if (referenced.add(stored.toAbsolutePath())) {
+                referencedBytes.addAndGet(Files.size(stored));
+            }
+            String safeTitle = ReportJournal.escape(title);
+
+            String thumbnail = Base64.getEncoder().encodeToString(screenshot.thumbnail(THUMBNAIL_WIDTH));
+            ReportQueue.log(test, Status.INFO, "<a href='" + link + "' target='_blank' title='" + safeTitle + "'>"
+                + "<img src='data:image/jpeg;base64," + thumbnail + "' style='max-width:"
+                + THUMBNAIL_WIDTH + "px;border:1px solid #ccc'/></a>"
+                + "<br/>📸 " + safeTitle + " (<a href='" + link + "' target='_blank'>full size, "
+                + full.length / 1024 + " KB</a>)");
+        } catch (IOException e) {
+            // Fall back to embedding so the screenshot is never lost
+            ReportQueue.media(test, screenshot.toBase64(), title);
+        }
+    }
+
+    /**
+     * Block until every submitted task has finished
+     */
+    public static void flush() {
+        long start = System.currentTimeMillis();
+        synchronized (pendingLock) {
+            while (pending > 0) {
+                try {
+                    pendingLock.wait(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.err.println("Interrupted while flushing screenshots - " + pending + " still pending");
+                    return;
+                }
+            }
+        }
+        long waited = System.currentTimeMillis() - start;
+        if (waited > 0) {
+            System.out.println("📸 Screenshot writer flushed in " + waited + "ms");
+        }
+    }
+
+    private static String resolveFormat(String format) {
+        String normalized = format.trim().toLowerCase();
+        if (normalized.equals("jpeg")) {
+            return "jpg";
+        }
+        if (!normalized.equals("png") && !normalized.equals("jpg")) {
+            // e.g. webp - no encoder in the JDK's ImageIO
+            ConsoleSink.err("Screenshot format '" + format + "' is not supported - using jpg");
+            return "jpg";
+        }
+        return normalized;
+    }
+
+    static void write(Path path, byte[] bytes) throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) {
+            parent.toFile().mkdirs();
+        }
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for browser session creation (launch-storm throttling)
+ *
+ * Limits how many browsers may be launching at the same moment. This is
+ * separate from the per-browser cap on live sessions in DriverFactory: a
+ * machine can hold many open browsers but only start a couple at a time.
+ *
+ * The launch limit adapts to observed launch latency (AIMD):
+ * - launch slower than the target  → halve the limit and back off new launches
+ * - launch faster than the target  → raise the limit by one, reset the backoff
+ *
+ * Queue wait and launch time of every session are recorded.
+ */
+public class SessionAdmissionController {
+
+    private final int maxConcurrent;
+    private final long targetLaunchMillis;
+    private final long maxBackoffMillis;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition slotFreed = lock.newCondition();
+    private final List<LaunchRecord> records = Collections.synchronizedList(new ArrayList<>());
+
+    private int limit;
+    private int inFlight;
+    private long backoffMillis;
+    private long backoffUntil;
+
+    public SessionAdmissionController(int maxConcurrent, long targetLaunchMillis, long maxBackoffMillis) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.targetLaunchMillis = targetLaunchMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.limit = this.maxConcurrent;
+    }
+
+    /**
+     * Controller configured from config.properties
+     */
+    public static SessionAdmissionController fromConfig() {
+        return new SessionAdmissionController(
+            Integer.parseInt(ConfigReader.getProperty("session.launch.max.concurrent", "2")),
+            Long.parseLong(ConfigReader.getProperty("session.launch.target.ms", "8000")),
+            Long.parseLong(ConfigReader.getProperty("session.launch.max.backoff.ms", "5000"))
+        );
+    }
+
+    /**
+     * Run a session launch once admitted, recording queue wait and launch time
+     */
+    public <T> T launch(String browser, Supplier<T> launcher) {
+        long queuedAt = System.nanoTime();
+        admit();
+        long admittedAt = System.nanoTime();
+
+        boolean success = false;
+        try {
+            T session = launcher.get();
+            success = true;
+            return session;
+        } finally {
+            long finishedAt = System.nanoTime();
+            long waitMillis = (admittedAt - queuedAt) / 1_000_000;
+            long launchMillis = (finishedAt - admittedAt) / 1_000_000;
+            int limitAtLaunch = complete(launchMillis, success);
+            records.add(new LaunchRecord(browser, Thread.currentThread().getName(),
+                waitMillis, launchMillis, limitAtLaunch, success));
+        }
+    }
+
+    private void admit() {
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                if (inFlight < limit && now >= backoffUntil) {
+                    inFlight++;
+                    return;
+                }
+                if (inFlight < limit) {
+                    slotFreed.await(backoffUntil - now, TimeUnit.MILLISECONDS);
+                } else {
+                    slotFreed.await();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to launch a browser session", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int complete(long launchMillis, boolean success) {
+        lock.lock();
+        try {
+            inFlight--;
+            int limitAtLaunch = limit;
+
+            if (!success || launchMillis > targetLaunchMillis) {
+                // Machine is saturated - launch fewer at once and space them out
+                limit = Math.max(1, limit / 2);
+                backoffMillis = backoffMillis == 0 ? 500 : Math.min(maxBackoffMillis, backoffMillis * 2);
+                backoffUntil = System.currentTimeMillis() + backoffMillis;
+            } else {
+                limit = Math.min(maxConcurrent, limit + 1);
+                backoffMillis = 0;
+                backoffUntil = 0;
+            }
+
+            slotFreed.signalAll();
+            return limitAtLaunch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCurrentLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<LaunchRecord> getRecords() {
+        synchronized (records) {
+            return new ArrayList<>(records);
+        }
+    }
+
+    /**
+     * Print per-session queue wait / launch time
+     */
+    public void printSummary() {
+        List<LaunchRecord> snapshot = getRecords();
+        if (snapshot.isEmpty()) {
+            return;
+        }
+
+        long totalWait = 0;
+        long totalLaunch = 0;
+        long maxLaunch = 0;
+        System.out.println("\n🚦 Session launches (limit " + maxConcurrent + ", target "
+            + targetLaunchMillis + "ms):");
+        for (LaunchRecord record : snapshot) {
+            System.out.println("   " + record);
+            totalWait += record.waitMillis;
+            totalLaunch += record.launchMillis;
+            maxLaunch = Math.max(maxLaunch, record.launchMillis);
+        }
+        System.out.println("   avg wait " + totalWait / snapshot.size() + "ms, avg launch "
+            + totalLaunch / snapshot.size() + "ms, max launch " + maxLaunch + "ms");
+    }
+
+    /**
+     * Queue wait and launch time of a single session
+     */
+    public static class LaunchRecord {
+        public final String browser;
+        public final String thread;
+        public final long waitMillis;
+        public final long launchMillis;
+        public final int limit;
+        public final boolean success;
+
+        LaunchRecord(String browser, String thread, long waitMillis, long launchMillis,
+                     int limit, boolean success) {
+            this.browser = browser;
+            this.thread = thread;
+            this.waitMillis = waitMillis;
+            this.launchMillis = launchMillis;
+            this.limit = limit;
+            this.success = success;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %-28s wait %6dms  launch %6dms  limit %d%s",
+                browser, thread, waitMillis, launchMillis, limit, success ? "" : "  FAILED");
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigReader;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of every browser session DriverFactory creates, with a watchdog
+ * that reclaims leaked sessions
+ *
+ * A session leaks when its test thread never reaches quitDriver(), e.g. a
+ * timeout or an exception in a @BeforeMethod. The watchdog quits sessions
+ * whose owning thread has died, or whose owning test finished more than
+ * session.reaper.grace.seconds ago. A JVM shutdown hook quits whatever is
+ * still registered and kills leftover driver/browser processes.
+ */
+public class SessionRegistry {
+
+    private static final long GRACE_MILLIS =
+        Long.parseLong(ConfigReader.getProperty("session.reaper.grace.seconds", "60")) * 1000;
+    private static final long CHECK_INTERVAL_SECONDS =
+        Long.parseLong(ConfigReader.getProperty("session.reaper.interval.seconds", "10"));
+
+    private static final Map<WebDriver, Session> sessions = new IdentityHashMap<>();
+    private static final AtomicInteger created = new AtomicInteger();
+    private static final AtomicInteger reclaimed = new AtomicInteger();
+    private static final AtomicBoolean started = new AtomicBoolean();
+
+    private static ScheduledExecutorService watchdog;
+
+    private static class Session {
+        final WebDriver webDriver;
+        final String browser;
+        final Thread owner;
+        final Runnable onReclaim;
+        volatile long testFinishedAt;
+
+        Session(WebDriver webDriver, String browser, Thread owner, Runnable onReclaim) {
+            this.webDriver = webDriver;
+            this.browser = browser;
+            this.owner = owner;
+            this.onReclaim = onReclaim;
+        }
+    }
+
+    /**
+     * Track a new session owned by the current thread. onReclaim runs if the
+     * watchdog has to quit it (to release the slot the session was holding).
+     */
+    public static void register(WebDriver webDriver, String browser, Runnable onReclaim) {
+        startWatchdog();
+        synchronized (sessions) {
+            sessions.put(webDriver, new Session(webDriver, browser, Thread.currentThread(), onReclaim));
+        }
+        created.incrementAndGet();
+    }
+
+    /**
+     * Stop tracking a session that is being quit normally
+     *
+     * @return false if the session was unknown (already reclaimed by the watchdog)
+     */
+    public static boolean unregister(WebDriver webDriver) {
+        synchronized (sessions) {
+            return sessions.remove(webDriver) != null;
+        }
+    }
+
+    public static boolean isRegistered(WebDriver webDriver) {
+        synchronized (sessions) {
+            return sessions.containsKey(webDriver);
+        }
+    }
+
+    /**
+     * Mark sessions owned by the current thread as belonging to a finished test
+     */
+    public static void markTestFinished() {
+        Thread current = Thread.currentThread();
+        long now = System.currentTimeMillis();
+        synchronized (sessions) {
+            for (Session session : sessions.values()) {
+                if (session.owner == current) {
+                    session.testFinishedAt = now;
+                }
+            }
+        }
+    }
+
+    /**
+     * Quit a leaked session and count it as reclaimed
+     */
+    public static void reclaim(WebDriver webDriver, String reason) {
+        Session session;
+        synchronized (sessions) {
+            session = sessions.remove(webDriver);
+        }
+        if (session == null) {
+            return;
+        }
+
+        ConsoleSink.out("  🧹 Reclaiming leaked " + session.browser + " session from "
+            + session.owner.getName() + " (" + reason + ")");
+        try {
+            session.webDriver.quit();
+        } catch (Exception e) {
+            // Browser already gone - the slot still needs releasing
+        }
+        session.onReclaim.run();
+        reclaimed.incrementAndGet();
+    }
+
+    public static int getReclaimedCount() {
+        return reclaimed.get();
+    }
+
+    /**
+     * Print created / reclaimed / still open session counts
+     */
+    public static void printSummary() {
+        int open;
+        synchronized (sessions) {
+            open = sessions.size();
+        }
+        System.out.println("\n🧹 Sessions: " + created.get() + " created, "
+            + reclaimed.get() + " leaks reclaimed, " + open + " still open");
+    }
+
+    private static void startWatchdog() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+
+        watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.scheduleWithFixedDelay(SessionRegistry::reapOrphans,
+            CHECK_INTERVAL_SECONDS, CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(SessionRegistry::shutdown, "session-reaper-shutdown"));
+    }
+
+    private static void reapOrphans() {
+        long now = System.currentTimeMillis();
+        List<Session> orphans = new ArrayList<>();
+        synchronized (sessions) {
+            for (Session session : sessions.values()) {
+                boolean ownerDead = !session.owner.isAlive();
+                boolean testDone = session.testFinishedAt > 0 && now - session.testFinishedAt > GRACE_MILLIS;
+                if (ownerDead || testDone) {
+                    orphans.add(session);
+                }
+            }
+        }
+
+        for (Session session : orphans) {
+            reclaim(session.webDriver, session.owner.isAlive()
+                ? "test finished " + (now - session.testFinishedAt) / 1000 + "s ago"
+                : "owner thread died");
+        }
+    }
+
+    /**
+     * JVM exit: quit tracked sessions, then kill any driver/browser processes left behind
+     */
+    private static void shutdown() {
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+
+        List<Session> remaining;
+        synchronized (sessions) {
+            remaining = new ArrayList<>(sessions.values());
+        }
+        for (Session session : remaining) {
+            reclaim(session.webDriver, "JVM shutdown");
+        }
+
+        int killed = 0;
+        List<ProcessHandle> leftovers = new ArrayList<>();
+        ProcessHandle.current().descendants().forEach(leftovers::add);
+        for (ProcessHandle process : leftovers) {
+            if (MemoryMonitor.processFamily(process) != null && process.destroyForcibly()) {
+                killed++;
+            }
+        }
+
+        if (reclaimed.get() > 0 || killed > 0) {
+            System.out.println("🧹 Shutdown: " + reclaimed.get() + " leaked sessions reclaimed, "
+                + killed + " leftover driver/browser processes killed");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.saucedemo.utils;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Run-level timeline of session scheduling decisions: live session count,
+ * available memory and browser RSS at every admit / hold / release / quit
+ * (and every time idle warm sessions are quit to free memory)
+ *
+ * Written as CSV to test-output/session-timeline.csv at the end of the suite.
+ */
+public class SessionTimeline {
+
+    private static final String TIMELINE_FILE = "test-output/session-timeline.csv";
+
+    private static final List<Entry> entries = Collections.synchronizedList(new ArrayList<>());
+
+    public static void record(String event, String browser, int liveSessions,
+                              long availableMb, Map<String, Long> browserRssMb) {
+        entries.add(new Entry(System.currentTimeMillis(), event, browser,
+            Thread.currentThread().getName(), liveSessions, availableMb, browserRssMb.toString()));
+    }
+
+    /**
+     * Write the timeline as CSV (call once at the end of the suite)
+     */
+    public static void write() {
+        List<Entry> snapshot;
+        synchronized (entries) {
+            snapshot = new ArrayList<>(entries);
+        }
+        if (snapshot.isEmpty()) {
+            return;
+        }
+
+        File file = new File(TIMELINE_FILE);
+        file.getParentFile().mkdirs();
+        SimpleDateFormat format = new SimpleDateFormat("HH:mm:ss.SSS");
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("time,event,browser,thread,live_sessions,available_mb,browser_rss_mb");
+            for (Entry entry : snapshot) {
+                writer.println(format.format(new Date(entry.timestamp)) + ","
+                    + entry.event + ","
+                    + entry.browser + ","
+                    + entry.thread + ","
+                    + entry.liveSessions + ","
+                    + entry.availableMb + ","
+                    + "\"" + entry.browserRss + "\"");
+            }
+            System.out.println("🧠 Session timeline saved at: " + file.getAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Failed to write session timeline: " + e.getMessage());
+        }
+    }
+
+    private static class Entry {
+        final long timestamp;
+        final String event;
+        final String browser;
+        final String thread;
+        final int liveSessions;
+        final long availableMb;
+        final String browserRss;
+
+        Entry(long timestamp, String event, String browser, String thread,
+              int liveSessions, long availableMb, String browserRss) {
+            this.timestamp = timestamp;
+            this.event = event;
+            this.browser = browser;
+            this.thread = thread;
+            this.liveSessions = liveSessions;
+            this.availableMb = availableMb;
+            this.browserRss = browserRss;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Nested timing spans (System.nanoTime), exported as a Chrome trace-event
+ * JSON file
+ *
+ * Spans nest by time on each thread: test > step > page-object method >
+ * driver command. Tests and steps come from TestContext, page-object
+ * methods and driver commands from DriverCommandTracer. Open the exported
+ * file in chrome://tracing or https://ui.perfetto.dev to see where every
+ * thread of a parallel run spent its time.
+ *
+ * Recording a span is a nanoTime read plus an append to the calling
+ * thread's own buffer (no shared state, an uncontended lock, no allocation
+ * per span), so it costs a few hundred nanoseconds at most. Each thread keeps at most
+ * trace.max.events.per.thread spans; later ones are counted and dropped.
+ */
+public class SpanTracer {
+
+    private static final boolean ENABLED =
+        Boolean.parseBoolean(ConfigReader.getProperty("trace.enabled", "true"));
+    private static final int MAX_EVENTS_PER_THREAD =
+        Integer.parseInt(ConfigReader.getProperty("trace.max.events.per.thread", "200000"));
+    private static final String TRACE_DIR = ConfigReader.getProperty("trace.dir", "test-output/traces/");
+
+    // Trace timestamps are relative to this
+    private static final long BASE_NANOS = System.nanoTime();
+
+    private static final List<ThreadBuffer> buffers = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<ThreadBuffer> buffer = ThreadLocal.withInitial(() -> {
+        ThreadBuffer created = new ThreadBuffer(Thread.currentThread());
+        buffers.add(created);
+        return created;
+    });
+
+    /**
+     * One thread's spans, in fixed-size chunks of parallel arrays: no object
+     * per span and no copying as the buffer grows
+     */
+    private static final class ThreadBuffer {
+        private static final int CHUNK = 4096;
+
+        final long threadId;
+        final String threadName;
+        final List<Object[]> chunks = new ArrayList<>();
+        String[] names;
+        String[] categories;
+        long[] starts;
+        long[] ends;
+        int count;
+        long dropped;
+
+        ThreadBuffer(Thread thread) {
+            this.threadId = thread.getId();
+            this.threadName = thread.getName();
+        }
+
+        synchronized void add(String name, String category, long startNanos, long endNanos) {
+            if (count >= MAX_EVENTS_PER_THREAD) {
+                dropped++;
+                return;
+            }
+            int slot = count % CHUNK;
+            if (slot == 0) {
+                names = new String[CHUNK];
+                categories = new String[CHUNK];
+                starts = new long[CHUNK];
+                ends = new long[CHUNK];
+                chunks.add(new Object[]{names, categories, starts, ends});
+            }
+            names[slot] = name;
+            categories[slot] = category;
+            starts[slot] = startNanos;
+            ends[slot] = endNanos;
+            count++;
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        /**
+         * Append spans as trace events
+         * @return number of spans written
+         */
+        synchronized int write(Writer writer, StringBuilder json) throws IOException {
+            for (int i = 0; i < count; i++) {
+                Object[] chunk = chunks.get(i / CHUNK);
+                int slot = i % CHUNK;
+                json.setLength(0);
+                json.append(",\n{\"ph\":\"X\",\"pid\":1,\"tid\":").append(threadId).append(",\"name\":");
+                JsonText.quote(json, ((String[]) chunk[0])[slot]).append(",\"cat\":");
+                JsonText.quote(json, ((String[]) chunk[1])[slot]).append(",\"ts\":");
+                long start = ((long[]) chunk[2])[slot];
+                micros(json, start - BASE_NANOS).append(",\"dur\":");
+                micros(json, ((long[]) chunk[3])[slot] - start).append('}');
+                writer.write(json.toString());
+            }
+            return count;
+        }
+    }
+
+    /**
+     * An open span; close() records it (use with try-with-resources)
+     */
+    public static final class Span implements AutoCloseable {
+        private final String name;
+        private final String category;
+        private final long startNanos;
+
+        private Span(String name, String category) {
+            this.name = name;
+            this.category = category;
+            this.startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            record(name, category, startNanos, System.nanoTime());
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Start a span on the calling thread
+     */
+    public static Span start(String name, String category) {
+        return new Span(name, category);
+    }
+
+    /**
+     * Record a finished span on the calling thread
+     */
+    public static void record(String name, String category, long startNanos, long endNanos) {
+        if (ENABLED) {
+            buffer.get().add(name, category, startNanos, endNanos);
+        }
+    }
+
+    /**
+     * Number of spans recorded so far (all threads)
+     */
+    public static long getEventCount() {
+        long count = 0;
+        for (ThreadBuffer threadBuffer : buffers) {
+            count += threadBuffer.size();
+        }
+        return count;
+    }
+
+    /**
+     * Write every span recorded so far to trace.dir/trace_&lt;timestamp&gt;.json
+     * @return the file written, or null when tracing is off or nothing was recorded
+     */
+    public static Path export() {
+        if (!ENABLED || buffers.isEmpty()) {
+            return null;
+        }
+        Path path = Paths.get(TRACE_DIR,
+            "trace_" + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".json");
+        try {
+            long events = export(path);
+            System.out.println("🧭 Trace: " + events + " spans -> " + path.toAbsolutePath()
+                + " (open in chrome://tracing or ui.perfetto.dev)");
+            return path;
+        } catch (IOException e) {
+            System.err.println("Failed to write trace: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write every span recorded so far to path
+     * @return number of spans written
+     */
+    public static long export(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        long written = 0;
+        long dropped = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+            boolean first = true;
+            for (ThreadBuffer threadBuffer : buffers) {
+                if (threadBuffer.size() == 0) {
+                    continue;
+                }
+                StringBuilder json = new StringBuilder(256);
+                json.append(first ? "" : ",\n")
+                    .append("{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":1,\"tid\":").append(threadBuffer.threadId)
+                    .append(",\"args\":{\"name\":");
+                JsonText.quote(json, threadBuffer.threadName).append("}}");
+                writer.write(json.toString());
+                first = false;
+
+                written += threadBuffer.write(writer, json);
+                synchronized (threadBuffer) {
+                    dropped += threadBuffer.dropped;
+                }
+            }
+            writer.write("\n]}\n");
+        }
+        if (dropped > 0) {
+            System.err.println("⚠️ Trace: " + dropped + " spans dropped (trace.max.events.per.thread="
+                + MAX_EVENTS_PER_THREAD + ")");
+        }
+        return written;
+    }
+
+    /**
+     * Nanoseconds as microseconds with three decimals (the trace format's unit)
+     */
+    private static StringBuilder micros(StringBuilder json, long nanos) {
+        nanos = Math.max(0, nanos);
+        long fraction = nanos % 1000;
+        json.append(nanos / 1000).append('.');
+        if (fraction < 100) {
+            json.append(fraction < 10 ? "00" : "0");
+        }
+        return json.append(fraction);
+    }
+}
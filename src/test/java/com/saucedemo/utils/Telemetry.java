@@ -0,0 +1,277 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.config.ConfigReader;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentSelector;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.View;
+import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OpenTelemetry traces and metrics for the suite, exported as OTLP/JSON
+ *
+ * Spans (one trace per run): suite > test > step, plus one span per driver
+ * session, tagged with test class, Jira key and browser. Metrics are
+ * histograms in milliseconds: session start latency, session slot / memory
+ * wait, driver command latency and test duration.
+ *
+ * Built on the OpenTelemetry SDK: a BatchSpanProcessor queues ended spans
+ * (otel.queue.size, dropped when full) and exports batches of
+ * otel.batch.size at least every otel.batch.delay.ms; a
+ * PeriodicMetricReader exports cumulative metrics every
+ * otel.metrics.interval.seconds. Both go through OtlpJson to every
+ * OtlpExporter: otel.exporter.file.dir (file collector stand-in) and/or
+ * otel.exporter.endpoint (OTLP/HTTP collector). shutdown() exports
+ * everything left and stops the SDK; the next span or metric builds a new
+ * one (watch mode runs one suite per rerun in the same JVM).
+ */
+public class Telemetry {
+
+    private static final boolean ENABLED =
+        Boolean.parseBoolean(ConfigReader.getProperty("otel.enabled", "true"));
+    private static final String SERVICE_NAME = ConfigReader.getProperty("otel.service.name", "saucedemo-ui-tests");
+    private static final int BATCH_SIZE = Integer.parseInt(ConfigReader.getProperty("otel.batch.size", "512"));
+    private static final long BATCH_DELAY_MILLIS =
+        Long.parseLong(ConfigReader.getProperty("otel.batch.delay.ms", "2000"));
+    private static final int QUEUE_SIZE = Integer.parseInt(ConfigReader.getProperty("otel.queue.size", "8192"));
+    private static final long METRICS_INTERVAL_SECONDS =
+        Long.parseLong(ConfigReader.getProperty("otel.metrics.interval.seconds", "30"));
+
+    // Histogram bucket bounds (ms)
+    private static final List<Double> BOUNDS =
+        Arrays.asList(1d, 2d, 5d, 10d, 25d, 50d, 100d, 250d, 500d, 1000d, 2500d, 5000d, 10000d, 30000d, 60000d);
+
+    private static final String SCOPE = "com.saucedemo";
+
+    private static final List<OtlpExporter> exporters = new CopyOnWriteArrayList<>();
+    private static final Map<String, DoubleHistogram> histograms = new ConcurrentHashMap<>();
+    private static final AtomicLong endedSpans = new AtomicLong();
+
+    private static volatile Span suiteSpan;
+    private static volatile Tracer tracer;
+    private static volatile Meter meter;
+    private static SdkTracerProvider tracerProvider;
+    private static SdkMeterProvider meterProvider;
+    private static OtlpJson.Spans spanExporter;
+    private static OtlpJson.Metrics metricExporter;
+
+    /**
+     * A span in progress; end() hands it to the batch processor
+     */
+    public static final class Span {
+        private final io.opentelemetry.api.trace.Span span;
+
+        private Span(io.opentelemetry.api.trace.Span span) {
+            this.span = span;
+        }
+
+        public Span setAttribute(String key, String value) {
+            if (value != null) {
+                span.setAttribute(key, value);
+            }
+            return this;
+        }
+
+        /**
+         * Mark the span as failed (OTLP status ERROR)
+         */
+        public Span setError(String message) {
+            span.setStatus(StatusCode.ERROR, message != null ? message : "");
+            return this;
+        }
+
+        public void end() {
+            if (span.isRecording()) {
+                span.end();
+                endedSpans.incrementAndGet();
+            }
+        }
+
+        public String getSpanId() {
+            return span.getSpanContext().getSpanId();
+        }
+
+        public String getTraceId() {
+            return span.getSpanContext().getTraceId();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Start the root span of the run (call once, from the suite listener)
+     */
+    public static Span startSuite(String suiteName) {
+        suiteSpan = startSpan("suite " + suiteName, null, "test.suite", suiteName);
+        return suiteSpan;
+    }
+
+    public static Span getSuiteSpan() {
+        return suiteSpan;
+    }
+
+    /**
+     * Start a span; attributes are key/value pairs
+     */
+    public static Span startSpan(String name, Span parent, String... attributes) {
+        SpanBuilder builder = tracer().spanBuilder(name).setAllAttributes(attributes(attributes));
+        if (parent != null) {
+            builder.setParent(Context.root().with(parent.span));
+        } else {
+            builder.setNoParent();
+        }
+        return new Span(builder.startSpan());
+    }
+
+    /**
+     * Add a duration (ms) to a histogram; attributes are key/value pairs
+     */
+    public static void recordDuration(String metric, double millis, String... attributes) {
+        if (!ENABLED) {
+            return;
+        }
+        histograms.computeIfAbsent(metric, name -> meter().histogramBuilder(name).setUnit("ms").build())
+            .record(millis, attributes(attributes));
+    }
+
+    /**
+     * Also send every export request to exporter (e.g. an in-process collector)
+     */
+    public static void addExporter(OtlpExporter exporter) {
+        exporters.add(exporter);
+    }
+
+    /**
+     * Export every queued span and the final metrics, then stop the SDK
+     * (call at the end of the suite, after ending the suite span)
+     */
+    public static void shutdown() {
+        SdkTracerProvider tracers;
+        SdkMeterProvider meters;
+        OtlpJson.Spans spans;
+        OtlpJson.Metrics metrics;
+        synchronized (Telemetry.class) {
+            if (tracerProvider == null) {
+                return;
+            }
+            tracers = tracerProvider;
+            meters = meterProvider;
+            spans = spanExporter;
+            metrics = metricExporter;
+            // Instruments belong to the old meter
+            tracerProvider = null;
+            meterProvider = null;
+            tracer = null;
+            meter = null;
+            histograms.clear();
+        }
+        tracers.shutdown().join(30, TimeUnit.SECONDS);
+        meters.shutdown().join(30, TimeUnit.SECONDS);
+        System.out.println("📡 Telemetry: " + spans.getExported() + " spans, "
+            + metrics.getSeries() + " metric series exported ("
+            + (endedSpans.getAndSet(0) - spans.getExported()) + " spans dropped or not sent, "
+            + (spans.getFailures() + metrics.getFailures()) + " failed exports)");
+    }
+
+    private static Tracer tracer() {
+        if (tracer == null) {
+            start();
+        }
+        return tracer;
+    }
+
+    private static Meter meter() {
+        if (meter == null) {
+            start();
+        }
+        return meter;
+    }
+
+    /**
+     * Build the SDK on first use and after a shutdown(); disabled, spans and
+     * metrics go to the no-op providers
+     */
+    private static synchronized void start() {
+        if (tracer != null) {
+            return;
+        }
+        if (!ENABLED) {
+            meter = io.opentelemetry.api.metrics.MeterProvider.noop().get(SCOPE);
+            tracer = io.opentelemetry.api.trace.TracerProvider.noop().get(SCOPE);
+            return;
+        }
+        if (exporters.isEmpty()) {
+            String fileDir = ConfigReader.getProperty("otel.exporter.file.dir", "test-output/otlp/").trim();
+            String endpoint = ConfigReader.getProperty("otel.exporter.endpoint", "").trim();
+            if (!fileDir.isEmpty()) {
+                exporters.add(OtlpExporter.file(Paths.get(fileDir)));
+            }
+            if (!endpoint.isEmpty()) {
+                exporters.add(OtlpExporter.http(endpoint));
+            }
+        }
+
+        Resource resource = Resource.getDefault().merge(Resource.create(Attributes.of(
+            AttributeKey.stringKey("service.name"), SERVICE_NAME,
+            AttributeKey.stringKey("os.name"), System.getProperty("os.name"),
+            AttributeKey.stringKey("process.runtime.version"), System.getProperty("java.version"))));
+
+        spanExporter = new OtlpJson.Spans(exporters);
+        tracerProvider = SdkTracerProvider.builder()
+            .setResource(resource)
+            .addSpanProcessor(BatchSpanProcessor.builder(spanExporter)
+                .setMaxExportBatchSize(BATCH_SIZE)
+                .setMaxQueueSize(QUEUE_SIZE)
+                .setScheduleDelay(Duration.ofMillis(BATCH_DELAY_MILLIS))
+                .build())
+            .build();
+
+        metricExporter = new OtlpJson.Metrics(exporters);
+        meterProvider = SdkMeterProvider.builder()
+            .setResource(resource)
+            .registerView(InstrumentSelector.builder().setType(InstrumentType.HISTOGRAM).build(),
+                View.builder().setAggregation(Aggregation.explicitBucketHistogram(BOUNDS)).build())
+            .registerMetricReader(PeriodicMetricReader.builder(metricExporter)
+                .setInterval(Duration.ofSeconds(METRICS_INTERVAL_SECONDS))
+                .build())
+            .build();
+
+        meter = meterProvider.get(SCOPE);
+        tracer = tracerProvider.get(SCOPE);
+    }
+
+    private static Attributes attributes(String[] keyValues) {
+        AttributesBuilder attributes = Attributes.builder();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            if (keyValues[i + 1] != null) {
+                attributes.put(keyValues[i], keyValues[i + 1]);
+            }
+        }
+        return attributes.build();
+    }
+}
@@ -0,0 +1,210 @@
+package com.saucedemo.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-test logging state: step counter, named timers and the stack of open
+ * spans
+ *
+ * One context per test thread (ThreadLocal), started by the listener in
+ * onTestStart and removed when the test finishes, so parallel tests never
+ * share step numbers or timers. The context is only ever touched by its own
+ * thread, so nothing in it is synchronized.
+ *
+ * The test itself and each of its steps are also recorded as SpanTracer
+ * spans (and Telemetry spans under the test's own): a step lasts until the
+ * next step starts or the test ends.
+ */
+public class TestContext {
+
+    private static final ThreadLocal<TestContext> current = ThreadLocal.withInitial(() -> new TestContext(null));
+
+    private final String testName;
+    private final long startNanos = System.nanoTime();
+    private int stepCounter;
+    private String stepName;
+    private long stepStartNanos;
+    private String jiraKey;
+    private String browser;
+    private Telemetry.Span telemetrySpan;
+    private Telemetry.Span stepTelemetrySpan;
+    private final Map<String, Long> timers = new HashMap<>();
+    private final Deque<Span> spans = new ArrayDeque<>();
+
+    /**
+     * An open span (started with TestLogger.startSpan)
+     */
+    public static final class Span {
+        private final String name;
+        private final long startNanos;
+        private final int depth;
+
+        Span(String name, int depth) {
+            this.name = name;
+            this.startNanos = System.nanoTime();
+            this.depth = depth;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        /**
+         * Number of spans open around this one
+         */
+        public int getDepth() {
+            return depth;
+        }
+    }
+
+    private TestContext(String testName) {
+        this.testName = testName;
+    }
+
+    /**
+     * Start a fresh context for the test about to run on this thread
+     */
+    public static TestContext begin(String testName) {
+        TestContext context = new TestContext(testName);
+        current.set(context);
+        return context;
+    }
+
+    /**
+     * Context of the test running on this thread (an unnamed one outside tests)
+     */
+    public static TestContext current() {
+        return current.get();
+    }
+
+    /**
+     * Drop this thread's context (call when the test finishes)
+     */
+    public static void end() {
+        TestContext context = current.get();
+        if (context.testName != null) {
+            long now = System.nanoTime();
+            context.endStep(now);
+            SpanTracer.record(context.testName, "test", context.startNanos, now);
+            if (context.telemetrySpan != null) {
+                context.telemetrySpan.end();
+            }
+        }
+        current.remove();
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    /**
+     * Jira key and browser of the test (EventLog fields); set by the listener
+     */
+    public TestContext setLabels(String jiraKey, String browser) {
+        this.jiraKey = jiraKey;
+        this.browser = browser;
+        return this;
+    }
+
+    public String getJiraKey() {
+        return jiraKey;
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    /**
+     * Name of the step in progress, or null before the first step
+     */
+    public String getStepName() {
+        return stepName;
+    }
+
+    /**
+     * The test's telemetry span (steps become its children); ended by end()
+     */
+    public void setTelemetrySpan(Telemetry.Span span) {
+        telemetrySpan = span;
+    }
+
+    public Telemetry.Span getTelemetrySpan() {
+        return telemetrySpan;
+    }
+
+    public int nextStep() {
+        return ++stepCounter;
+    }
+
+    /**
+     * Start the span of step name, ending the previous step
+     */
+    public void startStep(String name) {
+        long now = System.nanoTime();
+        endStep(now);
+        stepName = name;
+        stepStartNanos = now;
+        if (telemetrySpan != null) {
+            stepTelemetrySpan = Telemetry.startSpan(name, telemetrySpan, "test.name", testName);
+        }
+    }
+
+    private void endStep(long now) {
+        DriverCommandTracer.closePageSpan();
+        if (stepName != null) {
+            SpanTracer.record(stepName, "step", stepStartNanos, now);
+            stepName = null;
+        }
+        if (stepTelemetrySpan != null) {
+            stepTelemetrySpan.end();
+            stepTelemetrySpan = null;
+        }
+    }
+
+    public int getStepCount() {
+        return stepCounter;
+    }
+
+    public void resetSteps() {
+        stepCounter = 0;
+    }
+
+    public void startTimer(String name) {
+        timers.put(name, System.currentTimeMillis());
+    }
+
+    /**
+     * @return start time of the timer (removed), or null if it was not started
+     */
+    public Long stopTimer(String name) {
+        return timers.remove(name);
+    }
+
+    public void clearTimers() {
+        timers.clear();
+    }
+
+    public Span pushSpan(String name) {
+        Span span = new Span(name, spans.size());
+        spans.push(span);
+        return span;
+    }
+
+    /**
+     * @return the innermost open span (removed), or null if none is open
+     */
+    public Span popSpan() {
+        return spans.poll();
+    }
+
+    public Span peekSpan() {
+        return spans.peek();
+    }
+}
@@ -1,15 +1,17 @@
 package com.saucedemo.utils;
 
-import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
 import com.aventstack.extentreports.markuputils.ExtentColor;
-import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.saucedemo.config.ConfigReader;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Enhanced Test Logger for debugging and detailed test reporting
@@ -22,95 +24,184 @@ import java.util.*;
  * - Exception logging
  * - Table logging
  * - Collection pretty printing
- * - Time tracking
- * - Console + HTML Report logging
+ * - Time tracking (timers and nested spans)
+ * - Console + HTML Report logging (report writes are queued, see ReportQueue;
+ *   console lines go through ConsoleSink)
+ * - Structured JSONL event per log call (EventLog)
+ *
+ * Step numbers, timers and spans live in the current thread's TestContext,
+ * so tests running in parallel never see each other's.
+ *
+ * DEBUG/INFO/WARN/ERROR are gated by log.level (resolved once; -Dtest.debug=true
+ * still forces DEBUG). A disabled level returns before touching the report or
+ * the console - pass a Supplier, or a key and value, so the message is not
+ * built either.
  *
  * Usage:
  * TestLogger.step("Login to application");
  * TestLogger.info("Entering username: " + username);
  * TestLogger.debug("Current URL", driver.getCurrentUrl());
+ * TestLogger.debug(() -> "Cart: " + cartPage.getItemNames());
  * TestLogger.variable("cartCount", cartCount);
  * TestLogger.pass("Login successful");
  */
 public class TestLogger {
 
-    private static int stepCounter = 0;
-    private static Map<String, Long> timers = new HashMap<>();
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    /**
+     * Log levels, lowest first
+     */
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final Level LEVEL = resolveLevel();
+    private static final boolean DEBUG_ENABLED = LEVEL == Level.DEBUG;
+    private static final boolean INFO_ENABLED = LEVEL.compareTo(Level.INFO) <= 0;
+    private static final boolean WARN_ENABLED = LEVEL.compareTo(Level.WARN) <= 0;
+    private static final boolean ERROR_ENABLED = LEVEL.compareTo(Level.ERROR) <= 0;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final DateTimeFormatter SECOND_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss.");
 
     /**
-     * Log debug message (only visible in report, not in console by default)
+     * "HH:mm:ss." of the current second, formatted once per second
+     */
+    private static final class ClockSecond {
+        private final long epochSecond;
+        private final String text;
+
+        ClockSecond(long epochSecond, String text) {
+            this.epochSecond = epochSecond;
+            this.text = text;
+        }
+    }
+
+    private static volatile ClockSecond clockSecond = new ClockSecond(Long.MIN_VALUE, "");
+
+    /**
+     * Log debug message
      */
     public static void debug(String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        if (!DEBUG_ENABLED) {
+            return;
+        }
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.log(Status.INFO, "🔍 DEBUG: " + message);
+            ReportQueue.log(test, Status.INFO, "🔍 DEBUG: " + message);
         }
-        if (isDebugEnabled()) {
-            System.out.println("  🔍 [DEBUG] " + getCurrentTime() + " " + message);
+        console(false, "  🔍 [DEBUG] ", message);
+        EventLog.log("DEBUG", "log", message);
+    }
+
+    /**
+     * Log debug message built only when debug is enabled
+     */
+    public static void debug(Supplier<String> message) {
+        if (DEBUG_ENABLED) {
+            debug(message.get());
         }
     }
 
     /**
-     * Log debug with key-value pair
+     * Log debug with key-value pair (formatted only when debug is enabled)
      */
     public static void debug(String key, Object value) {
-        debug(key + " = " + formatValue(value));
+        if (DEBUG_ENABLED) {
+            debug(key + " = " + formatValue(value));
+        }
     }
 
     /**
      * Log info message
      */
     public static void info(String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        info(message, "log", message, -1);
+    }
+
+    /**
+     * Info line in the report / console; its EventLog event is event with
+     * subject as message (and durationMillis, if &gt;= 0)
+     */
+    private static void info(String message, String event, String subject, long durationMillis) {
+        if (!INFO_ENABLED) {
+            return;
+        }
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.info("ℹ️ " + message);
+            ReportQueue.log(test, Status.INFO, "ℹ️ " + message);
+        }
+        console(false, "  ℹ️  [INFO] ", message);
+        EventLog.log("INFO", event, subject, durationMillis, null);
+    }
+
+    /**
+     * Log info message built only when info is enabled
+     */
+    public static void info(Supplier<String> message) {
+        if (INFO_ENABLED) {
+            info(message.get());
         }
-        System.out.println("  ℹ️  [INFO] " + getCurrentTime() + " " + message);
     }
 
     /**
      * Log warning message
      */
     public static void warn(String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        if (!WARN_ENABLED) {
+            return;
+        }
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.warning(MarkupHelper.createLabel("⚠️ " + message, ExtentColor.YELLOW));
+            ReportQueue.label(test, Status.WARNING, "⚠️ " + message, ExtentColor.YELLOW);
+        }
+        console(false, "  ⚠️  [WARN] ", message);
+        EventLog.log("WARN", "log", message);
+    }
+
+    /**
+     * Log warning message built only when warn is enabled
+     */
+    public static void warn(Supplier<String> message) {
+        if (WARN_ENABLED) {
+            warn(message.get());
         }
-        System.out.println("  ⚠️  [WARN] " + getCurrentTime() + " " + message);
     }
 
     /**
      * Log error message
      */
     public static void error(String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        if (!ERROR_ENABLED) {
+            return;
+        }
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.fail(MarkupHelper.createLabel("❌ ERROR: " + message, ExtentColor.RED));
+            ReportQueue.label(test, Status.FAIL, "❌ ERROR: " + message, ExtentColor.RED);
         }
-        System.err.println("  ❌ [ERROR] " + getCurrentTime() + " " + message);
+        console(true, "  ❌ [ERROR] ", message);
+        EventLog.log("ERROR", "log", message);
     }
 
     /**
      * Log pass message
      */
     public static void pass(String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.pass(MarkupHelper.createLabel("✅ " + message, ExtentColor.GREEN));
+            ReportQueue.label(test, Status.PASS, "✅ " + message, ExtentColor.GREEN);
         }
-        System.out.println("  ✅ [PASS] " + getCurrentTime() + " " + message);
+        console(false, "  ✅ [PASS] ", message);
+        EventLog.log("INFO", "pass", message);
     }
 
     /**
      * Log fail message
      */
     public static void fail(String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.fail(MarkupHelper.createLabel("❌ " + message, ExtentColor.RED));
+            ReportQueue.label(test, Status.FAIL, "❌ " + message, ExtentColor.RED);
         }
-        System.err.println("  ❌ [FAIL] " + getCurrentTime() + " " + message);
+        console(true, "  ❌ [FAIL] ", message);
+        EventLog.log("ERROR", "fail", message);
     }
 
     // ════════════════════════════════════════════════════════
@@ -121,34 +212,37 @@ public class TestLogger {
      * Create a numbered step
      * Example: "Step 1: Login to application"
      */
-    public static ExtentTest step(String description) {
-        stepCounter++;
-        String stepName = "Step " + stepCounter + ": " + description;
+    public static ReportHandle step(String description) {
+        TestContext context = TestContext.current();
+        String stepName = "Step " + context.nextStep() + ": " + description;
+        context.startStep(stepName);
 
-        ExtentTest test = ExtentReportManager.getTest();
-        ExtentTest stepNode = null;
+        ReportHandle test = ExtentReportManager.getTest();
+        ReportHandle stepNode = null;
 
         if (test != null) {
-            stepNode = test.createNode(stepName);
-            stepNode.info("🚀 Starting: " + description);
+            // Created by the report writer, after everything logged before it
+            stepNode = ReportQueue.createNode(test, stepName, "🚀 Starting: " + description);
         }
 
-        System.out.println("\n  🚀 " + stepName);
+        ConsoleSink.out("\n  🚀 " + stepName);
+        EventLog.log("INFO", "step", description);
         return stepNode;
     }
 
     /**
      * Create a step without numbering
      */
-    public static ExtentTest createStep(String description) {
-        ExtentTest test = ExtentReportManager.getTest();
-        ExtentTest stepNode = null;
+    public static ReportHandle createStep(String description) {
+        ReportHandle test = ExtentReportManager.getTest();
+        ReportHandle stepNode = null;
 
         if (test != null) {
-            stepNode = test.createNode(description);
+            stepNode = ReportQueue.createNode(test, description, null);
         }
 
-        System.out.println("\n  📌 " + description);
+        ConsoleSink.out("\n  📌 " + description);
+        EventLog.log("INFO", "step", description);
         return stepNode;
     }
 
@@ -156,7 +250,7 @@ public class TestLogger {
      * Reset step counter (call in @BeforeMethod)
      */
     public static void resetStepCounter() {
-        stepCounter = 0;
+        TestContext.current().resetSteps();
     }
 
     // ════════════════════════════════════════════════════════
@@ -171,11 +265,12 @@ public class TestLogger {
         String formattedValue = formatValue(value);
         String message = "📦 Variable [" + name + "] = " + formattedValue;
 
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.info("<b>" + name + "</b> = <code>" + formattedValue + "</code>");
+            ReportQueue.variable(test, name, formattedValue);
         }
-        System.out.println("  📦 " + name + " = " + formattedValue);
+        ConsoleSink.out("  📦 " + name + " = " + formattedValue);
+        EventLog.log("INFO", "variable", name + " = " + formattedValue);
     }
 
     /**
@@ -216,22 +311,19 @@ public class TestLogger {
             return;
         }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append(name).append(" (").append(list.size()).append(" items):");
-
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            sb.append("<ul>");
+            String[] items = new String[list.size()];
             for (int i = 0; i < list.size(); i++) {
-                sb.append("<li>").append(i).append(": ").append(list.get(i)).append("</li>");
+                items[i] = String.valueOf(list.get(i));
             }
-            sb.append("</ul>");
-            test.info(sb.toString());
+            ReportQueue.list(test, name + " (" + list.size() + " items):", items);
         }
 
-        System.out.println("  📋 " + name + " (" + list.size() + " items):");
+        ConsoleSink.out("  📋 " + name + " (" + list.size() + " items):");
+        EventLog.log("INFO", "list", name + " (" + list.size() + " items): " + list);
         for (int i = 0; i < list.size(); i++) {
-            System.out.println("      [" + i + "] " + list.get(i));
+            ConsoleSink.out("      [" + i + "] " + list.get(i));
         }
     }
 
@@ -244,23 +336,20 @@ public class TestLogger {
             return;
         }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append(name).append(" (").append(map.size()).append(" entries):");
-
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            sb.append("<ul>");
+            String[][] entries = new String[map.size()][];
+            int i = 0;
             for (Map.Entry<?, ?> entry : map.entrySet()) {
-                sb.append("<li><b>").append(entry.getKey()).append("</b>: ")
-                  .append(entry.getValue()).append("</li>");
+                entries[i++] = new String[]{String.valueOf(entry.getKey()), String.valueOf(entry.getValue())};
             }
-            sb.append("</ul>");
-            test.info(sb.toString());
+            ReportQueue.keyValues(test, name + " (" + map.size() + " entries):", entries);
         }
 
-        System.out.println("  📋 " + name + " (" + map.size() + " entries):");
+        ConsoleSink.out("  📋 " + name + " (" + map.size() + " entries):");
+        EventLog.log("INFO", "map", name + " (" + map.size() + " entries): " + map);
         for (Map.Entry<?, ?> entry : map.entrySet()) {
-            System.out.println("      " + entry.getKey() + " = " + entry.getValue());
+            ConsoleSink.out("      " + entry.getKey() + " = " + entry.getValue());
         }
     }
 
@@ -279,16 +368,17 @@ public class TestLogger {
      * Log an exception with custom message
      */
     public static void exception(String message, Throwable throwable) {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.fail(throwable);
-            test.fail("<b>❌ " + message + "</b>: " + throwable.getMessage());
+            ReportQueue.throwable(test, Status.FAIL, throwable);
+            ReportQueue.log(test, Status.FAIL, "<b>❌ " + message + "</b>: " + throwable.getMessage());
         }
 
-        System.err.println("  ❌ [EXCEPTION] " + message);
-        System.err.println("      Message: " + throwable.getMessage());
-        System.err.println("      Type: " + throwable.getClass().getName());
-        throwable.printStackTrace();
+        ConsoleSink.err("  ❌ [EXCEPTION] " + message);
+        ConsoleSink.err("      Message: " + throwable.getMessage());
+        ConsoleSink.err("      Type: " + throwable.getClass().getName());
+        ConsoleSink.err(throwable);
+        EventLog.log("ERROR", "exception", message + ": " + throwable);
     }
 
     // ════════════════════════════════════════════════════════
@@ -300,20 +390,34 @@ public class TestLogger {
      */
     public static void screenshot(WebDriver driver, String description) {
         try {
-            String base64 = ScreenshotUtil.captureScreenshotAsBase64(driver);
-
-            ExtentTest test = ExtentReportManager.getTest();
-            if (test != null && base64 != null) {
-                test.info("📸 " + description);
-                test.addScreenCaptureFromBase64String(base64, description);
-            }
-
-            info("Screenshot captured: " + description);
+            // Only the capture happens here - encoding/embedding runs on ScreenshotWriter
+            attachScreenshot(ScreenshotUtil.capture(driver, "step"), description);
         } catch (Exception e) {
             warn("Failed to capture screenshot: " + e.getMessage());
         }
     }
 
+    /**
+     * Capture and log a screenshot of a single element (e.g. the cart list)
+     */
+    public static void screenshot(WebElement element, String description) {
+        try {
+            attachScreenshot(ScreenshotUtil.captureElement(element, "element"), description);
+        } catch (Exception e) {
+            warn("Failed to capture element screenshot: " + e.getMessage());
+        }
+    }
+
+    private static void attachScreenshot(Screenshot screenshot, String description) {
+        ReportHandle test = ExtentReportManager.getTest();
+        if (test != null && screenshot != null) {
+            ReportQueue.log(test, Status.INFO, "📸 " + description);
+            ScreenshotWriter.attachAsync(test, screenshot, description);
+        }
+
+        info("Screenshot captured: " + description);
+    }
+
     /**
      * Capture screenshot of a specific step
      */
@@ -334,16 +438,16 @@ public class TestLogger {
             return;
         }
 
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            String markup = MarkupHelper.createTable(data).getMarkup();
-            test.info("<b>" + title + "</b>" + markup);
+            ReportQueue.table(test, title, data);
         }
 
         // Console output
-        System.out.println("  📊 " + title + ":");
+        ConsoleSink.out("  📊 " + title + ":");
+        EventLog.log("INFO", "table", title + " (" + data.length + " rows)");
         for (String[] row : data) {
-            System.out.println("      " + String.join(" | ", row));
+            ConsoleSink.out("      " + String.join(" | ", row));
         }
     }
 
@@ -375,24 +479,53 @@ public class TestLogger {
      * Start a timer
      */
     public static void startTimer(String timerName) {
-        timers.put(timerName, System.currentTimeMillis());
-        debug("Timer started: " + timerName);
+        TestContext.current().startTimer(timerName);
+        if (DEBUG_ENABLED) {
+            debug("Timer started: " + timerName);
+        }
     }
 
     /**
      * Stop a timer and log elapsed time
      */
     public static long stopTimer(String timerName) {
-        Long startTime = timers.get(timerName);
+        Long startTime = TestContext.current().stopTimer(timerName);
         if (startTime == null) {
             warn("Timer '" + timerName + "' was not started");
             return 0;
         }
 
         long elapsed = System.currentTimeMillis() - startTime;
-        timers.remove(timerName);
 
-        info("⏱️ Timer [" + timerName + "] = " + formatDuration(elapsed));
+        info("⏱️ Timer [" + timerName + "] = " + formatDuration(elapsed), "timer", timerName, elapsed);
+        return elapsed;
+    }
+
+    /**
+     * Open a span; spans nest, endSpan() closes the innermost one
+     */
+    public static void startSpan(String name) {
+        TestContext.Span span = TestContext.current().pushSpan(name);
+        if (DEBUG_ENABLED) {
+            debug("Span started: " + indent(span.getDepth()) + name);
+        }
+    }
+
+    /**
+     * Close the innermost open span and log its duration
+     */
+    public static long endSpan() {
+        TestContext.Span span = TestContext.current().popSpan();
+        if (span == null) {
+            warn("No span is open");
+            return 0;
+        }
+
+        long endNanos = System.nanoTime();
+        SpanTracer.record(span.getName(), "span", span.getStartNanos(), endNanos);
+        long elapsed = (endNanos - span.getStartNanos()) / 1_000_000;
+        info("⏱️ " + indent(span.getDepth()) + "Span [" + span.getName() + "] = " + formatDuration(elapsed),
+            "span", span.getName(), elapsed);
         return elapsed;
     }
 
@@ -401,7 +534,7 @@ public class TestLogger {
      */
     public static void logDuration(String operation, long milliseconds) {
         String formatted = formatDuration(milliseconds);
-        info("⏱️ " + operation + " took " + formatted);
+        info("⏱️ " + operation + " took " + formatted, "duration", operation, milliseconds);
     }
 
     // ════════════════════════════════════════════════════════
@@ -454,22 +587,23 @@ public class TestLogger {
      * Log highlighted/important message
      */
     public static void highlight(String message) {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.info(MarkupHelper.createLabel("⭐ " + message, ExtentColor.BLUE));
+            ReportQueue.label(test, Status.INFO, "⭐ " + message, ExtentColor.BLUE);
         }
-        System.out.println("\n  ⭐⭐⭐ " + message.toUpperCase() + " ⭐⭐⭐");
+        ConsoleSink.out("\n  ⭐⭐⭐ " + message.toUpperCase() + " ⭐⭐⭐");
+        EventLog.log("INFO", "highlight", message);
     }
 
     /**
      * Log separator line
      */
     public static void separator() {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.info("<hr>");
+            ReportQueue.log(test, Status.INFO, "<hr>");
         }
-        System.out.println("  ─────────────────────────────────────────────────────────");
+        ConsoleSink.out("  ─────────────────────────────────────────────────────────");
     }
 
     // ════════════════════════════════════════════════════════
@@ -480,26 +614,26 @@ public class TestLogger {
      * Log JSON string with pretty formatting
      */
     public static void json(String title, String jsonString) {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.info("<b>" + title + "</b><pre><code class='language-json'>"
-                    + jsonString + "</code></pre>");
+            ReportQueue.code(test, title, jsonString, "json");
         }
-        System.out.println("  📄 " + title + ":");
-        System.out.println(jsonString);
+        ConsoleSink.out("  📄 " + title + ":");
+        EventLog.log("INFO", "code", title);
+        ConsoleSink.out(jsonString);
     }
 
     /**
      * Log code block
      */
     public static void code(String title, String code, String language) {
-        ExtentTest test = ExtentReportManager.getTest();
+        ReportHandle test = ExtentReportManager.getTest();
         if (test != null) {
-            test.info("<b>" + title + "</b><pre><code class='language-" + language + "'>"
-                    + code + "</code></pre>");
+            ReportQueue.code(test, title, code, language);
         }
-        System.out.println("  💻 " + title + ":");
-        System.out.println(code);
+        ConsoleSink.out("  💻 " + title + ":");
+        EventLog.log("INFO", "code", title);
+        ConsoleSink.out(code);
     }
 
     // ════════════════════════════════════════════════════════
@@ -526,10 +660,36 @@ public class TestLogger {
     }
 
     /**
-     * Get current time as string
+     * Print "prefix HH:mm:ss.SSS message" as one line
      */
-    private static String getCurrentTime() {
-        return LocalDateTime.now().format(TIME_FORMATTER);
+    private static void console(boolean err, String prefix, String message) {
+        StringBuilder line = new StringBuilder(prefix.length() + message.length() + 14).append(prefix);
+        appendTime(line).append(' ').append(message);
+        if (err) {
+            ConsoleSink.err(line.toString());
+        } else {
+            ConsoleSink.out(line.toString());
+        }
+    }
+
+    /**
+     * Append the current time as HH:mm:ss.SSS; the seconds part is formatted
+     * once per second, the milliseconds are appended as digits
+     */
+    private static StringBuilder appendTime(StringBuilder out) {
+        long now = System.currentTimeMillis();
+        long second = Math.floorDiv(now, 1000);
+        ClockSecond cached = clockSecond;
+        if (cached.epochSecond != second) {
+            cached = new ClockSecond(second, LocalTime.ofInstant(Instant.ofEpochSecond(second), ZONE)
+                .format(SECOND_FORMATTER));
+            clockSecond = cached;
+        }
+        int millis = (int) (now - second * 1000);
+        return out.append(cached.text)
+            .append((char) ('0' + millis / 100))
+            .append((char) ('0' + millis / 10 % 10))
+            .append((char) ('0' + millis % 10));
     }
 
     /**
@@ -547,20 +707,46 @@ public class TestLogger {
         }
     }
 
+    private static String indent(int depth) {
+        StringBuilder indent = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            indent.append("  ");
+        }
+        return indent.toString();
+    }
+
     /**
      * Check if debug logging is enabled
      */
-    private static boolean isDebugEnabled() {
-        // Can be controlled via config or system property
-        String debugProperty = System.getProperty("test.debug", "false");
-        return Boolean.parseBoolean(debugProperty);
+    public static boolean isDebugEnabled() {
+        return DEBUG_ENABLED;
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.compareTo(LEVEL) >= 0;
+    }
+
+    /**
+     * log.level from config, DEBUG when -Dtest.debug=true
+     */
+    private static Level resolveLevel() {
+        if (Boolean.parseBoolean(System.getProperty("test.debug", "false"))) {
+            return Level.DEBUG;
+        }
+        String level = ConfigReader.getProperty("log.level", "INFO").trim().toUpperCase();
+        try {
+            return Level.valueOf(level);
+        } catch (IllegalArgumentException e) {
+            ConsoleSink.err("⚠️ Unknown log.level '" + level + "', using INFO");
+            return Level.INFO;
+        }
     }
 
     /**
      * Clear all timers
      */
     public static void clearTimers() {
-        timers.clear();
+        TestContext.current().clearTimers();
     }
 
     // ════════════════════════════════════════════════════════